@@ -0,0 +1,187 @@
+package club.gclmit.gear4j.core.beans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.utils.ClassUtils;
+import club.gclmit.gear4j.core.utils.ConvertUtils;
+import cn.hutool.core.util.ReflectUtil;
+
+/**
+ * Map 到 Bean 的绑定器
+ * <p>
+ * 每个目标类只解析一次字段，编译出 {@link MethodHandle} 形式的构造器和 setter，并预先解析字段的目标类型与转换方式。
+ * 之后的每次绑定只需遍历参数 Map。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/20 14:21
+ * @since jdk11
+ */
+public class BeanBinder<T> {
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	private static final ClassValue<BeanBinder<?>> BINDERS = new ClassValue<>() {
+		@Override
+		protected BeanBinder<?> computeValue(Class<?> type) {
+			return new BeanBinder<>(type);
+		}
+	};
+
+	private final Class<T> clazz;
+
+	/**
+	 * 无参构造器，不存在时为 null
+	 */
+	private final MethodHandle constructor;
+
+	/**
+	 * 字段名 -> 字段绑定计划
+	 */
+	private final Map<String, FieldBinder> fields;
+
+	private BeanBinder(Class<T> clazz) {
+		this.clazz = clazz;
+		this.constructor = findConstructor(clazz);
+		Field[] declaredFields = ReflectUtil.getFields(clazz);
+		this.fields = new HashMap<>(declaredFields.length * 2);
+		for (Field field : declaredFields) {
+			if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+				continue;
+			}
+			// 子类字段优先，与按字段顺序依次赋值的结果一致
+			fields.putIfAbsent(field.getName(), new FieldBinder(field));
+		}
+	}
+
+	/**
+	 * 获取目标类的绑定器，按类缓存
+	 *
+	 * @param clazz 目标类
+	 * @param <T>   目标类型
+	 * @return {@link BeanBinder}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> BeanBinder<T> of(Class<T> clazz) {
+		return (BeanBinder<T>) BINDERS.get(clazz);
+	}
+
+	/**
+	 * 将 map 中的数据绑定到目标类的同名属性中
+	 *
+	 * @param map 参数 Map
+	 * @return 目标对象
+	 */
+	public T bind(Map<String, ?> map) {
+		T obj = newInstance();
+		for (Map.Entry<String, ?> entry : map.entrySet()) {
+			FieldBinder binder = fields.get(entry.getKey());
+			if (binder != null) {
+				binder.bind(obj, entry.getValue());
+			}
+		}
+		return obj;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T newInstance() {
+		if (constructor == null) {
+			return ReflectUtil.newInstance(clazz);
+		}
+		try {
+			return (T) constructor.invokeExact();
+		} catch (Throwable e) {
+			throw new Gear4jException(e, "实例化[{}]失败", clazz.getName());
+		}
+	}
+
+	private static MethodHandle findConstructor(Class<?> clazz) {
+		try {
+			return lookup(clazz).findConstructor(clazz, MethodType.methodType(void.class)).asType(CONSTRUCTOR_TYPE);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	private static MethodHandles.Lookup lookup(Class<?> clazz) throws IllegalAccessException {
+		return MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+	}
+
+	/**
+	 * 单个字段的绑定计划：setter + 预解析的目标类型
+	 */
+	private static class FieldBinder {
+
+		private final String name;
+
+		private final Class<?> type;
+
+		private final TypeDescriptor typeDescriptor;
+
+		/**
+		 * 无注解且非泛型的字段按类型对走缓存转换器和快速路径，否则需要完整的 TypeDescriptor 上下文
+		 */
+		private final boolean plain;
+
+		private final MethodHandle setter;
+
+		FieldBinder(Field field) {
+			this.name = field.getName();
+			this.type = field.getType();
+			this.typeDescriptor = new TypeDescriptor(field);
+			this.plain = field.getAnnotations().length == 0 && field.getGenericType() instanceof Class;
+			this.setter = setter(field);
+		}
+
+		private static MethodHandle setter(Field field) {
+			try {
+				return lookup(field.getDeclaringClass()).unreflectSetter(field).asType(SETTER_TYPE);
+			} catch (IllegalAccessException e) {
+				field.setAccessible(true);
+				try {
+					return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+				} catch (IllegalAccessException ex) {
+					throw new Gear4jException(ex, "无法访问字段[{}]", field);
+				}
+			}
+		}
+
+		void bind(Object target, Object value) {
+			if (value != null && value.getClass().isArray()) {
+				int length = Array.getLength(value);
+				if (length > 1) {
+					throw new Gear4jException("不支持数组参数");
+				}
+				if (length == 0) {
+					return;
+				}
+				value = Array.get(value, 0);
+			}
+			Object converted;
+			if (plain) {
+				converted = ConvertUtils.convert(value, type);
+			} else {
+				converted = ClassUtils.isAssignableValue(type, value) ? value : ConvertUtils.convert(value, typeDescriptor);
+			}
+			if (converted == null && type.isPrimitive()) {
+				return;
+			}
+			try {
+				setter.invokeExact(target, converted);
+			} catch (Throwable e) {
+				throw new Gear4jException(e, "字段[{}]赋值失败", name);
+			}
+		}
+	}
+}
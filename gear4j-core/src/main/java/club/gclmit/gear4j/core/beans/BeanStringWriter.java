@@ -0,0 +1,287 @@
+package club.gclmit.gear4j.core.beans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import cn.hutool.core.util.ObjectUtil;
+
+/**
+ * 基于反射的 toString 写入器
+ * <p>
+ * 每个类的字段读取计划（{@link MethodHandle} getter）只解析一次并缓存，输出直接追加到线程内复用的
+ * {@link StringBuilder} 中。只有顶层对象和未重写 toString 的嵌套对象按字段展开，重写了 toString 的嵌套对象（框架代理、
+ * 第三方类型等）调用其自身的 toString，避免反射进入框架内部或触发延迟加载。嵌套对象/集合/数组/Map 超过最大深度后不再展开，
+ * 总长度超过上限后截断并以 {@code ...} 结尾，避免大对象打出超长日志。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/21 10:08
+ * @since jdk11
+ */
+public class BeanStringWriter {
+
+	/**
+	 * 默认最大输出长度
+	 */
+	public static final int DEFAULT_MAX_LENGTH = 4096;
+
+	/**
+	 * 默认对象/集合/数组/Map 最大展开深度
+	 */
+	public static final int DEFAULT_MAX_DEPTH = 3;
+
+	private static final String NULL = "null";
+
+	private static final String ELLIPSIS = "...";
+
+	/**
+	 * 超过该容量的缓冲区不再复用，防止线程长期持有大块内存
+	 */
+	private static final int MAX_CACHED_CAPACITY = 16 * 1024;
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final ThreadLocal<StringBuilder[]> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder[1]);
+
+	private static final ClassValue<FieldReader[]> PLANS = new ClassValue<>() {
+		@Override
+		protected FieldReader[] computeValue(Class<?> type) {
+			return plan(type);
+		}
+	};
+
+	private static final ClassValue<Boolean> CUSTOM_TO_STRING = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("toString").getDeclaringClass() != Object.class;
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+
+	private BeanStringWriter() {
+	}
+
+	/**
+	 * 使用默认长度和深度限制输出对象
+	 *
+	 * @param obj 对象
+	 * @return {@link String}
+	 */
+	public static String write(Object obj) {
+		return write(obj, DEFAULT_MAX_LENGTH, DEFAULT_MAX_DEPTH);
+	}
+
+	/**
+	 * 输出对象
+	 *
+	 * @param obj       对象
+	 * @param maxLength 最大输出长度
+	 * @param maxDepth  对象/集合/数组/Map 最大展开深度
+	 * @return {@link String}
+	 */
+	public static String write(Object obj, int maxLength, int maxDepth) {
+		if (obj == null) {
+			return NULL;
+		}
+		// 取出线程缓冲区，字段的 toString 中再次调用时会拿到新的缓冲区
+		StringBuilder[] holder = BUFFER.get();
+		StringBuilder out = holder[0] == null ? new StringBuilder(256) : holder[0];
+		holder[0] = null;
+		try {
+			out.setLength(0);
+			writeTo(out, obj, maxLength, maxDepth);
+			return out.toString();
+		} finally {
+			if (out.capacity() <= MAX_CACHED_CAPACITY) {
+				holder[0] = out;
+			}
+		}
+	}
+
+	/**
+	 * 将对象追加到指定缓冲区
+	 *
+	 * @param out       缓冲区
+	 * @param obj       对象
+	 * @param maxLength 最大输出长度（相对于写入前的位置）
+	 * @param maxDepth  对象/集合/数组/Map 最大展开深度
+	 */
+	public static void writeTo(StringBuilder out, Object obj, int maxLength, int maxDepth) {
+		int limit = out.length() + maxLength;
+		if (obj == null || isValue(obj.getClass())) {
+			writeValue(out, obj, limit, 0, maxDepth);
+		} else {
+			writeBean(out, obj, limit, 0, maxDepth);
+		}
+		if (out.length() > limit) {
+			out.setLength(limit);
+			out.append(ELLIPSIS);
+		}
+	}
+
+	private static void writeBean(StringBuilder out, Object obj, int limit, int depth, int maxDepth) {
+		out.append(obj.getClass().getSimpleName()).append('{');
+		if (depth >= maxDepth) {
+			out.append("...}");
+			return;
+		}
+		FieldReader[] readers = PLANS.get(obj.getClass());
+		for (int i = 0; i < readers.length && out.length() <= limit; i++) {
+			if (i > 0) {
+				out.append(", ");
+			}
+			Object value = readers[i].read(obj);
+			out.append(readers[i].name).append('=');
+			writeValue(out, ObjectUtil.isEmpty(value) ? null : value, limit, depth + 1, maxDepth);
+		}
+		out.append('}');
+	}
+
+	private static void writeValue(StringBuilder out, Object value, int limit, int depth, int maxDepth) {
+		if (out.length() > limit) {
+			return;
+		}
+		if (value == null) {
+			out.append(NULL);
+		} else if (value instanceof CharSequence) {
+			out.append((CharSequence) value, 0, Math.min(((CharSequence) value).length(), limit - out.length() + 1));
+		} else if (value.getClass().isArray()) {
+			if (depth >= maxDepth) {
+				out.append("[...]");
+				return;
+			}
+			out.append('[');
+			int length = Array.getLength(value);
+			for (int i = 0; i < length && out.length() <= limit; i++) {
+				if (i > 0) {
+					out.append(", ");
+				}
+				writeValue(out, Array.get(value, i), limit, depth + 1, maxDepth);
+			}
+			out.append(']');
+		} else if (value instanceof Collection) {
+			if (depth >= maxDepth) {
+				out.append("[...]");
+				return;
+			}
+			out.append('[');
+			boolean first = true;
+			for (Object element : (Collection<?>) value) {
+				if (out.length() > limit) {
+					break;
+				}
+				if (!first) {
+					out.append(", ");
+				}
+				first = false;
+				writeValue(out, element, limit, depth + 1, maxDepth);
+			}
+			out.append(']');
+		} else if (value instanceof Map) {
+			if (depth >= maxDepth) {
+				out.append("{...}");
+				return;
+			}
+			out.append('{');
+			boolean first = true;
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				if (out.length() > limit) {
+					break;
+				}
+				if (!first) {
+					out.append(", ");
+				}
+				first = false;
+				writeValue(out, entry.getKey(), limit, depth + 1, maxDepth);
+				out.append('=');
+				writeValue(out, entry.getValue(), limit, depth + 1, maxDepth);
+			}
+			out.append('}');
+		} else if (isValue(value.getClass()) || CUSTOM_TO_STRING.get(value.getClass())) {
+			out.append(value);
+		} else {
+			// 未重写 toString 的嵌套对象共用剩余的长度和深度按字段展开
+			writeBean(out, value, limit, depth, maxDepth);
+		}
+	}
+
+	/**
+	 * JDK 自带的值类型直接输出，不做字段展开
+	 */
+	private static boolean isValue(Class<?> type) {
+		return type.isPrimitive() || type.isEnum() || type.isArray() || CharSequence.class.isAssignableFrom(type)
+			|| Number.class.isAssignableFrom(type) || Boolean.class == type || Character.class == type
+			|| Date.class.isAssignableFrom(type) || TemporalAccessor.class.isAssignableFrom(type)
+			|| Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)
+			|| type.getClassLoader() == null;
+	}
+
+	/**
+	 * 按子类到父类的顺序解析字段读取计划，静态字段与无法访问的字段会被跳过
+	 */
+	private static FieldReader[] plan(Class<?> type) {
+		List<FieldReader> readers = new ArrayList<>();
+		for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			for (Field field : clazz.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+					continue;
+				}
+				MethodHandle getter = getter(field);
+				if (getter != null) {
+					readers.add(new FieldReader(field.getName(), getter));
+				}
+			}
+		}
+		return readers.toArray(new FieldReader[0]);
+	}
+
+	private static MethodHandle getter(Field field) {
+		try {
+			return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+				.unreflectGetter(field).asType(GETTER_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			try {
+				field.setAccessible(true);
+				return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+			} catch (IllegalAccessException | RuntimeException ex) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * 单个字段的读取计划
+	 */
+	private static class FieldReader {
+
+		private final String name;
+
+		private final MethodHandle getter;
+
+		FieldReader(String name, MethodHandle getter) {
+			this.name = name;
+			this.getter = getter;
+		}
+
+		Object read(Object target) {
+			try {
+				return (Object) getter.invokeExact(target);
+			} catch (Throwable e) {
+				throw new Gear4jException("通过反射拼接ToString异常", e);
+			}
+		}
+	}
+}
@@ -1,15 +1,29 @@
 package club.gclmit.gear4j.core.beans;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
 import org.springframework.format.support.DefaultFormattingConversionService;
 
 /**
  * 通过单例模式获取 DefaultFormattingConversionService
+ * <p>
+ * 额外提供按 (sourceClass, targetClass) 缓存的转换器解析，命中后直接调用已解析的 {@link GenericConverter}，
+ * 省去每次构造 {@link TypeDescriptor} 和通用查找的开销。注册或移除转换器时缓存整体失效。
  *
  * @author <a href="https://blog.gclmit.club">gclm</a>
  * @since jdk11
  */
 public class ChaosConversionService extends DefaultFormattingConversionService {
 
+	/**
+	 * sourceClass -> targetClass -> 已解析的转换器
+	 */
+	private volatile Map<Class<?>, Map<Class<?>, ResolvedConverter>> resolved = new ConcurrentHashMap<>();
+
 	/**
 	 * 实例化单例ChaosConversionService
 	 *
@@ -19,6 +33,88 @@ public class ChaosConversionService extends DefaultFormattingConversionService {
 		return ChaosConversionServiceHandler.instance;
 	}
 
+	/**
+	 * 获取 sourceClass 到 targetClass 的转换器，按类型对缓存
+	 *
+	 * @param sourceClass 源类型
+	 * @param targetClass 目标类型
+	 * @return {@link ResolvedConverter}
+	 */
+	public ResolvedConverter resolve(Class<?> sourceClass, Class<?> targetClass) {
+		Map<Class<?>, ResolvedConverter> targets = resolved.computeIfAbsent(sourceClass, key -> new ConcurrentHashMap<>());
+		ResolvedConverter converter = targets.get(targetClass);
+		if (converter == null) {
+			TypeDescriptor sourceType = TypeDescriptor.valueOf(sourceClass);
+			TypeDescriptor targetType = TypeDescriptor.valueOf(targetClass);
+			converter = new ResolvedConverter(this, sourceType, targetType, getConverter(sourceType, targetType));
+			targets.putIfAbsent(targetClass, converter);
+		}
+		return converter;
+	}
+
+	@Override
+	public void addConverter(GenericConverter converter) {
+		super.addConverter(converter);
+		// 父类构造器注册默认转换器时字段尚未初始化，重新赋值即可
+		resolved = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public void removeConvertible(Class<?> sourceType, Class<?> targetType) {
+		super.removeConvertible(sourceType, targetType);
+		resolved = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * 已解析的转换器
+	 */
+	public static class ResolvedConverter {
+
+		private final ChaosConversionService conversionService;
+
+		private final TypeDescriptor sourceType;
+
+		private final TypeDescriptor targetType;
+
+		/**
+		 * 找不到转换器时为 null
+		 */
+		private final GenericConverter converter;
+
+		ResolvedConverter(ChaosConversionService conversionService, TypeDescriptor sourceType, TypeDescriptor targetType,
+			GenericConverter converter) {
+			this.conversionService = conversionService;
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+		}
+
+		/**
+		 * 转换对象，异常与 {@link #convert(Object, TypeDescriptor, TypeDescriptor)} 保持一致
+		 *
+		 * @param source 源对象，类型必须与解析时的 sourceClass 一致
+		 * @return 转换后的对象
+		 */
+		public Object convert(Object source) {
+			if (converter == null || source == null) {
+				// 交给通用流程抛出 ConverterNotFoundException 或处理 null
+				return conversionService.convert(source, sourceType, targetType);
+			}
+			Object result;
+			try {
+				result = converter.convert(source, sourceType, targetType);
+			} catch (ConversionFailedException e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new ConversionFailedException(sourceType, targetType, source, e);
+			}
+			if (result == null && targetType.isPrimitive()) {
+				return conversionService.convert(source, sourceType, targetType);
+			}
+			return result;
+		}
+	}
+
 	private static class ChaosConversionServiceHandler {
 		static ChaosConversionService instance = new ChaosConversionService();
 	}
@@ -152,25 +152,68 @@ public class Gear4jException extends RuntimeException {
 
     private static final long serialVersionUID = 1L;
 
-    public Gear4jException() {}
+    /**
+     * 是否为快速失败异常
+     */
+    private final boolean fastFail;
+
+    public Gear4jException() {
+        this.fastFail = false;
+    }
 
     public Gear4jException(Throwable cause) {
         super(cause);
+        this.fastFail = false;
     }
 
     public Gear4jException(String message) {
         super(message);
+        this.fastFail = false;
     }
 
     public Gear4jException(String messageTemplate, Object... params) {
         super(CharSequenceUtil.format(messageTemplate, params));
+        this.fastFail = false;
     }
 
     public Gear4jException(String message, Throwable cause) {
         super(message, cause);
+        this.fastFail = false;
     }
 
     public Gear4jException(Throwable cause, String messageTemplate, Object... params) {
         super(CharSequenceUtil.format(messageTemplate, params), cause);
+        this.fastFail = false;
+    }
+
+    /**
+     * 快速失败异常：不填充堆栈、不记录 suppressed，用于限流、安全拦截等预期内的拒绝。
+     * 实例不可变，可以预先创建后重复抛出
+     *
+     * @param message  异常信息
+     * @param fastFail 是否快速失败
+     */
+    protected Gear4jException(String message, boolean fastFail) {
+        super(message, null, !fastFail, !fastFail);
+        this.fastFail = fastFail;
+    }
+
+    /**
+     * 创建快速失败异常
+     *
+     * @param message 异常信息
+     * @return {@link Gear4jException}
+     */
+    public static Gear4jException fastFail(String message) {
+        return new Gear4jException(message, true);
+    }
+
+    /**
+     * 是否为快速失败异常，处理时无需输出堆栈
+     *
+     * @return boolean
+     */
+    public boolean isFastFail() {
+        return fastFail;
     }
 }
@@ -0,0 +1,124 @@
+package club.gclmit.gear4j.core.http;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个主机的熔断器
+ * <p>
+ * 连续失败达到阈值后打开，打开期间 {@link #tryAcquire()} 返回 {@link Permit#REJECTED}；到期后只放行一个探测请求，
+ * 探测成功则关闭，失败则重新打开。请求结束时把 {@link #tryAcquire()} 返回的许可传回 {@link #onSuccess(Permit)}、
+ * {@link #onFailure(Permit)} 或 {@link #release(Permit)}，只有持有探测许可的请求才能结束半开状态，
+ * 打开之前发出、之后才返回的请求不会影响探测。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/26 15:10
+ * @since jdk11
+ */
+public class CircuitBreaker {
+
+	/**
+	 * {@link #tryAcquire()} 的结果
+	 */
+	public enum Permit {
+
+		/**
+		 * 熔断打开，拒绝请求
+		 */
+		REJECTED,
+
+		/**
+		 * 关闭状态下的普通请求
+		 */
+		NORMAL,
+
+		/**
+		 * 半开状态下唯一的探测请求
+		 */
+		PROBE
+	}
+
+	private final int failureThreshold;
+
+	private final long openNanos;
+
+	private final AtomicInteger failures = new AtomicInteger();
+
+	private final AtomicBoolean probing = new AtomicBoolean();
+
+	/**
+	 * 打开截止时间，0 表示关闭
+	 */
+	private volatile long openUntil;
+
+	public CircuitBreaker(int failureThreshold, long openNanos) {
+		this.failureThreshold = failureThreshold;
+		this.openNanos = openNanos;
+	}
+
+	/**
+	 * 申请发起请求的许可
+	 *
+	 * @return {@link Permit}
+	 */
+	public Permit tryAcquire() {
+		long until = openUntil;
+		if (until == 0) {
+			return Permit.NORMAL;
+		}
+		if (System.nanoTime() - until < 0) {
+			return Permit.REJECTED;
+		}
+		// 半开状态只放行一个探测请求
+		return probing.compareAndSet(false, true) ? Permit.PROBE : Permit.REJECTED;
+	}
+
+	/**
+	 * 归还获得但没有发出请求的许可，探测许可归还后其他请求可以继续探测
+	 *
+	 * @param permit {@link #tryAcquire()} 返回的许可
+	 */
+	public void release(Permit permit) {
+		if (permit == Permit.PROBE) {
+			probing.set(false);
+		}
+	}
+
+	/**
+	 * 请求成功，探测成功时关闭熔断
+	 *
+	 * @param permit {@link #tryAcquire()} 返回的许可
+	 */
+	public void onSuccess(Permit permit) {
+		if (permit == Permit.PROBE) {
+			failures.set(0);
+			openUntil = 0;
+			probing.set(false);
+		} else if (openUntil == 0) {
+			failures.set(0);
+		}
+	}
+
+	/**
+	 * 请求失败，连续失败达到阈值或探测失败时打开熔断
+	 *
+	 * @param permit {@link #tryAcquire()} 返回的许可
+	 */
+	public void onFailure(Permit permit) {
+		if (permit == Permit.PROBE) {
+			openUntil = System.nanoTime() + openNanos;
+			probing.set(false);
+		} else if (openUntil == 0 && failures.incrementAndGet() >= failureThreshold) {
+			openUntil = System.nanoTime() + openNanos;
+		}
+	}
+
+	/**
+	 * 是否处于打开（含半开）状态
+	 *
+	 * @return boolean
+	 */
+	public boolean isOpen() {
+		return openUntil != 0;
+	}
+}
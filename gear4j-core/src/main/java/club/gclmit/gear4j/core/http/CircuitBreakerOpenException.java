@@ -0,0 +1,27 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+
+/**
+ * 目标主机处于熔断状态时抛出，不发起真实请求
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/26 15:10
+ * @since jdk11
+ */
+public class CircuitBreakerOpenException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	public CircuitBreakerOpenException(String host) {
+		super("目标主机[" + host + "]已熔断，请稍后重试");
+	}
+
+	/**
+	 * 熔断是预期内的快速失败，不需要堆栈
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+}
@@ -140,8 +140,11 @@
 
 package club.gclmit.gear4j.core.http;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.ejlchina.okhttps.HttpResult;
 import com.ejlchina.okhttps.OkHttps;
@@ -218,6 +221,29 @@ public class HttpClient {
         return responseAtMillis - sentRequestAtMillis;
     }
 
+    /**
+     * 批量探测 URL，按默认的并发限制异步执行
+     *
+     * @param urls 请求url集合
+     * @return {@link CompletableFuture} 按输入顺序返回的探测结果
+     * @see HttpProbe
+     */
+    public static CompletableFuture<List<HttpProbe.Result>> probe(Collection<String> urls) {
+        return HttpProbe.builder().build().probe(urls);
+    }
+
+    /**
+     * 批量探测 URL，使用 HEAD 请求不下载响应体
+     *
+     * @param urls 请求url集合
+     * @param head 是否使用 HEAD 请求
+     * @return {@link CompletableFuture} 按输入顺序返回的探测结果
+     * @see HttpProbe
+     */
+    public static CompletableFuture<List<HttpProbe.Result>> probe(Collection<String> urls, boolean head) {
+        return HttpProbe.builder().head(head).build().probe(urls);
+    }
+
     /**
      * 通用请求头
      *
@@ -0,0 +1,168 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+import lombok.ToString;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * HTTP 客户端实时指标：连接池、调度器状态和调用耗时直方图
+ * <p>
+ * 作为最外层拦截器统计每次调用（包含重试）的耗时，连接池和调度器的数据在获取快照时实时读取。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/27 10:20
+ * @since jdk11
+ */
+public class HttpClientMetrics implements Interceptor {
+
+	/**
+	 * 耗时直方图的桶上限（毫秒），最后还有一个 +Inf 桶
+	 */
+	private static final long[] BUCKETS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+	private final String name;
+
+	private final ConnectionPool pool;
+
+	private final Dispatcher dispatcher;
+
+	private final LongAdder[] histogram = new LongAdder[BUCKETS.length + 1];
+
+	private final LongAdder calls = new LongAdder();
+
+	private final LongAdder failures = new LongAdder();
+
+	private final LongAdder totalNanos = new LongAdder();
+
+	public HttpClientMetrics(String name, ConnectionPool pool, Dispatcher dispatcher) {
+		this.name = name;
+		this.pool = pool;
+		this.dispatcher = dispatcher;
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = new LongAdder();
+		}
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		long start = System.nanoTime();
+		try {
+			return chain.proceed(chain.request());
+		} catch (IOException | RuntimeException e) {
+			failures.increment();
+			throw e;
+		} finally {
+			record(System.nanoTime() - start);
+		}
+	}
+
+	private void record(long nanos) {
+		calls.increment();
+		totalNanos.add(nanos);
+		long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+		int bucket = 0;
+		while (bucket < BUCKETS.length && millis > BUCKETS[bucket]) {
+			bucket++;
+		}
+		histogram[bucket].increment();
+	}
+
+	/**
+	 * 当前指标快照
+	 *
+	 * @return {@link Snapshot}
+	 */
+	public Snapshot snapshot() {
+		Map<String, Long> latency = new LinkedHashMap<>(histogram.length * 2);
+		for (int i = 0; i < histogram.length; i++) {
+			latency.put(i < BUCKETS.length ? BUCKETS[i] + "ms" : "+Inf", histogram[i].sum());
+		}
+		long count = calls.sum();
+		int connections = pool.connectionCount();
+		int idle = pool.idleConnectionCount();
+		return new Snapshot(name, connections, idle, connections - idle, dispatcher.runningCallsCount(),
+			dispatcher.queuedCallsCount(), count, failures.sum(),
+			count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / count), latency);
+	}
+
+	/**
+	 * 指标快照
+	 */
+	@Getter
+	@ToString
+	public static class Snapshot {
+
+		/**
+		 * 配置档名称
+		 */
+		private final String name;
+
+		/**
+		 * 连接总数
+		 */
+		private final int connections;
+
+		/**
+		 * 空闲连接数
+		 */
+		private final int idleConnections;
+
+		/**
+		 * 使用中的连接数
+		 */
+		private final int activeConnections;
+
+		/**
+		 * 执行中的调用数
+		 */
+		private final int runningCalls;
+
+		/**
+		 * 排队中的异步调用数
+		 */
+		private final int queuedCalls;
+
+		/**
+		 * 已完成的调用数
+		 */
+		private final long calls;
+
+		/**
+		 * 抛出异常的调用数
+		 */
+		private final long failures;
+
+		/**
+		 * 平均耗时（毫秒）
+		 */
+		private final long meanMillis;
+
+		/**
+		 * 耗时直方图：桶上限 -> 调用数
+		 */
+		private final Map<String, Long> latency;
+
+		Snapshot(String name, int connections, int idleConnections, int activeConnections, int runningCalls,
+			int queuedCalls, long calls, long failures, long meanMillis, Map<String, Long> latency) {
+			this.name = name;
+			this.connections = connections;
+			this.idleConnections = idleConnections;
+			this.activeConnections = activeConnections;
+			this.runningCalls = runningCalls;
+			this.queuedCalls = queuedCalls;
+			this.calls = calls;
+			this.failures = failures;
+			this.meanMillis = meanMillis;
+			this.latency = latency;
+		}
+	}
+}
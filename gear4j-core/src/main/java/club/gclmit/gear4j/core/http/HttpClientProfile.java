@@ -0,0 +1,97 @@
+package club.gclmit.gear4j.core.http;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * HTTP 客户端配置档
+ * <p>
+ * 每个配置档对应一个独立的 OkHttp 客户端：独立的连接池、调度器、超时、协议和重试策略，
+ * 通过 {@link HttpClients#register(HttpClientProfile)} 注册，{@link HttpClients#get(String)} 获取。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/27 10:20
+ * @since jdk11
+ */
+@Getter
+@Builder(toBuilder = true)
+public class HttpClientProfile {
+
+	/**
+	 * 默认配置档，对应 {@link com.ejlchina.okhttps.OkHttps} 的全局客户端
+	 */
+	public static final String DEFAULT = "default";
+
+	/**
+	 * 配置档名称
+	 */
+	@Builder.Default
+	private final String name = DEFAULT;
+
+	/**
+	 * 连接池最大空闲连接数
+	 */
+	@Builder.Default
+	private final int maxIdleConnections = 10;
+
+	/**
+	 * 空闲连接保活时间
+	 */
+	@Builder.Default
+	private final Duration keepAlive = Duration.ofMinutes(5);
+
+	/**
+	 * 调度器最大并发请求数（异步请求）
+	 */
+	@Builder.Default
+	private final int maxRequests = 64;
+
+	/**
+	 * 调度器单主机最大并发请求数（异步请求）
+	 */
+	@Builder.Default
+	private final int maxRequestsPerHost = 5;
+
+	/**
+	 * 连接超时
+	 */
+	@Builder.Default
+	private final Duration connectTimeout = Duration.ofSeconds(20);
+
+	/**
+	 * 读超时
+	 */
+	@Builder.Default
+	private final Duration readTimeout = Duration.ofSeconds(10);
+
+	/**
+	 * 写超时
+	 */
+	@Builder.Default
+	private final Duration writeTimeout = Duration.ofSeconds(10);
+
+	/**
+	 * 整个调用的超时，{@link Duration#ZERO} 表示不限制
+	 */
+	@Builder.Default
+	private final Duration callTimeout = Duration.ZERO;
+
+	/**
+	 * 是否优先使用 HTTP/2，关闭后只使用 HTTP/1.1
+	 */
+	@Builder.Default
+	private final boolean http2 = true;
+
+	/**
+	 * 重试策略，为 null 时不重试
+	 */
+	@Builder.Default
+	private final RetryPolicy retryPolicy = RetryPolicy.defaults();
+
+	/**
+	 * GET 响应缓存和并发请求合并，为 null 时不开启
+	 */
+	private final HttpResponseCache responseCache;
+}
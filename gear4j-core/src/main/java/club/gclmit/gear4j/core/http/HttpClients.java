@@ -0,0 +1,160 @@
+package club.gclmit.gear4j.core.http;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.ejlchina.okhttps.HTTP;
+import com.ejlchina.okhttps.OkHttps;
+import com.ejlchina.okhttps.jackson.JacksonMsgConvertor;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * 按配置档管理的 HTTP 客户端
+ * <p>
+ * 不同的下游可以使用不同的配置档，例如内部服务给更多连接，偶尔调用的 webhook 只保留少量连接。
+ * 未注册的配置档沿用默认配置；{@link HttpClientProfile#DEFAULT} 对应 {@link OkHttps} 的全局客户端。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/27 10:20
+ * @since jdk11
+ */
+public class HttpClients {
+
+	private static final Map<String, HttpClientProfile> PROFILES = new ConcurrentHashMap<>();
+
+	private static final Map<String, HTTP> CLIENTS = new ConcurrentHashMap<>();
+
+	private static final Map<String, HttpClientMetrics> METRICS = new ConcurrentHashMap<>();
+
+	private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+
+	private static final Map<String, Dispatcher> DISPATCHERS = new ConcurrentHashMap<>();
+
+	private HttpClients() {
+	}
+
+	/**
+	 * 注册配置档，替换同名配置档；已经创建的客户端会在下次获取时按新配置重建。
+	 * 旧客户端不再由 {@link #get(String)} 返回，空闲连接被清空，调度线程池在正在执行的请求全部完成后关闭，
+	 * 之后仍持有旧实例的调用方发起异步请求会失败，应在首次使用前注册或重新通过 {@link #get(String)} 获取。
+	 * 默认配置档需在首次使用 {@link OkHttps} 之前注册
+	 *
+	 * @param profile 配置档
+	 */
+	public static void register(HttpClientProfile profile) {
+		PROFILES.put(profile.getName(), profile);
+		if (CLIENTS.remove(profile.getName()) != null) {
+			ConnectionPool pool = POOLS.remove(profile.getName());
+			if (pool != null) {
+				pool.evictAll();
+			}
+			Dispatcher dispatcher = DISPATCHERS.remove(profile.getName());
+			if (dispatcher != null) {
+				drain(dispatcher);
+			}
+		}
+	}
+
+	/**
+	 * 正在执行的请求（含排队后被调度的请求）全部完成后关闭调度线程池
+	 */
+	private static void drain(Dispatcher dispatcher) {
+		ExecutorService executor = dispatcher.executorService();
+		dispatcher.setIdleCallback(executor::shutdown);
+		if (dispatcher.runningCallsCount() == 0) {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * 配置档不存在时注册，组件用它提供自己的默认配置而不覆盖使用方的配置
+	 *
+	 * @param profile 配置档
+	 */
+	public static void registerIfAbsent(HttpClientProfile profile) {
+		PROFILES.putIfAbsent(profile.getName(), profile);
+	}
+
+	/**
+	 * 获取配置档，未注册时返回同名的默认配置
+	 *
+	 * @param name 配置档名称
+	 * @return {@link HttpClientProfile}
+	 */
+	public static HttpClientProfile profile(String name) {
+		HttpClientProfile profile = PROFILES.get(name);
+		if (profile != null) {
+			return profile;
+		}
+		HttpClientProfile defaults = PROFILES.getOrDefault(HttpClientProfile.DEFAULT, HttpClientProfile.builder().build());
+		return HttpClientProfile.DEFAULT.equals(name) ? defaults : defaults.toBuilder().name(name).build();
+	}
+
+	/**
+	 * 获取配置档对应的客户端
+	 *
+	 * @param name 配置档名称
+	 * @return {@link HTTP}
+	 */
+	public static HTTP get(String name) {
+		if (HttpClientProfile.DEFAULT.equals(name)) {
+			return OkHttps.getHttp();
+		}
+		return CLIENTS.computeIfAbsent(name, key -> HTTP.builder()
+			.addMsgConvertor(new JacksonMsgConvertor())
+			.config((OkHttpClient.Builder client) -> configure(profile(key), client))
+			.build());
+	}
+
+	/**
+	 * 所有已创建客户端的实时指标
+	 *
+	 * @return 配置档名称 -> 指标快照
+	 */
+	public static Map<String, HttpClientMetrics.Snapshot> metrics() {
+		Map<String, HttpClientMetrics.Snapshot> snapshots = new LinkedHashMap<>(METRICS.size() * 2);
+		METRICS.forEach((name, metrics) -> snapshots.put(name, metrics.snapshot()));
+		return snapshots;
+	}
+
+	/**
+	 * 按配置档配置 OkHttpClient，并登记指标
+	 *
+	 * @param profile 配置档
+	 * @param client  OkHttpClient.Builder
+	 */
+	static void configure(HttpClientProfile profile, OkHttpClient.Builder client) {
+		ConnectionPool pool = new ConnectionPool(profile.getMaxIdleConnections(), profile.getKeepAlive().toMillis(),
+			TimeUnit.MILLISECONDS);
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(profile.getMaxRequests());
+		dispatcher.setMaxRequestsPerHost(profile.getMaxRequestsPerHost());
+		HttpClientMetrics metrics = new HttpClientMetrics(profile.getName(), pool, dispatcher);
+
+		client.connectionPool(pool)
+			.dispatcher(dispatcher)
+			.connectTimeout(profile.getConnectTimeout())
+			.readTimeout(profile.getReadTimeout())
+			.writeTimeout(profile.getWriteTimeout())
+			.callTimeout(profile.getCallTimeout())
+			.protocols(profile.isHttp2() ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+			.addInterceptor(metrics);
+		if (profile.getResponseCache() != null) {
+			client.addInterceptor(profile.getResponseCache());
+		}
+		if (profile.getRetryPolicy() != null) {
+			client.addInterceptor(new RetryInterceptor(profile.getRetryPolicy()));
+		}
+		POOLS.put(profile.getName(), pool);
+		DISPATCHERS.put(profile.getName(), dispatcher);
+		METRICS.put(profile.getName(), metrics);
+	}
+}
@@ -0,0 +1,494 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.lang.DigestType;
+import club.gclmit.gear4j.core.utils.SecureUtils;
+import lombok.Builder;
+import lombok.Getter;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 分段并发下载
+ * <p>
+ * 先用 {@code Range: bytes=0-0} 探测服务端是否支持范围请求：支持时把文件切成若干段并发下载，
+ * 每段通过 {@link FileChannel} 按偏移直接写入预先分配好大小的临时文件；不支持时退化为单连接流式写入。
+ * 下载进度记录在 {@code <文件名>.download} 中，中断后再次下载同一 URL 时从各段已写入的位置继续，
+ * 服务端文件变化（长度、ETag / Last-Modified）时重新下载。全部完成后按需校验 MD5 / SHA-1，再移动到目标位置。
+ *
+ * <pre>
+ * HttpDownloader.builder().parts(8).md5(md5).build().download(url, Paths.get("/data/app.zip"));
+ * </pre>
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/28 14:10
+ * @since jdk11
+ */
+@Getter
+@Builder(toBuilder = true)
+public class HttpDownloader {
+
+	/**
+	 * 下载使用的 HTTP 客户端配置档
+	 */
+	public static final String HTTP_PROFILE = "download";
+
+	/**
+	 * 临时文件后缀
+	 */
+	public static final String PART_SUFFIX = ".part";
+
+	/**
+	 * 进度文件后缀
+	 */
+	public static final String STATE_SUFFIX = ".download";
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * 每段写入超过该字节数就刷盘并记录一次进度
+	 */
+	private static final long CHECKPOINT_SIZE = 4 * 1024 * 1024;
+
+	private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+	static {
+		HttpClients.registerIfAbsent(HttpClientProfile.builder().name(HTTP_PROFILE).maxIdleConnections(8)
+			.readTimeout(Duration.ofSeconds(60)).retryPolicy(null).build());
+	}
+
+	/**
+	 * 最大分段数
+	 */
+	@Builder.Default
+	private final int parts = 4;
+
+	/**
+	 * 最小分段大小，文件较小时减少分段数
+	 */
+	@Builder.Default
+	private final long minPartSize = 1024 * 1024;
+
+	/**
+	 * 每段失败后从已写入的位置重试的次数
+	 */
+	@Builder.Default
+	private final int maxRetries = 3;
+
+	/**
+	 * 使用的 HTTP 客户端配置档
+	 */
+	@Builder.Default
+	private final String profile = HTTP_PROFILE;
+
+	/**
+	 * 期望的 MD5，为空时不校验
+	 */
+	private final String md5;
+
+	/**
+	 * 期望的 SHA-1，为空时不校验
+	 */
+	private final String sha1;
+
+	/**
+	 * 下载文件
+	 *
+	 * @param url    下载地址
+	 * @param target 保存位置，已存在时覆盖
+	 * @return 保存位置
+	 */
+	public Path download(String url, Path target) {
+		try {
+			doDownload(url, target);
+			return target;
+		} catch (IOException e) {
+			throw new Gear4jException("文件下载失败：" + url, e);
+		}
+	}
+
+	private void doDownload(String url, Path target) throws IOException {
+		Path temp = sibling(target, PART_SUFFIX);
+		Path stateFile = sibling(target, STATE_SUFFIX);
+		Response probe = call(new Request.Builder().url(url).header("Range", "bytes=0-0").build());
+		long length = probe.code() == 206 ? totalLength(probe.header("Content-Range")) : -1;
+		if (length < 0) {
+			Files.deleteIfExists(stateFile);
+			if (probe.code() == 200) {
+				single(probe, temp);
+			} else {
+				probe.close();
+				single(call(new Request.Builder().url(url).build()), temp);
+			}
+		} else {
+			String validator = validator(probe);
+			probe.close();
+			State state = State.load(stateFile);
+			if (state == null || !state.matches(url, length, validator) || !Files.exists(temp)) {
+				state = State.create(url, length, validator, split(length));
+				try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+					if (length > 0) {
+						channel.write(ByteBuffer.allocate(1), length - 1);
+					}
+				}
+				state.save(stateFile, state.written());
+			}
+			ranged(state, temp, stateFile);
+		}
+		verify(temp);
+		move(temp, target);
+		Files.deleteIfExists(stateFile);
+	}
+
+	/**
+	 * 单连接流式写入
+	 */
+	private void single(Response response, Path temp) throws IOException {
+		try (response; FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING)) {
+			if (!response.isSuccessful()) {
+				throw new IOException("下载失败，状态码：" + response.code());
+			}
+			InputStream in = Objects.requireNonNull(response.body()).byteStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				ByteBuffer source = ByteBuffer.wrap(buffer, 0, read);
+				while (source.hasRemaining()) {
+					channel.write(source);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 并发下载未完成的分段
+	 */
+	private void ranged(State state, Path temp, Path stateFile) throws IOException {
+		List<Integer> pending = new ArrayList<>();
+		for (int i = 0; i < state.count(); i++) {
+			if (state.positions.get(i) <= state.ends[i]) {
+				pending.add(i);
+			}
+		}
+		if (pending.isEmpty()) {
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(pending.size(), runnable -> {
+			Thread thread = new Thread(runnable, "gear4j-download-" + THREAD_ID.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+			List<Future<?>> futures = new ArrayList<>(pending.size());
+			for (int part : pending) {
+				futures.add(executor.submit(() -> {
+					part(state, part, channel, stateFile);
+					return null;
+				}));
+			}
+			IOException failure = null;
+			boolean changed = false;
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					IOException cause = e.getCause() instanceof IOException ? (IOException) e.getCause()
+						: new IOException(e.getCause());
+					changed |= cause instanceof RangeNotSatisfiedException;
+					if (failure == null) {
+						failure = cause;
+					} else {
+						failure.addSuppressed(cause);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("下载被中断");
+				}
+			}
+			if (changed) {
+				// 服务端文件已变化，已下载的内容作废
+				Files.deleteIfExists(stateFile);
+			} else {
+				long[] written = state.written();
+				channel.force(false);
+				state.save(stateFile, written);
+			}
+			if (failure != null) {
+				throw failure;
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 下载一段，失败后从已写入的位置重试
+	 */
+	private void part(State state, int part, FileChannel channel, Path stateFile) throws IOException {
+		for (int attempt = 0; ; attempt++) {
+			try {
+				fetch(state, part, channel, stateFile);
+				return;
+			} catch (IOException e) {
+				if (attempt >= maxRetries || e instanceof RangeNotSatisfiedException) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	private void fetch(State state, int part, FileChannel channel, Path stateFile) throws IOException {
+		long position = state.positions.get(part);
+		long end = state.ends[part];
+		if (position > end) {
+			return;
+		}
+		Request.Builder request = new Request.Builder().url(state.url).header("Range", "bytes=" + position + "-" + end);
+		if (state.validator != null) {
+			request.header("If-Range", state.validator);
+		}
+		try (Response response = call(request.build())) {
+			if (response.code() != 206) {
+				throw new RangeNotSatisfiedException("服务端未按范围返回，文件可能已变化，状态码：" + response.code());
+			}
+			InputStream in = Objects.requireNonNull(response.body()).byteStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			long checkpoint = position;
+			while (position <= end) {
+				int read = in.read(buffer, 0, (int) Math.min(buffer.length, end - position + 1));
+				if (read == -1) {
+					throw new IOException("分段 " + part + " 提前结束，位置：" + position);
+				}
+				ByteBuffer source = ByteBuffer.wrap(buffer, 0, read);
+				while (source.hasRemaining()) {
+					position += channel.write(source, position);
+				}
+				state.positions.set(part, position);
+				if (position - checkpoint >= CHECKPOINT_SIZE) {
+					checkpoint = position;
+					// 刷盘前记下各段位置，只保存刷盘覆盖到的位置，断电后不会出现进度超前于数据的情况
+					long[] written = state.written();
+					channel.force(false);
+					state.save(stateFile, written);
+				}
+			}
+		}
+	}
+
+	/**
+	 * If-Range 只能使用强校验值：弱 ETag（W/ 开头）会让服务端返回整个文件，改用 Last-Modified，都没有时不发送 If-Range
+	 */
+	static String validator(Response response) {
+		String etag = response.header("ETag");
+		if (etag != null && !etag.startsWith("W/")) {
+			return etag;
+		}
+		return response.header("Last-Modified");
+	}
+
+	private Response call(Request request) throws IOException {
+		return HttpClients.get(profile).request(request).execute();
+	}
+
+	/**
+	 * 按最大分段数和最小分段大小切分，返回每段的起始位置
+	 */
+	long[] split(long length) {
+		int count = (int) Math.max(1, Math.min(parts, length / Math.max(1, minPartSize)));
+		long[] starts = new long[count];
+		long size = length / count;
+		for (int i = 0; i < count; i++) {
+			starts[i] = i * size;
+		}
+		return starts;
+	}
+
+	private void verify(Path temp) throws IOException {
+		if (md5 == null && sha1 == null) {
+			return;
+		}
+		Map<DigestType, String> digests = SecureUtils.digest(temp, DigestType.MD5, DigestType.SHA1);
+		if (md5 != null && !md5.equalsIgnoreCase(digests.get(DigestType.MD5))) {
+			Files.deleteIfExists(temp);
+			throw new IOException("MD5 校验失败");
+		}
+		if (sha1 != null && !sha1.equalsIgnoreCase(digests.get(DigestType.SHA1))) {
+			Files.deleteIfExists(temp);
+			throw new IOException("SHA-1 校验失败");
+		}
+	}
+
+	private static void move(Path temp, Path target) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static Path sibling(Path target, String suffix) {
+		return target.resolveSibling(target.getFileName() + suffix);
+	}
+
+	/**
+	 * 解析 {@code Content-Range: bytes 0-0/1234} 中的总长度，未知时返回 -1
+	 */
+	static long totalLength(String contentRange) {
+		if (contentRange == null) {
+			return -1;
+		}
+		int slash = contentRange.lastIndexOf('/');
+		try {
+			return slash < 0 ? -1 : Long.parseLong(contentRange.substring(slash + 1).trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * 服务端不再按范围返回，重试没有意义
+	 */
+	private static class RangeNotSatisfiedException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		RangeNotSatisfiedException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * 下载进度：每段的起止位置和已写入的位置
+	 */
+	private static class State {
+
+		private final String url;
+
+		private final long length;
+
+		private final String validator;
+
+		private final long[] ends;
+
+		private final AtomicLongArray positions;
+
+		/**
+		 * 已经保存到进度文件的位置
+		 */
+		private final long[] saved;
+
+		private State(String url, long length, String validator, long[] starts, long[] positions) {
+			this.url = url;
+			this.length = length;
+			this.validator = validator;
+			this.ends = new long[starts.length];
+			for (int i = 0; i < starts.length; i++) {
+				ends[i] = i + 1 < starts.length ? starts[i + 1] - 1 : length - 1;
+			}
+			this.positions = new AtomicLongArray(positions);
+			this.saved = positions.clone();
+		}
+
+		static State create(String url, long length, String validator, long[] starts) {
+			return new State(url, length, validator, starts, starts.clone());
+		}
+
+		static State load(Path file) {
+			if (!Files.exists(file)) {
+				return null;
+			}
+			Properties properties = new Properties();
+			try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				properties.load(reader);
+				int count = Integer.parseInt(properties.getProperty("parts"));
+				long[] starts = new long[count];
+				long[] positions = new long[count];
+				for (int i = 0; i < count; i++) {
+					starts[i] = Long.parseLong(properties.getProperty("part." + i + ".start"));
+					positions[i] = Long.parseLong(properties.getProperty("part." + i + ".position"));
+				}
+				return new State(properties.getProperty("url"), Long.parseLong(properties.getProperty("length")),
+					properties.getProperty("validator"), starts, positions);
+			} catch (IOException | RuntimeException e) {
+				// 进度文件损坏时重新下载
+				return null;
+			}
+		}
+
+		boolean matches(String url, long length, String validator) {
+			return this.url.equals(url) && this.length == length && Objects.equals(this.validator, validator);
+		}
+
+		int count() {
+			return ends.length;
+		}
+
+		/**
+		 * 各段当前已写入的位置
+		 */
+		long[] written() {
+			long[] written = new long[count()];
+			for (int i = 0; i < written.length; i++) {
+				written[i] = positions.get(i);
+			}
+			return written;
+		}
+
+		/**
+		 * 保存进度
+		 *
+		 * @param file    进度文件
+		 * @param written 刷盘之前通过 {@link #written()} 取得的位置，不会超过已经落盘的数据
+		 */
+		synchronized void save(Path file, long[] written) throws IOException {
+			for (int i = 0; i < saved.length; i++) {
+				// 多个分段并发保存时，较早的快照不会让进度回退
+				saved[i] = Math.max(saved[i], written[i]);
+			}
+			Properties properties = new Properties();
+			properties.setProperty("url", url);
+			properties.setProperty("length", String.valueOf(length));
+			if (validator != null) {
+				properties.setProperty("validator", validator);
+			}
+			properties.setProperty("parts", String.valueOf(count()));
+			for (int i = 0; i < count(); i++) {
+				properties.setProperty("part." + i + ".start", String.valueOf(i == 0 ? 0 : ends[i - 1] + 1));
+				properties.setProperty("part." + i + ".position", String.valueOf(saved[i]));
+			}
+			Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+			try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				properties.store(writer, null);
+			}
+			move(temp, file);
+		}
+	}
+}
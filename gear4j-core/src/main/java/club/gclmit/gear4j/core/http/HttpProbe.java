@@ -0,0 +1,318 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import club.gclmit.gear4j.core.utils.UserAgentUtils;
+import cn.hutool.core.lang.Assert;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 批量探测 URL 可用性
+ * <p>
+ * 所有 URL 异步发出，同一批次内总并发数和单主机并发数都有上限，各主机按轮转顺序取下一个 URL，
+ * 不会因为某个主机的 URL 排在前面而饿死其他主机。同一批次共用一份不可变的请求头，探测请求不重试。
+ *
+ * <pre>
+ * HttpProbe.builder().concurrency(64).head(true).build().probe(urls).join();
+ * </pre>
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/27 14:30
+ * @since jdk11
+ */
+@Getter
+@Builder(toBuilder = true)
+public class HttpProbe {
+
+	/**
+	 * 探测使用的 HTTP 客户端配置档
+	 */
+	public static final String HTTP_PROFILE = "probe";
+
+	static {
+		HttpClients.registerIfAbsent(HttpClientProfile.builder().name(HTTP_PROFILE).maxIdleConnections(32)
+			.maxRequests(1024).maxRequestsPerHost(1024).connectTimeout(Duration.ofSeconds(5))
+			.readTimeout(Duration.ofSeconds(10)).retryPolicy(null).build());
+	}
+
+	/**
+	 * 批次内最大并发数，必须大于 0
+	 */
+	@Builder.Default
+	private final int concurrency = 32;
+
+	/**
+	 * 批次内单主机（host:port）最大并发数，必须大于 0
+	 */
+	@Builder.Default
+	private final int maxPerHost = 4;
+
+	/**
+	 * 是否使用 HEAD 请求，不支持 HEAD 的服务可能返回 405
+	 */
+	@Builder.Default
+	private final boolean head = false;
+
+	/**
+	 * 使用的 HTTP 客户端配置档，超时等在配置档中设置
+	 */
+	@Builder.Default
+	private final String profile = HTTP_PROFILE;
+
+	/**
+	 * 请求头，默认与 {@link HttpClient#header()} 相同，整个批次使用同一个 User-Agent
+	 */
+	@Builder.Default
+	private final Headers headers = Headers.of(HttpClient.header());
+
+	/**
+	 * 探测所有 URL
+	 *
+	 * @param urls URL 集合
+	 * @return 全部完成后按输入顺序返回结果
+	 * @throws IllegalArgumentException 并发数配置不正确
+	 */
+	public CompletableFuture<List<Result>> probe(Collection<String> urls) {
+		Result[] results = new Result[urls.size()];
+		List<String> list = new ArrayList<>(urls);
+		return probe(list, (index, result) -> results[index] = result).thenApply(ignored -> Arrays.asList(results));
+	}
+
+	/**
+	 * 探测所有 URL，每得到一个结果回调一次
+	 * <p>
+	 * 回调在 OkHttp 的调度线程中执行，不要在回调中做耗时操作
+	 *
+	 * @param urls     URL 集合
+	 * @param listener 结果回调
+	 * @return 全部完成时结束
+	 * @throws IllegalArgumentException 并发数配置不正确
+	 */
+	public CompletableFuture<Void> probe(Collection<String> urls, Consumer<Result> listener) {
+		return probe(new ArrayList<>(urls), (index, result) -> listener.accept(result));
+	}
+
+	private CompletableFuture<Void> probe(List<String> urls, ResultListener listener) {
+		// 名额为 0 时没有请求能发出，结果永远不会完成
+		Assert.isTrue(concurrency > 0, "concurrency 必须大于 0：{}", concurrency);
+		Assert.isTrue(maxPerHost > 0, "maxPerHost 必须大于 0：{}", maxPerHost);
+		Batch batch = new Batch(urls, listener);
+		batch.start();
+		return batch.future;
+	}
+
+	/**
+	 * 探测结果
+	 */
+	@Getter
+	@ToString
+	public static class Result {
+
+		/**
+		 * 请求 URL
+		 */
+		private final String url;
+
+		/**
+		 * 状态码，请求失败时为 -1
+		 */
+		private final int status;
+
+		/**
+		 * 从发出请求到收到响应头或失败的耗时（毫秒）
+		 */
+		private final long latencyMillis;
+
+		/**
+		 * 请求失败的原因
+		 */
+		private final Throwable error;
+
+		Result(String url, int status, long latencyMillis, Throwable error) {
+			this.url = url;
+			this.status = status;
+			this.latencyMillis = latencyMillis;
+			this.error = error;
+		}
+
+		/**
+		 * 状态码是否为 2xx
+		 *
+		 * @return boolean
+		 */
+		public boolean isOk() {
+			return status >= 200 && status < 300;
+		}
+	}
+
+	@FunctionalInterface
+	private interface ResultListener {
+		void accept(int index, Result result);
+	}
+
+	/**
+	 * 一次批量探测的调度状态：每个主机一个等待队列，有空闲名额的主机放在轮转队列中
+	 */
+	private class Batch {
+
+		private final List<String> urls;
+
+		private final ResultListener listener;
+
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		private final AtomicInteger remaining;
+
+		private final ArrayDeque<Host> ready = new ArrayDeque<>();
+
+		private int running;
+
+		Batch(List<String> urls, ResultListener listener) {
+			this.urls = urls;
+			this.listener = listener;
+			this.remaining = new AtomicInteger(urls.size());
+		}
+
+		void start() {
+			if (urls.isEmpty()) {
+				future.complete(null);
+				return;
+			}
+			Map<String, Host> hosts = new HashMap<>();
+			List<Integer> invalid = new ArrayList<>();
+			for (int i = 0; i < urls.size(); i++) {
+				HttpUrl url = HttpUrl.parse(urls.get(i));
+				if (url == null) {
+					invalid.add(i);
+					continue;
+				}
+				Host host = hosts.computeIfAbsent(url.host() + ':' + url.port(), key -> new Host());
+				host.waiting.add(i);
+				if (!host.ready) {
+					host.ready = true;
+					ready.add(host);
+				}
+			}
+			for (int index : invalid) {
+				complete(index, new Result(urls.get(index), -1, 0, new IllegalArgumentException("非法的 URL：" + urls.get(index))));
+			}
+			dispatch();
+		}
+
+		/**
+		 * 在名额允许的范围内发出请求，请求在锁外发出；同步失败的请求会归还名额，循环继续发出
+		 */
+		private void dispatch() {
+			List<Integer> indexes = new ArrayList<>();
+			List<Host> owners = new ArrayList<>();
+			do {
+				indexes.clear();
+				owners.clear();
+				synchronized (this) {
+					while (running < concurrency && !ready.isEmpty()) {
+						Host host = ready.poll();
+						indexes.add(host.waiting.poll());
+						owners.add(host);
+						host.active++;
+						running++;
+						host.ready = !host.waiting.isEmpty() && host.active < maxPerHost;
+						if (host.ready) {
+							ready.add(host);
+						}
+					}
+				}
+				for (int i = 0; i < indexes.size(); i++) {
+					call(indexes.get(i), owners.get(i));
+				}
+			} while (!indexes.isEmpty());
+		}
+
+		private void call(int index, Host host) {
+			String url = urls.get(index);
+			long start = System.nanoTime();
+			try {
+				Request.Builder request = new Request.Builder().url(url).headers(headers);
+				Request built = (head ? request.head() : request.get()).build();
+				HttpClients.get(profile).request(built).enqueue(new Callback() {
+					@Override
+					public void onFailure(Call call, IOException e) {
+						finish(index, host, new Result(url, -1, elapsed(start), e));
+					}
+
+					@Override
+					public void onResponse(Call call, Response response) {
+						try (response) {
+							finish(index, host, new Result(url, response.code(), elapsed(start), null));
+						}
+					}
+				});
+			} catch (RuntimeException e) {
+				// 不在这里调用 dispatch，避免每个请求都同步失败时递归过深
+				release(host);
+				complete(index, new Result(url, -1, elapsed(start), e));
+			}
+		}
+
+		private void finish(int index, Host host, Result result) {
+			release(host);
+			dispatch();
+			complete(index, result);
+		}
+
+		private synchronized void release(Host host) {
+			running--;
+			host.active--;
+			if (!host.ready && !host.waiting.isEmpty()) {
+				host.ready = true;
+				ready.add(host);
+			}
+		}
+
+		private void complete(int index, Result result) {
+			try {
+				listener.accept(index, result);
+			} catch (RuntimeException e) {
+				future.completeExceptionally(e);
+			}
+			if (remaining.decrementAndGet() == 0) {
+				future.complete(null);
+			}
+		}
+	}
+
+	private static class Host {
+
+		private final ArrayDeque<Integer> waiting = new ArrayDeque<>();
+
+		private int active;
+
+		/**
+		 * 是否在轮转队列中
+		 */
+		private boolean ready;
+	}
+
+	private static long elapsed(long start) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+}
@@ -0,0 +1,475 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import okhttp3.CacheControl;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * GET 请求的内存缓存和合并，按需通过 {@link HttpClientProfile#getResponseCache()} 开启
+ * <p>
+ * 同一 URL、请求头相同的并发 GET 只有一个真正发出，其余请求等待并共享它可缓存的响应，领头请求失败或响应不可缓存时各自发出；
+ * 200 响应按 {@code Cache-Control} / {@code Expires} 计算新鲜期并缓存，过期后带上 {@code If-None-Match} /
+ * {@code If-Modified-Since} 重新验证，服务端返回 304 时继续使用缓存。缓存按响应体总字节数做 LRU 淘汰，
+ * 作为客户端私有缓存，{@code private} 响应也会缓存，因此带凭证头（默认 {@link #DEFAULT_PRIVATE_HEADERS}）、
+ * {@code Range} 或自带条件头的请求不走缓存。响应带 {@code Vary} 时只有对应请求头的值相同才命中，{@code Vary: *} 不缓存。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/28 09:30
+ * @since jdk11
+ */
+public class HttpResponseCache implements Interceptor {
+
+	/**
+	 * 默认缓存总大小
+	 */
+	public static final long DEFAULT_MAX_BYTES = 10 * 1024 * 1024;
+
+	/**
+	 * 默认单个响应体上限，超过的响应不缓存也不合并
+	 */
+	public static final long DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+
+	/**
+	 * 默认的凭证请求头，带这些头的请求不缓存也不合并，避免一个用户的响应返回给另一个用户
+	 */
+	public static final List<String> DEFAULT_PRIVATE_HEADERS = List.of("Authorization", "Proxy-Authorization", "Cookie",
+		"X-Auth-Token");
+
+	private final long maxBytes;
+
+	private final long maxBodySize;
+
+	private final List<String> privateHeaders;
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long bytes;
+
+	private final Map<String, Flight> inflight = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder revalidations = new LongAdder();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	public HttpResponseCache() {
+		this(DEFAULT_MAX_BYTES, DEFAULT_MAX_BODY_SIZE);
+	}
+
+	/**
+	 * @param maxBytes    缓存总大小
+	 * @param maxBodySize 单个响应体上限
+	 */
+	public HttpResponseCache(long maxBytes, long maxBodySize) {
+		this(maxBytes, maxBodySize, DEFAULT_PRIVATE_HEADERS);
+	}
+
+	/**
+	 * @param maxBytes       缓存总大小
+	 * @param maxBodySize    单个响应体上限
+	 * @param privateHeaders 凭证请求头，带任意一个时不缓存也不合并
+	 */
+	public HttpResponseCache(long maxBytes, long maxBodySize, Collection<String> privateHeaders) {
+		this.maxBytes = maxBytes;
+		this.maxBodySize = maxBodySize;
+		this.privateHeaders = List.copyOf(privateHeaders);
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		CacheControl requestCache = request.cacheControl();
+		if (!"GET".equals(request.method()) || requestCache.noStore() || isPrivate(request)
+			|| request.header("Range") != null || request.header("If-None-Match") != null
+			|| request.header("If-Modified-Since") != null) {
+			return chain.proceed(request);
+		}
+		String key = request.url().toString();
+		Entry cached = get(key);
+		if (cached != null && !cached.matches(request)) {
+			cached = null;
+		}
+		if (cached != null && !requestCache.noCache() && cached.isFresh(System.currentTimeMillis())) {
+			hits.increment();
+			return cached.toResponse(request);
+		}
+
+		Flight flight = new Flight(request.headers());
+		Flight leader = inflight.putIfAbsent(key, flight);
+		if (leader != null) {
+			// 请求头不同时响应可能不同，不合并
+			Entry shared = leader.headers.equals(request.headers()) ? await(leader.result) : null;
+			if (shared != null) {
+				coalesced.increment();
+				return shared.toResponse(request);
+			}
+			// 领头请求的响应不可缓存或过大，自己发请求
+			return chain.proceed(request);
+		}
+		try {
+			Response response = chain.proceed(conditional(request, cached));
+			Entry entry = toEntry(key, request, cached, response);
+			// 只共享可缓存的响应，5xx 等错误响应由等待的请求各自重新发出
+			flight.result.complete(entry != null && entry.isStorable() ? entry : null);
+			return entry == null ? response : entry.toResponse(request);
+		} catch (IOException | RuntimeException e) {
+			flight.result.complete(null);
+			throw e;
+		} finally {
+			inflight.remove(key, flight);
+		}
+	}
+
+	private boolean isPrivate(Request request) {
+		for (String name : privateHeaders) {
+			if (request.header(name) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 缓存有验证器时改为条件请求
+	 */
+	private static Request conditional(Request request, Entry cached) {
+		if (cached == null || cached.etag == null && cached.lastModified == null) {
+			return request;
+		}
+		Request.Builder conditional = request.newBuilder();
+		if (cached.etag != null) {
+			conditional.header("If-None-Match", cached.etag);
+		}
+		if (cached.lastModified != null) {
+			conditional.header("If-Modified-Since", cached.lastModified);
+		}
+		return conditional.build();
+	}
+
+	/**
+	 * 读取响应并更新缓存，返回可共享的 {@link Entry}；响应体过大时返回 null，原响应保持可读
+	 */
+	private Entry toEntry(String key, Request request, Entry cached, Response response) throws IOException {
+		if (response.code() == 304 && cached != null) {
+			response.close();
+			revalidations.increment();
+			Entry refreshed = cached.refresh(response);
+			put(key, refreshed);
+			return refreshed;
+		}
+		misses.increment();
+		ResponseBody peek = response.peekBody(maxBodySize + 1);
+		if (peek.contentLength() > maxBodySize) {
+			return null;
+		}
+		Entry entry = new Entry(request, response, peek.bytes());
+		response.close();
+		if (entry.isStorable()) {
+			put(key, entry);
+		} else if (cached != null) {
+			remove(key);
+		}
+		return entry;
+	}
+
+	private static Entry await(CompletableFuture<Entry> leader) throws IOException {
+		try {
+			return leader.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("等待合并请求时被中断");
+		} catch (ExecutionException e) {
+			throw new IOException(e.getCause());
+		}
+	}
+
+	private synchronized Entry get(String key) {
+		return entries.get(key);
+	}
+
+	private synchronized void put(String key, Entry entry) {
+		Entry old = entries.put(key, entry);
+		if (old != null) {
+			bytes -= old.weight;
+		}
+		bytes += entry.weight;
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (bytes > maxBytes && iterator.hasNext()) {
+			bytes -= iterator.next().weight;
+			iterator.remove();
+		}
+	}
+
+	private synchronized void remove(String key) {
+		Entry old = entries.remove(key);
+		if (old != null) {
+			bytes -= old.weight;
+		}
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * 缓存条数
+	 *
+	 * @return int
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * 缓存占用字节数（响应体 + 响应头估算）
+	 *
+	 * @return long
+	 */
+	public synchronized long bytes() {
+		return bytes;
+	}
+
+	/**
+	 * 命中新鲜缓存的次数
+	 *
+	 * @return long
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * 发出完整请求的次数
+	 *
+	 * @return long
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * 条件请求返回 304 继续使用缓存的次数
+	 *
+	 * @return long
+	 */
+	public long getRevalidationCount() {
+		return revalidations.sum();
+	}
+
+	/**
+	 * 合并到其他并发请求的次数
+	 *
+	 * @return long
+	 */
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * 正在进行的请求，完成时给出可共享的 {@link Entry}，不可共享时为 null
+	 */
+	private static class Flight {
+
+		private final Headers headers;
+
+		private final CompletableFuture<Entry> result = new CompletableFuture<>();
+
+		Flight(Headers headers) {
+			this.headers = headers;
+		}
+	}
+
+	/**
+	 * 缓存的响应，不可变
+	 */
+	private static class Entry {
+
+		private final Protocol protocol;
+
+		private final int code;
+
+		private final String message;
+
+		private final Headers headers;
+
+		private final byte[] body;
+
+		private final MediaType contentType;
+
+		private final long sentAt;
+
+		private final long receivedAt;
+
+		/**
+		 * 新鲜期截止时间，小于等于 receivedAt 时每次都要重新验证
+		 */
+		private final long expiresAt;
+
+		private final String etag;
+
+		private final String lastModified;
+
+		/**
+		 * 缓存时 {@code Vary} 列出的请求头及其值
+		 */
+		private final Headers varied;
+
+		private final boolean storable;
+
+		private final long weight;
+
+		Entry(Request request, Response response, byte[] body) {
+			this(response.protocol(), response.code(), response.message(), response.headers(), body,
+				response.body() == null ? null : response.body().contentType(), response.sentRequestAtMillis(),
+				response.receivedResponseAtMillis(), varied(request, response.headers()));
+		}
+
+		private Entry(Protocol protocol, int code, String message, Headers headers, byte[] body, MediaType contentType,
+			long sentAt, long receivedAt, Headers varied) {
+			this.protocol = protocol;
+			this.code = code;
+			this.message = message;
+			this.headers = headers;
+			this.body = body;
+			this.contentType = contentType;
+			this.sentAt = sentAt;
+			this.receivedAt = receivedAt;
+			this.etag = headers.get("ETag");
+			this.lastModified = headers.get("Last-Modified");
+			this.varied = varied;
+			CacheControl cacheControl = CacheControl.parse(headers);
+			this.expiresAt = cacheControl.noCache() ? receivedAt : receivedAt + freshness(cacheControl, headers);
+			this.storable = code == 200 && !cacheControl.noStore() && !varyNames(headers).contains("*")
+				&& (expiresAt > receivedAt || etag != null || lastModified != null);
+			this.weight = body.length + headers.byteCount();
+		}
+
+		private static List<String> varyNames(Headers headers) {
+			List<String> names = new ArrayList<>();
+			for (String vary : headers.values("Vary")) {
+				for (String name : vary.split(",")) {
+					if (!name.isBlank()) {
+						names.add(name.trim());
+					}
+				}
+			}
+			return names;
+		}
+
+		private static Headers varied(Request request, Headers headers) {
+			Headers.Builder varied = new Headers.Builder();
+			for (String name : varyNames(headers)) {
+				for (String value : request.headers(name)) {
+					varied.add(name, value);
+				}
+			}
+			return varied.build();
+		}
+
+		/**
+		 * {@code Vary} 列出的请求头与缓存时相同
+		 */
+		boolean matches(Request request) {
+			for (String name : varyNames(headers)) {
+				if (!request.headers(name).equals(varied.values(name))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * 新鲜期（毫秒）：max-age 优先，其次 Expires - Date，都没有时为 0
+		 */
+		private static long freshness(CacheControl cacheControl, Headers headers) {
+			long age = TimeUnit.SECONDS.toMillis(parseSeconds(headers.get("Age")));
+			if (cacheControl.maxAgeSeconds() >= 0) {
+				return Math.max(0, TimeUnit.SECONDS.toMillis(cacheControl.maxAgeSeconds()) - age);
+			}
+			Date expires = headers.getDate("Expires");
+			if (expires != null) {
+				Date date = headers.getDate("Date");
+				long now = date != null ? date.getTime() : System.currentTimeMillis();
+				return Math.max(0, expires.getTime() - now - age);
+			}
+			return 0;
+		}
+
+		private static long parseSeconds(String value) {
+			if (value == null) {
+				return 0;
+			}
+			try {
+				return Math.max(0, Long.parseLong(value.trim()));
+			} catch (NumberFormatException e) {
+				return 0;
+			}
+		}
+
+		/**
+		 * 304 之后用新的响应头更新新鲜期
+		 */
+		Entry refresh(Response notModified) {
+			Headers.Builder merged = headers.newBuilder();
+			for (String name : notModified.headers().names()) {
+				if (!"Content-Length".equalsIgnoreCase(name) && !"Content-Encoding".equalsIgnoreCase(name)) {
+					// 多值的头（Set-Cookie、Warning 等）整体替换
+					merged.removeAll(name);
+					for (String value : notModified.headers(name)) {
+						merged.add(name, value);
+					}
+				}
+			}
+			return new Entry(protocol, code, message, merged.build(), body, contentType,
+				notModified.sentRequestAtMillis(), notModified.receivedResponseAtMillis(), varied);
+		}
+
+		boolean isFresh(long now) {
+			return now < expiresAt;
+		}
+
+		boolean isStorable() {
+			return storable;
+		}
+
+		Response toResponse(Request request) {
+			return new Response.Builder()
+				.request(request)
+				.protocol(protocol)
+				.code(code)
+				.message(message)
+				.headers(headers)
+				.body(ResponseBody.create(contentType, body))
+				.sentRequestAtMillis(sentAt)
+				.receivedResponseAtMillis(receivedAt)
+				.build();
+		}
+	}
+}
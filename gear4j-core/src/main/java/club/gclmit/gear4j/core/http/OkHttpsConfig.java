@@ -204,15 +204,11 @@
 
 package club.gclmit.gear4j.core.http;
 
-import java.util.concurrent.TimeUnit;
-
 import com.ejlchina.okhttps.Config;
 import com.ejlchina.okhttps.HTTP;
 import com.ejlchina.okhttps.jackson.JacksonMsgConvertor;
 
-import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
-import okhttp3.Response;
 
 /**
  * 配置 OkHttps
@@ -223,43 +219,25 @@ import okhttp3.Response;
 public class OkHttpsConfig implements Config {
 
 	/**
-	 * 对 HTTP.Builder 做一些自定义的配置
+	 * 设置默认配置档的重试策略，需在首次使用 OkHttps 之前调用
+	 *
+	 * @param policy 重试策略
+	 */
+	public static void setRetryPolicy(RetryPolicy policy) {
+		HttpClients.register(HttpClients.profile(HttpClientProfile.DEFAULT).toBuilder().retryPolicy(policy).build());
+	}
+
+	/**
+	 * 对 HTTP.Builder 做一些自定义的配置，连接池、超时和重试等按默认配置档设置，
+	 * 见 {@link HttpClientProfile}
 	 *
 	 * @param builder HTTP.Builder
 	 */
 	@Override
 	public void with(HTTP.Builder builder) {
 		builder.addMsgConvertor(new JacksonMsgConvertor())
-			.config((OkHttpClient.Builder client) -> {
-				// 配置连接池 最小10个连接（不配置默认为 5）
-				client.connectionPool(new ConnectionPool(10, 5, TimeUnit.MINUTES));
-				// 配置连接超时时间（默认10秒）
-				client.connectTimeout(20, TimeUnit.SECONDS);
-				// 失败重试三次
-				client.addInterceptor(chain -> {
-					int retryTimes = 0;
-					while (true) {
-						Response response = null;
-						Exception exception = null;
-						try {
-							response = chain.proceed(chain.request());
-						} catch (Exception e) {
-							exception = e;
-						}
-						if ((exception != null || response.code() == 500) && retryTimes < 3) {
-							System.out.println("失败重试第" + retryTimes + "次！");
-							if (response != null) {
-								// 注意，这里一定要 close 掉失败的 Response
-								response.close();
-							}
-							retryTimes++;
-							continue;
-						}
-						assert response != null;
-						return response;
-					}
-				});
-			});
+			.config((OkHttpClient.Builder client) -> HttpClients.configure(HttpClients.profile(HttpClientProfile.DEFAULT),
+				client));
 	}
 
 }
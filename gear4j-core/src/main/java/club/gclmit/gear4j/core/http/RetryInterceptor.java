@@ -0,0 +1,205 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import club.gclmit.gear4j.core.lang.Log;
+import club.gclmit.gear4j.core.lang.LoggerProvider;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 按 {@link RetryPolicy} 重试的 OkHttp 拦截器，同时负责按主机熔断
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/26 15:10
+ * @since jdk11
+ */
+public class RetryInterceptor implements Interceptor {
+
+	/**
+	 * 预算以千分之一次重试为单位记账
+	 */
+	private static final long TOKEN = 1000;
+
+	private final RetryPolicy policy;
+
+	private final AtomicLong budget;
+
+	private final long deposit;
+
+	private final long maxBudget;
+
+	private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+	public RetryInterceptor(RetryPolicy policy) {
+		this.policy = policy;
+		this.deposit = (long) (policy.getBudgetRatio() * TOKEN);
+		this.maxBudget = policy.getBudgetMaxTokens() * TOKEN;
+		this.budget = new AtomicLong(maxBudget);
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		String host = request.url().host() + ":" + request.url().port();
+		CircuitBreaker breaker = breaker(host);
+		// 持有熔断器许可但还没有记录结果时不为 null
+		CircuitBreaker.Permit permit = null;
+		if (breaker != null) {
+			permit = breaker.tryAcquire();
+			if (permit == CircuitBreaker.Permit.REJECTED) {
+				throw new CircuitBreakerOpenException(host);
+			}
+		}
+		budget.updateAndGet(balance -> Math.min(maxBudget, balance + deposit));
+		boolean idempotent = policy.getRetryMethods().contains(request.method());
+
+		try {
+			for (int attempt = 0; ; attempt++) {
+				Response response = null;
+				IOException exception = null;
+				try {
+					response = chain.proceed(request);
+				} catch (IOException e) {
+					exception = e;
+				} catch (RuntimeException | Error e) {
+					// 其他异常同样按失败处理，否则半开状态的探测许可永远不会归还
+					if (permit != null) {
+						breaker.onFailure(permit);
+						permit = null;
+					}
+					throw e;
+				}
+				boolean failed = exception != null || policy.getRetryStatus().contains(response.code());
+				if (permit != null) {
+					// 429 说明目标存活，只是限流，不计入熔断
+					if (exception != null || response.code() >= 500 && failed) {
+						breaker.onFailure(permit);
+					} else {
+						breaker.onSuccess(permit);
+					}
+					permit = null;
+				}
+				if (!failed || !idempotent || attempt >= policy.getMaxRetries()) {
+					return result(response, exception);
+				}
+				long delay = delay(attempt, response);
+				// 先确认熔断器放行再扣预算，被熔断拒绝的重试不消耗预算
+				if (delay < 0) {
+					return result(response, exception);
+				}
+				if (breaker != null) {
+					permit = breaker.tryAcquire();
+					if (permit == CircuitBreaker.Permit.REJECTED) {
+						permit = null;
+						return result(response, exception);
+					}
+				}
+				if (!tryWithdraw()) {
+					return result(response, exception);
+				}
+				if (response != null) {
+					// 注意，这里一定要 close 掉失败的 Response
+					response.close();
+				}
+				Log.warn(LoggerProvider.GEAR4J, "请求[{} {}]失败，{} ms 后第 {} 次重试", request.method(), request.url(),
+					delay, attempt + 1);
+				sleep(delay);
+			}
+		} finally {
+			if (permit != null) {
+				breaker.release(permit);
+			}
+		}
+	}
+
+	/**
+	 * 获取主机的熔断器，未开启熔断时返回 null
+	 *
+	 * @param host host:port
+	 * @return {@link CircuitBreaker}
+	 */
+	public CircuitBreaker breaker(String host) {
+		if (policy.getBreakerFailureThreshold() <= 0) {
+			return null;
+		}
+		return breakers.computeIfAbsent(host, key -> new CircuitBreaker(policy.getBreakerFailureThreshold(),
+			policy.getBreakerOpenDuration().toNanos()));
+	}
+
+	/**
+	 * 计算第 attempt 次重试前的等待时间（毫秒），返回 -1 表示 Retry-After 超过上限，不再重试
+	 */
+	long delay(int attempt, Response response) {
+		if (response != null && policy.isRespectRetryAfter()) {
+			long retryAfter = retryAfter(response.header("Retry-After"));
+			if (retryAfter >= 0) {
+				return retryAfter <= policy.getMaxRetryAfter().toMillis() ? retryAfter : -1;
+			}
+		}
+		// 全抖动：[0, min(maxDelay, baseDelay * 2^attempt))
+		long ceiling = Math.min(policy.getMaxDelay().toMillis(),
+			policy.getBaseDelay().toMillis() << Math.min(attempt, 30));
+		return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling);
+	}
+
+	/**
+	 * 解析 Retry-After，支持秒数和 HTTP 日期，无法解析时返回 -1
+	 */
+	static long retryAfter(String value) {
+		if (value == null || value.isBlank()) {
+			return -1;
+		}
+		String text = value.trim();
+		try {
+			return TimeUnit.SECONDS.toMillis(Long.parseLong(text));
+		} catch (NumberFormatException e) {
+			try {
+				long millis = Duration.between(ZonedDateTime.now(),
+					ZonedDateTime.parse(text, DateTimeFormatter.RFC_1123_DATE_TIME)).toMillis();
+				return Math.max(0, millis);
+			} catch (DateTimeParseException ex) {
+				return -1;
+			}
+		}
+	}
+
+	private boolean tryWithdraw() {
+		while (true) {
+			long balance = budget.get();
+			if (balance < TOKEN) {
+				return false;
+			}
+			if (budget.compareAndSet(balance, balance - TOKEN)) {
+				return true;
+			}
+		}
+	}
+
+	private static Response result(Response response, IOException exception) throws IOException {
+		if (exception != null) {
+			throw exception;
+		}
+		return response;
+	}
+
+	private static void sleep(long millis) throws InterruptedIOException {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("重试等待被中断");
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package club.gclmit.gear4j.core.http;
+
+import java.time.Duration;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * HTTP 重试策略
+ * <p>
+ * 指数退避 + 全抖动：第 n 次重试前随机等待 {@code [0, min(maxDelay, baseDelay * 2^n))}；
+ * 重试预算限制重试带来的额外流量不超过正常请求的 {@code budgetRatio}；只重试幂等方法；
+ * 响应带 {@code Retry-After} 时按服务端要求等待（不超过 maxRetryAfter）。
+ * 同一主机连续失败达到阈值后熔断，熔断期间直接失败。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/26 15:10
+ * @since jdk11
+ */
+@Getter
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+	/**
+	 * 最大重试次数，0 表示不重试
+	 */
+	@Builder.Default
+	private final int maxRetries = 3;
+
+	/**
+	 * 退避基准时间
+	 */
+	@Builder.Default
+	private final Duration baseDelay = Duration.ofMillis(100);
+
+	/**
+	 * 单次退避上限
+	 */
+	@Builder.Default
+	private final Duration maxDelay = Duration.ofSeconds(5);
+
+	/**
+	 * 重试预算：重试请求数占正常请求数的最大比例
+	 */
+	@Builder.Default
+	private final double budgetRatio = 0.1;
+
+	/**
+	 * 预算最多累积的重试次数，服务刚启动或流量很小时也允许少量重试
+	 */
+	@Builder.Default
+	private final int budgetMaxTokens = 10;
+
+	/**
+	 * 允许重试的请求方法（幂等方法）
+	 */
+	@Builder.Default
+	private final Set<String> retryMethods = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE");
+
+	/**
+	 * 需要重试的响应状态码
+	 */
+	@Builder.Default
+	private final Set<Integer> retryStatus = Set.of(429, 500, 502, 503, 504);
+
+	/**
+	 * 是否遵循 Retry-After 响应头
+	 */
+	@Builder.Default
+	private final boolean respectRetryAfter = true;
+
+	/**
+	 * Retry-After 等待上限，超过时不再重试
+	 */
+	@Builder.Default
+	private final Duration maxRetryAfter = Duration.ofSeconds(30);
+
+	/**
+	 * 触发熔断的连续失败次数，0 表示关闭熔断
+	 */
+	@Builder.Default
+	private final int breakerFailureThreshold = 5;
+
+	/**
+	 * 熔断时长，到期后放行一个探测请求
+	 */
+	@Builder.Default
+	private final Duration breakerOpenDuration = Duration.ofSeconds(30);
+
+	/**
+	 * 默认策略
+	 *
+	 * @return {@link RetryPolicy}
+	 */
+	public static RetryPolicy defaults() {
+		return RetryPolicy.builder().build();
+	}
+
+	/**
+	 * 不重试、不熔断
+	 *
+	 * @return {@link RetryPolicy}
+	 */
+	public static RetryPolicy none() {
+		return RetryPolicy.builder().maxRetries(0).breakerFailureThreshold(0).build();
+	}
+}
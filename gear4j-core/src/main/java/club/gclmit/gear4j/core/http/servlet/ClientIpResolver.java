@@ -0,0 +1,397 @@
+package club.gclmit.gear4j.core.http.servlet;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 基于可信代理网段的客户端 IP 解析
+ * <p>
+ * 只有直接连接的地址属于可信代理时才读取 X-Forwarded-For：从右往左逐跳检查，遇到第一个不可信的地址即为客户端 IP，
+ * 客户端自己伪造的左侧条目不会被采用。可信网段编译成按地址位分支的二叉前缀树（IPv4、IPv6 各一棵），
+ * 匹配时边解析地址字符串边走树，耗时与地址位数成正比，不分配对象。IPv4 映射地址（::ffff:10.0.0.1）按 IPv4 网段匹配。
+ * 解析结果缓存在 request 属性 {@link #ATTRIBUTE} 上。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/1 10:10
+ * @since jdk11
+ */
+public class ClientIpResolver {
+
+	/**
+	 * request 属性名
+	 */
+	public static final String ATTRIBUTE = ClientIpResolver.class.getName();
+
+	/**
+	 * 默认可信代理：回环地址与私有网段，即同机或内网部署的 Nginx、网关
+	 */
+	public static final List<String> DEFAULT_TRUSTED_PROXIES = List.of("127.0.0.0/8", "10.0.0.0/8", "172.16.0.0/12",
+		"192.168.0.0/16", "::1/128", "fc00::/7");
+
+	private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+	private static final String X_REAL_IP = "X-Real-IP";
+
+	private static final String IPV6_LOCALHOST = "0:0:0:0:0:0:0:1";
+
+	private static final String IPV4_LOCALHOST = "127.0.0.1";
+
+	private static volatile ClientIpResolver defaultResolver = new ClientIpResolver(DEFAULT_TRUSTED_PROXIES);
+
+	private final Node ipv4 = new Node();
+
+	private final Node ipv6 = new Node();
+
+	/**
+	 * @param trustedProxies 可信代理，CIDR（10.0.0.0/8、fc00::/7）或单个地址，只在构造时写入前缀树
+	 * @throws IllegalArgumentException 格式不正确
+	 */
+	public ClientIpResolver(Collection<String> trustedProxies) {
+		// ::ffff:0:0/96 的路径接到 IPv4 的树上，映射地址的后 32 位继续按 IPv4 网段匹配
+		Node node = ipv6;
+		for (int i = 0; i < 95; i++) {
+			Node child = new Node();
+			if (i < 80) {
+				node.zero = child;
+			} else {
+				node.one = child;
+			}
+			node = child;
+		}
+		node.one = ipv4;
+		for (String cidr : trustedProxies) {
+			add(cidr.trim());
+		}
+	}
+
+	/**
+	 * {@link club.gclmit.gear4j.core.utils.ServletUtils#getClientIp} 使用的解析器
+	 *
+	 * @return {@link ClientIpResolver}
+	 */
+	public static ClientIpResolver getDefault() {
+		return defaultResolver;
+	}
+
+	/**
+	 * 替换默认解析器，例如配置 SLB、CDN 的回源网段
+	 *
+	 * @param resolver 解析器
+	 */
+	public static void setDefault(ClientIpResolver resolver) {
+		defaultResolver = resolver;
+	}
+
+	/**
+	 * 获取客户端 IP，同一请求只解析一次
+	 *
+	 * @param request 请求
+	 * @return 客户端 IP
+	 */
+	public String resolve(HttpServletRequest request) {
+		Object cached = request.getAttribute(ATTRIBUTE);
+		if (cached instanceof String) {
+			return (String) cached;
+		}
+		String ip = doResolve(request);
+		if (IPV6_LOCALHOST.equals(ip)) {
+			ip = IPV4_LOCALHOST;
+		}
+		request.setAttribute(ATTRIBUTE, ip);
+		return ip;
+	}
+
+	/**
+	 * 清除缓存的解析结果
+	 *
+	 * @param request 请求
+	 */
+	public static void reset(ServletRequest request) {
+		request.removeAttribute(ATTRIBUTE);
+	}
+
+	/**
+	 * 判断地址是否属于可信代理
+	 *
+	 * @param ip IPv4 或 IPv6 地址，格式不正确时返回 false
+	 * @return 属于可信网段返回 true
+	 */
+	public boolean isTrusted(String ip) {
+		return ip != null && isTrusted(ip, 0, ip.length());
+	}
+
+	private String doResolve(HttpServletRequest request) {
+		String remote = request.getRemoteAddr();
+		if (!isTrusted(remote)) {
+			return remote;
+		}
+		String forwarded = forwardedFor(request);
+		if (forwarded == null) {
+			String realIp = request.getHeader(X_REAL_IP);
+			return realIp != null && isValid(realIp, 0, realIp.length()) ? realIp.trim() : remote;
+		}
+		// 从右往左，第一个不可信的地址就是客户端；全部可信时取最左侧
+		int end = forwarded.length();
+		int lastStart = -1;
+		int lastEnd = -1;
+		while (end > 0) {
+			int comma = forwarded.lastIndexOf(',', end - 1);
+			int start = trimStart(forwarded, comma + 1, end);
+			int stop = trimEnd(forwarded, start, end);
+			if (start < stop) {
+				if (!isValid(forwarded, start, stop)) {
+					// unknown 或被篡改的条目，停在转发它的那一跳
+					break;
+				}
+				lastStart = start;
+				lastEnd = stop;
+				if (!isTrusted(forwarded, start, stop)) {
+					break;
+				}
+			}
+			end = comma < 0 ? 0 : comma;
+		}
+		return lastStart < 0 ? remote : forwarded.substring(lastStart, lastEnd);
+	}
+
+	/**
+	 * 多个 X-Forwarded-For 头按出现顺序合并
+	 */
+	private static String forwardedFor(HttpServletRequest request) {
+		Enumeration<String> headers = request.getHeaders(X_FORWARDED_FOR);
+		if (headers == null || !headers.hasMoreElements()) {
+			return null;
+		}
+		String first = headers.nextElement();
+		if (!headers.hasMoreElements()) {
+			return first;
+		}
+		StringBuilder joined = new StringBuilder(first);
+		while (headers.hasMoreElements()) {
+			joined.append(',').append(headers.nextElement());
+		}
+		return joined.toString();
+	}
+
+	private static int trimStart(String str, int start, int end) {
+		while (start < end && str.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int trimEnd(String str, int start, int end) {
+		while (end > start && str.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	private static boolean isValid(String ip, int start, int end) {
+		return walk(Node.MISSED, ip, start, end) != null;
+	}
+
+	private boolean isTrusted(String ip, int start, int end) {
+		int colon = indexOf(ip, ':', start, end);
+		return walk(colon < end ? ipv6 : ipv4, ip, start, end) == Node.MATCHED;
+	}
+
+	/**
+	 * 解析地址并沿前缀树前进，从 {@link Node#MISSED} 开始时只校验格式
+	 *
+	 * @return 地址格式不正确返回 null，命中可信网段返回 {@link Node#MATCHED}
+	 */
+	private static Node walk(Node root, String ip, int start, int end) {
+		start = trimStart(ip, start, end);
+		end = trimEnd(ip, start, end);
+		if (end - start > 2 && ip.charAt(start) == '[' && ip.charAt(end - 1) == ']') {
+			start++;
+			end--;
+		}
+		if (indexOf(ip, ':', start, end) == end) {
+			return walk4(root, ip, start, end);
+		}
+		// 去掉 IPv6 的 zone id，例如 fe80::1%eth0
+		return walk6(root, ip, start, indexOf(ip, '%', start, end));
+	}
+
+	private static Node walk4(Node node, String ip, int start, int end) {
+		int octets = 0;
+		int i = start;
+		while (true) {
+			int value = 0;
+			int digits = 0;
+			while (i < end && ip.charAt(i) >= '0' && ip.charAt(i) <= '9') {
+				value = value * 10 + ip.charAt(i++) - '0';
+				digits++;
+			}
+			if (digits == 0 || digits > 3 || value > 255 || ++octets > 4) {
+				return null;
+			}
+			node = step(node, value, 8);
+			if (i == end) {
+				return octets == 4 ? node : null;
+			}
+			if (ip.charAt(i++) != '.') {
+				return null;
+			}
+		}
+	}
+
+	private static Node walk6(Node node, String ip, int start, int end) {
+		int compress = -1;
+		for (int i = start; i + 1 < end; i++) {
+			if (ip.charAt(i) == ':' && ip.charAt(i + 1) == ':') {
+				compress = i;
+				break;
+			}
+		}
+		// 先数出写出的组数，才能知道 :: 省略了几个全 0 组
+		int groups = 0;
+		for (int i = start; i < end; ) {
+			int next = indexOf(ip, ':', i, end);
+			if (next > i) {
+				groups += indexOf(ip, '.', i, next) < next ? 2 : 1;
+			}
+			i = next + 1;
+		}
+		int zeros = 8 - groups;
+		if (compress < 0 ? zeros != 0 : zeros < 1) {
+			return null;
+		}
+
+		int written = 0;
+		int i = start;
+		while (i < end) {
+			if (i == compress) {
+				for (int z = 0; z < zeros; z++) {
+					node = step(node, 0, 16);
+				}
+				written += zeros;
+				i += 2;
+				continue;
+			}
+			int next = indexOf(ip, ':', i, end);
+			if (next == i) {
+				// 不属于 :: 的空组
+				return null;
+			}
+			if (indexOf(ip, '.', i, next) < next) {
+				// 末尾内嵌的 IPv4，例如 ::ffff:192.168.0.1
+				if (next != end || written != 6) {
+					return null;
+				}
+				return walk4(node, ip, i, next);
+			}
+			if (next - i > 4) {
+				return null;
+			}
+			int value = 0;
+			for (int j = i; j < next; j++) {
+				char c = ip.charAt(j);
+				int digit = c < 128 ? Character.digit(c, 16) : -1;
+				if (digit < 0) {
+					return null;
+				}
+				value = value << 4 | digit;
+			}
+			node = step(node, value, 16);
+			written++;
+			if (next == compress || next == end) {
+				i = next;
+			} else if (next + 1 == end) {
+				// 以单个冒号结尾
+				return null;
+			} else {
+				i = next + 1;
+			}
+		}
+		return written == 8 ? node : null;
+	}
+
+	private static int indexOf(String str, char c, int start, int end) {
+		int index = str.indexOf(c, start);
+		return index < 0 || index >= end ? end : index;
+	}
+
+	/**
+	 * 按最高位优先取 value 的低 bits 位沿前缀树前进，到达 {@link Node#MATCHED} 或 {@link Node#MISSED} 后不再变化
+	 */
+	private static Node step(Node node, int value, int bits) {
+		for (int bit = bits - 1; bit >= 0 && node != Node.MATCHED && node != Node.MISSED; bit--) {
+			Node child = (value >>> bit & 1) == 0 ? node.zero : node.one;
+			node = child == null ? Node.MISSED : child;
+		}
+		return node;
+	}
+
+	private void add(String cidr) {
+		int slash = cidr.indexOf('/');
+		String ip = slash < 0 ? cidr : cidr.substring(0, slash);
+		boolean v6 = ip.indexOf(':') >= 0;
+		int maxBits = v6 ? 128 : 32;
+		byte[] address;
+		int prefix;
+		try {
+			prefix = slash < 0 ? maxBits : Integer.parseInt(cidr.substring(slash + 1));
+			// 先校验是地址字面量，避免 InetAddress 发起 DNS 查询
+			if (prefix < 0 || prefix > maxBits || !isValid(ip, 0, ip.length())) {
+				throw new IllegalArgumentException("可信代理网段格式不正确: " + cidr);
+			}
+			address = InetAddress.getByName(ip).getAddress();
+		} catch (NumberFormatException | UnknownHostException e) {
+			throw new IllegalArgumentException("可信代理网段格式不正确: " + cidr, e);
+		}
+		if (v6 && address.length == 4) {
+			// ::ffff:a.b.c.d 会被 InetAddress 转成 IPv4
+			byte[] mapped = new byte[16];
+			mapped[10] = (byte) 0xff;
+			mapped[11] = (byte) 0xff;
+			System.arraycopy(address, 0, mapped, 12, 4);
+			address = mapped;
+		}
+		Node node = v6 ? ipv6 : ipv4;
+		if (prefix == 0) {
+			node.zero = Node.MATCHED;
+			node.one = Node.MATCHED;
+			return;
+		}
+		for (int i = 0; i < prefix && node != Node.MATCHED; i++) {
+			boolean one = (address[i / 8] >>> (7 - i % 8) & 1) == 1;
+			Node child = one ? node.one : node.zero;
+			if (i == prefix - 1 || child == null) {
+				// 最后一位直接指向 MATCHED，已有的更长网段被覆盖
+				child = i == prefix - 1 ? Node.MATCHED : new Node();
+				if (one) {
+					node.one = child;
+				} else {
+					node.zero = child;
+				}
+			}
+			node = child;
+		}
+	}
+
+	private static class Node {
+
+		/**
+		 * 已命中可信网段
+		 */
+		private static final Node MATCHED = new Node();
+
+		/**
+		 * 走出前缀树，不在任何可信网段内
+		 */
+		private static final Node MISSED = new Node();
+
+		private Node zero;
+
+		private Node one;
+	}
+}
@@ -0,0 +1,174 @@
+package club.gclmit.gear4j.core.http.servlet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 把请求头、响应头直接写成 JSON 对象
+ * <p>
+ * 从名称枚举逐个读取并写入 {@link StringBuilder}，不经过中间 {@link java.util.Map}。不在白名单内或在黑名单内的头只比较名称，
+ * 值不会被读取或复制，体积很大的 Cookie 和认证信息默认跳过。名称匹配不区分大小写；同名的头取第一个值。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/1 15:50
+ * @since jdk11
+ */
+public class HeaderJsonWriter {
+
+	/**
+	 * 默认黑名单
+	 */
+	public static final List<String> DEFAULT_DENYLIST = List.of("Cookie", "Set-Cookie", "Authorization",
+		"Proxy-Authorization");
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final Set<String> allowlist;
+
+	private final Set<String> denylist;
+
+	/**
+	 * @param allowlist 白名单，为空时允许全部
+	 * @param denylist  黑名单，优先于白名单
+	 */
+	public HeaderJsonWriter(Collection<String> allowlist, Collection<String> denylist) {
+		this.allowlist = caseInsensitive(allowlist);
+		this.denylist = caseInsensitive(denylist);
+	}
+
+	/**
+	 * 允许全部请求头、跳过 {@link #DEFAULT_DENYLIST}
+	 */
+	public HeaderJsonWriter() {
+		this(Collections.emptyList(), DEFAULT_DENYLIST);
+	}
+
+	private static Set<String> caseInsensitive(Collection<String> names) {
+		Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		if (names != null) {
+			set.addAll(names);
+		}
+		return set;
+	}
+
+	/**
+	 * 判断请求头是否需要输出
+	 *
+	 * @param name 名称
+	 * @return 需要输出返回 true
+	 */
+	public boolean isIncluded(String name) {
+		return !denylist.contains(name) && (allowlist.isEmpty() || allowlist.contains(name));
+	}
+
+	/**
+	 * @param request 请求
+	 * @return 请求头 JSON
+	 */
+	public String requestHeaders(HttpServletRequest request) {
+		return writeRequestHeaders(request, new StringBuilder(512)).toString();
+	}
+
+	/**
+	 * @param response 响应
+	 * @return 响应头 JSON
+	 */
+	public String responseHeaders(HttpServletResponse response) {
+		return writeResponseHeaders(response, new StringBuilder(256)).toString();
+	}
+
+	/**
+	 * 请求头 JSON 追加到缓冲区
+	 *
+	 * @param request 请求
+	 * @param out     缓冲区
+	 * @return out
+	 */
+	public StringBuilder writeRequestHeaders(HttpServletRequest request, StringBuilder out) {
+		out.append('{');
+		Enumeration<String> names = request.getHeaderNames();
+		boolean first = true;
+		while (names != null && names.hasMoreElements()) {
+			String name = names.nextElement();
+			if (isIncluded(name)) {
+				first = writeEntry(name, request.getHeader(name), first, out);
+			}
+		}
+		return out.append('}');
+	}
+
+	/**
+	 * 响应头 JSON 追加到缓冲区
+	 *
+	 * @param response 响应
+	 * @param out      缓冲区
+	 * @return out
+	 */
+	public StringBuilder writeResponseHeaders(HttpServletResponse response, StringBuilder out) {
+		out.append('{');
+		boolean first = true;
+		for (String name : response.getHeaderNames()) {
+			if (isIncluded(name)) {
+				first = writeEntry(name, response.getHeader(name), first, out);
+			}
+		}
+		return out.append('}');
+	}
+
+	private static boolean writeEntry(String name, String value, boolean first, StringBuilder out) {
+		if (value == null) {
+			return first;
+		}
+		if (!first) {
+			out.append(',');
+		}
+		writeString(name, out);
+		out.append(':');
+		writeString(value, out);
+		return false;
+	}
+
+	/**
+	 * 写出 JSON 字符串，转义引号、反斜杠和控制字符
+	 */
+	static void writeString(String value, StringBuilder out) {
+		out.append('"');
+		int length = value.length();
+		int run = 0;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c >= 0x20 && c != '"' && c != '\\') {
+				continue;
+			}
+			out.append(value, run, i);
+			run = i + 1;
+			switch (c) {
+				case '"':
+					out.append("\\\"");
+					break;
+				case '\\':
+					out.append("\\\\");
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				case '\r':
+					out.append("\\r");
+					break;
+				case '\t':
+					out.append("\\t");
+					break;
+				default:
+					out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0x0F]);
+			}
+		}
+		out.append(value, run, length).append('"');
+	}
+}
@@ -205,80 +205,63 @@
 package club.gclmit.gear4j.core.http.servlet;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 
-import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
-import club.gclmit.gear4j.core.utils.StringUtils;
-import cn.hutool.core.util.CharsetUtil;
-
 /**
  * 自定义 HttpServletRequestWrapper
+ * <p>
+ * body 由 {@link RequestBodyHolder} 在首次使用时读取一次，与其他 gear4j 过滤器共享
  *
  * @author <a href="https://blog.gclmit.club">gclm</a>
  * @since jdk11
  */
 public class HttpCacheRequestWrapper extends HttpServletRequestWrapper {
 
-	/**
-	 * 设置默认编码格式为 UTF-8
-	 */
-	private static final String DEFAULT_CHARSET = CharsetUtil.UTF_8;
+	private final long maxBytes;
 
 	/**
-	 * Request Body
+	 * Constructs a request object wrapping the given request.
+	 *
+	 * @param request The request to wrap
+	 * @throws IllegalArgumentException if the request is null
 	 */
-	private final String body;
+	public HttpCacheRequestWrapper(HttpServletRequest request) {
+		this(request, 0);
+	}
 
 	/**
 	 * Constructs a request object wrapping the given request.
 	 *
-	 * @param request The request to wrap
-	 * @throws IOException if the request is null
+	 * @param request  The request to wrap
+	 * @param maxBytes body 最大字节数，小于等于 0 表示不限制，见 {@link RequestBodyHolder#of(javax.servlet.ServletRequest, long)}
+	 * @throws IllegalArgumentException if the request is null
 	 */
-	public HttpCacheRequestWrapper(HttpServletRequest request) throws IOException {
+	public HttpCacheRequestWrapper(HttpServletRequest request, long maxBytes) {
 		super(request);
-		ServletInputStream stream = request.getInputStream();
-		this.body = StringUtils.str(stream, CharsetUtil.CHARSET_UTF_8);
+		this.maxBytes = maxBytes;
 	}
 
 	@Override
 	public ServletInputStream getInputStream() throws IOException {
-		ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(body.getBytes(DEFAULT_CHARSET));
-		return new ServletInputStream() {
-			@Override
-			public boolean isFinished() {
-				return false;
-			}
-
-			@Override
-			public boolean isReady() {
-				return false;
-			}
-
-			@Override
-			public void setReadListener(ReadListener listener) {
-
-			}
-
-			@Override
-			public int read() {
-				return byteArrayInputStream.read();
-			}
-		};
+		return RequestBodyHolder.of(getRequest(), maxBytes).newServletInputStream();
 	}
 
 	@Override
 	public BufferedReader getReader() throws IOException {
-		return new BufferedReader(new InputStreamReader(this.getInputStream()));
+		return RequestBodyHolder.of(getRequest(), maxBytes).newReader();
 	}
 
-	public String getBody() {
-		return body;
+	/**
+	 * 获取 Request Body
+	 *
+	 * @return {@link String}
+	 * @throws IOException 读取输入流异常
+	 */
+	public String getBody() throws IOException {
+		return RequestBodyHolder.of(getRequest(), maxBytes).asString();
 	}
 }
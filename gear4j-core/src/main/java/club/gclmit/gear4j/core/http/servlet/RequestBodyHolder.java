@@ -0,0 +1,232 @@
+package club.gclmit.gear4j.core.http.servlet;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+
+/**
+ * 请求范围内共享的 Request Body
+ * <p>
+ * 第一个需要 body 的 gear4j 组件（安全过滤、请求日志等）读取一次原始输入流并挂到 request 属性上，
+ * 之后的组件和业务代码都拿到同一份字节数据的只读视图，不再重复读取和复制。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/22 09:36
+ * @since jdk11
+ */
+public class RequestBodyHolder {
+
+	/**
+	 * request 属性名
+	 */
+	public static final String ATTRIBUTE = RequestBodyHolder.class.getName();
+
+	private static final int DEFAULT_BUFFER_SIZE = 1024;
+
+	/**
+	 * 按 Content-Length 预分配的上限，避免伪造的超大长度直接占用内存
+	 */
+	private static final int MAX_INITIAL_BUFFER_SIZE = 64 * 1024;
+
+	private final byte[] buffer;
+
+	private final int length;
+
+	private final Charset charset;
+
+	/**
+	 * 按需解码的字符串，多个组件共享
+	 */
+	private String text;
+
+	private RequestBodyHolder(byte[] buffer, int length, Charset charset) {
+		this.buffer = buffer;
+		this.length = length;
+		this.charset = charset;
+	}
+
+	/**
+	 * 获取当前请求的 body，首次调用时读取原始输入流，不限制大小
+	 *
+	 * @param request 请求
+	 * @return {@link RequestBodyHolder}
+	 * @throws IOException 读取输入流异常
+	 */
+	public static RequestBodyHolder of(ServletRequest request) throws IOException {
+		return of(request, 0);
+	}
+
+	/**
+	 * 获取当前请求的 body，首次调用时读取原始输入流
+	 * <p>
+	 * Content-Length 超过上限时不读取，读取过程中累计超过上限时立即停止，内存占用不会超过上限
+	 *
+	 * @param request  请求
+	 * @param maxBytes 最大字节数，小于等于 0 表示不限制
+	 * @return {@link RequestBodyHolder}
+	 * @throws RequestBodyTooLargeException 超过上限
+	 * @throws IOException                  读取输入流异常
+	 */
+	public static RequestBodyHolder of(ServletRequest request, long maxBytes) throws IOException {
+		Object attribute = request.getAttribute(ATTRIBUTE);
+		RequestBodyHolder holder;
+		if (attribute instanceof RequestBodyHolder) {
+			holder = (RequestBodyHolder) attribute;
+		} else {
+			// 长度已知超过上限时不打开输入流
+			if (maxBytes > 0 && request.getContentLengthLong() > maxBytes) {
+				throw new RequestBodyTooLargeException(maxBytes);
+			}
+			ServletInputStream in = request.getInputStream();
+			// 外层包装器拿到的可能已经是其他 gear4j 包装器提供的视图，直接复用
+			holder = in instanceof BodyServletInputStream ? ((BodyServletInputStream) in).holder
+				: read(request, in, maxBytes);
+			request.setAttribute(ATTRIBUTE, holder);
+		}
+		// 先前不限制大小读取的 body 同样按上限检查
+		if (maxBytes > 0 && holder.length > maxBytes) {
+			throw new RequestBodyTooLargeException(maxBytes);
+		}
+		return holder;
+	}
+
+	private static RequestBodyHolder read(ServletRequest request, InputStream in, long maxBytes) throws IOException {
+		String encoding = request.getCharacterEncoding();
+		Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+		long contentLength = request.getContentLengthLong();
+		long limit = maxBytes > 0 ? Math.min(maxBytes, Integer.MAX_VALUE - 8) : Integer.MAX_VALUE - 8;
+		if (contentLength > limit) {
+			throw new RequestBodyTooLargeException(limit);
+		}
+		long initial = contentLength >= 0 ? Math.min(contentLength, MAX_INITIAL_BUFFER_SIZE) : DEFAULT_BUFFER_SIZE;
+		byte[] buffer = new byte[(int) Math.min(initial, limit)];
+		int length = 0;
+		while (true) {
+			if (length == buffer.length) {
+				int next = in.read();
+				if (next == -1) {
+					break;
+				}
+				if (length >= limit) {
+					throw new RequestBodyTooLargeException(limit);
+				}
+				// Content-Length 缺失或不准确时扩容，不超过上限
+				buffer = Arrays.copyOf(buffer, (int) Math.min(limit, Math.max(buffer.length * 2L, DEFAULT_BUFFER_SIZE)));
+				buffer[length++] = (byte) next;
+			}
+			int read = in.read(buffer, length, buffer.length - length);
+			if (read == -1) {
+				break;
+			}
+			length += read;
+		}
+		return new RequestBodyHolder(buffer, length, charset);
+	}
+
+	/**
+	 * body 字节数
+	 *
+	 * @return int
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * body 编码，取请求的 characterEncoding，未设置时为 UTF-8
+	 *
+	 * @return {@link Charset}
+	 */
+	public Charset getCharset() {
+		return charset;
+	}
+
+	/**
+	 * 按请求编码解码后的 body，只解码一次
+	 *
+	 * @return {@link String}
+	 */
+	public String asString() {
+		if (text == null) {
+			text = new String(buffer, 0, length, charset);
+		}
+		return text;
+	}
+
+	/**
+	 * 新的只读输入流，共享同一份字节数据
+	 *
+	 * @return {@link InputStream}
+	 */
+	public InputStream newInputStream() {
+		return new ByteArrayInputStream(buffer, 0, length);
+	}
+
+	/**
+	 * 新的 {@link ServletInputStream}，共享同一份字节数据
+	 *
+	 * @return {@link ServletInputStream}
+	 */
+	public ServletInputStream newServletInputStream() {
+		return new BodyServletInputStream(this);
+	}
+
+	/**
+	 * 新的 {@link BufferedReader}，共享同一份字节数据
+	 *
+	 * @return {@link BufferedReader}
+	 */
+	public BufferedReader newReader() {
+		return new BufferedReader(new InputStreamReader(newInputStream(), charset));
+	}
+
+	private static class BodyServletInputStream extends ServletInputStream {
+
+		private final RequestBodyHolder holder;
+
+		private final InputStream in;
+
+		BodyServletInputStream(RequestBodyHolder holder) {
+			this.holder = holder;
+			this.in = holder.newInputStream();
+		}
+
+		@Override
+		public boolean isFinished() {
+			try {
+				return in.available() == 0;
+			} catch (IOException e) {
+				return true;
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener listener) {
+
+		}
+
+		@Override
+		public int read() throws IOException {
+			return in.read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return in.read(b, off, len);
+		}
+	}
+}
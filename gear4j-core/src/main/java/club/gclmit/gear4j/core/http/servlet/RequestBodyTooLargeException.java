@@ -0,0 +1,31 @@
+package club.gclmit.gear4j.core.http.servlet;
+
+import java.io.IOException;
+
+/**
+ * Request Body 超过读取上限时抛出，此时原始输入流只读取了上限以内的部分
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/3 10:20
+ * @since jdk11
+ */
+public class RequestBodyTooLargeException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long maxBytes;
+
+	public RequestBodyTooLargeException(long maxBytes) {
+		super("请求体超过 " + maxBytes + " 字节");
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * 读取上限
+	 *
+	 * @return 字节数
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+}
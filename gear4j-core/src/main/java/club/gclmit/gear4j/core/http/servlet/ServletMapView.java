@@ -0,0 +1,144 @@
+package club.gclmit.gear4j.core.http.servlet;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 请求头、响应头、请求参数的只读 {@link Map} 视图
+ * <p>
+ * 不复制任何数据：{@link #get} 直接调用 {@code getHeader}/{@code getParameterValues}，遍历时才读取名称枚举，
+ * 只读取用到的值。视图与请求同生命周期，请求结束后不要再使用。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/1 15:20
+ * @since jdk11
+ */
+public final class ServletMapView extends AbstractMap<String, String> {
+
+	private final Supplier<Iterator<String>> names;
+
+	private final UnaryOperator<String> values;
+
+	private Set<Entry<String, String>> entrySet;
+
+	private ServletMapView(Supplier<Iterator<String>> names, UnaryOperator<String> values) {
+		this.names = names;
+		this.values = values;
+	}
+
+	/**
+	 * 请求头视图，同名请求头取第一个值，名称不区分大小写
+	 *
+	 * @param request 请求
+	 * @return 只读视图
+	 */
+	public static Map<String, String> requestHeaders(HttpServletRequest request) {
+		return new ServletMapView(() -> iterator(request.getHeaderNames()), request::getHeader);
+	}
+
+	/**
+	 * 响应头视图，同名响应头取第一个值
+	 *
+	 * @param response 响应
+	 * @return 只读视图
+	 */
+	public static Map<String, String> responseHeaders(HttpServletResponse response) {
+		return new ServletMapView(() -> response.getHeaderNames().iterator(), response::getHeader);
+	}
+
+	/**
+	 * 请求参数视图，只包含单值且非空的参数
+	 *
+	 * @param request 请求
+	 * @return 只读视图
+	 */
+	public static Map<String, String> parameters(HttpServletRequest request) {
+		return new ServletMapView(() -> iterator(request.getParameterNames()), name -> {
+			String[] values = request.getParameterValues(name);
+			return values != null && values.length == 1 && !values[0].isEmpty() ? values[0] : null;
+		});
+	}
+
+	private static Iterator<String> iterator(Enumeration<String> enumeration) {
+		return enumeration == null ? Collections.emptyIterator() : enumeration.asIterator();
+	}
+
+	@Override
+	public String get(Object key) {
+		return key instanceof String ? values.apply((String) key) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<>() {
+				@Override
+				public Iterator<Entry<String, String>> iterator() {
+					return new EntryIterator(names.get());
+				}
+
+				@Override
+				public int size() {
+					int size = 0;
+					for (Iterator<Entry<String, String>> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+						size++;
+					}
+					return size;
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	/**
+	 * 跳过没有值的名称，例如多值参数
+	 */
+	private class EntryIterator implements Iterator<Entry<String, String>> {
+
+		private final Iterator<String> names;
+
+		private Entry<String, String> next;
+
+		EntryIterator(Iterator<String> names) {
+			this.names = names;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null && names.hasNext()) {
+				String name = names.next();
+				String value = values.apply(name);
+				if (value != null) {
+					next = new SimpleImmutableEntry<>(name, value);
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public Entry<String, String> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Entry<String, String> entry = next;
+			next = null;
+			return entry;
+		}
+	}
+}
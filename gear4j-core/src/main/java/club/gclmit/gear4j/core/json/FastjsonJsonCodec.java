@@ -0,0 +1,97 @@
+package club.gclmit.gear4j.core.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+
+/**
+ * 基于 fastjson 的 {@link JsonCodec}
+ * <p>
+ * 使用 fastjson 的全局配置，日期按 {@link JSON#DEFFAULT_DATE_FORMAT} 输出，与 {@link JacksonJsonCodec} 保持一致。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/2 10:20
+ * @since jdk11
+ */
+public class FastjsonJsonCodec implements JsonCodec {
+
+	public static final String NAME = "fastjson";
+
+	private static final SerializerFeature[] FEATURES = {SerializerFeature.WriteDateUseDateFormat};
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public String toJson(Object value) {
+		try {
+			return JSON.toJSONString(value, FEATURES);
+		} catch (JSONException e) {
+			throw new Gear4jException("JSON 序列化失败", e);
+		}
+	}
+
+	@Override
+	public byte[] toJsonBytes(Object value) {
+		try {
+			return JSON.toJSONBytes(value, FEATURES);
+		} catch (JSONException e) {
+			throw new Gear4jException("JSON 序列化失败", e);
+		}
+	}
+
+	@Override
+	public void writeTo(Object value, OutputStream out) {
+		try {
+			JSON.writeJSONString(out, value, FEATURES);
+		} catch (IOException | JSONException e) {
+			throw new Gear4jException("JSON 序列化失败", e);
+		}
+	}
+
+	@Override
+	public void writeTo(Object value, Writer writer) {
+		try {
+			JSON.writeJSONString(writer, value, FEATURES);
+		} catch (JSONException e) {
+			throw new Gear4jException("JSON 序列化失败", e);
+		}
+	}
+
+	@Override
+	public <T> T parse(String json, Class<T> type) {
+		try {
+			return JSON.parseObject(json, type);
+		} catch (JSONException e) {
+			throw new Gear4jException("JSON 解析失败", e);
+		}
+	}
+
+	@Override
+	public <T> List<T> parseList(String json, Class<T> type) {
+		try {
+			return JSON.parseArray(json, type);
+		} catch (JSONException e) {
+			throw new Gear4jException("JSON 解析失败", e);
+		}
+	}
+
+	@Override
+	public Map<String, Object> parseMap(String json) {
+		try {
+			return JSON.parseObject(json);
+		} catch (JSONException e) {
+			throw new Gear4jException("JSON 解析失败", e);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package club.gclmit.gear4j.core.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.utils.JacksonUtils;
+
+/**
+ * 基于 Jackson 的 {@link JsonCodec}
+ * <p>
+ * 沿用 {@link JacksonUtils} 的配置，只额外忽略 null 值。序列化走 {@link JsonGenerator}：字符串和字节结果使用 Jackson
+ * 回收的缓冲区，{@code writeTo} 直接把 UTF-8 写到目标流，不生成中间字符串。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/2 10:10
+ * @since jdk11
+ */
+public class JacksonJsonCodec implements JsonCodec {
+
+	public static final String NAME = "jackson";
+
+	private final ObjectMapper mapper;
+
+	private final ObjectWriter writer;
+
+	private final JavaType mapType;
+
+	public JacksonJsonCodec() {
+		this(JacksonUtils.getInstance());
+	}
+
+	/**
+	 * @param mapper 基础配置，使用它的副本，不修改原实例
+	 */
+	public JacksonJsonCodec(ObjectMapper mapper) {
+		this.mapper = mapper.copy()
+			.setDefaultPropertyInclusion(JsonInclude.Value.construct(JsonInclude.Include.NON_NULL, JsonInclude.Include.NON_NULL));
+		this.writer = this.mapper.writer();
+		this.mapType = this.mapper.getTypeFactory().constructMapType(LinkedHashMap.class, String.class, Object.class);
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public String toJson(Object value) {
+		try {
+			return writer.writeValueAsString(value);
+		} catch (IOException e) {
+			throw new Gear4jException("JSON 序列化失败", e);
+		}
+	}
+
+	@Override
+	public byte[] toJsonBytes(Object value) {
+		try {
+			return writer.writeValueAsBytes(value);
+		} catch (IOException e) {
+			throw new Gear4jException("JSON 序列化失败", e);
+		}
+	}
+
+	@Override
+	public void writeTo(Object value, OutputStream out) {
+		try (JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+			write(value, generator);
+		} catch (IOException e) {
+			throw new Gear4jException("JSON 序列化失败", e);
+		}
+	}
+
+	@Override
+	public void writeTo(Object value, Writer out) {
+		try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+			write(value, generator);
+		} catch (IOException e) {
+			throw new Gear4jException("JSON 序列化失败", e);
+		}
+	}
+
+	private void write(Object value, JsonGenerator generator) throws IOException {
+		// 关闭 generator 时只 flush，不关闭调用方的流
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		writer.writeValue(generator, value);
+	}
+
+	@Override
+	public <T> T parse(String json, Class<T> type) {
+		try {
+			return mapper.readValue(json, type);
+		} catch (IOException e) {
+			throw new Gear4jException("JSON 解析失败", e);
+		}
+	}
+
+	@Override
+	public <T> List<T> parseList(String json, Class<T> type) {
+		try {
+			return mapper.readValue(json, mapper.getTypeFactory().constructCollectionType(List.class, type));
+		} catch (IOException e) {
+			throw new Gear4jException("JSON 解析失败", e);
+		}
+	}
+
+	@Override
+	public Map<String, Object> parseMap(String json) {
+		try {
+			return mapper.readValue(json, mapType);
+		} catch (IOException e) {
+			throw new Gear4jException("JSON 解析失败", e);
+		}
+	}
+}
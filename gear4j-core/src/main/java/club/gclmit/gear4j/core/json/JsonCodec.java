@@ -0,0 +1,89 @@
+package club.gclmit.gear4j.core.json;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON 编解码 SPI
+ * <p>
+ * gear4j 各模块内部的序列化统一经过 {@link JsonCodecs#getDefault()}，同一个进程只预热一套 JSON 实现。
+ * 内置 {@link JacksonJsonCodec} 和 {@link FastjsonJsonCodec}，也可以通过 {@link java.util.ServiceLoader} 提供其他实现。
+ * <p>
+ * 实现约定：值为 null 的属性不输出；日期按 yyyy-MM-dd HH:mm:ss 输出；解析失败抛出
+ * {@link club.gclmit.gear4j.core.exception.Gear4jException}；实例线程安全。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/2 10:00
+ * @since jdk11
+ */
+public interface JsonCodec {
+
+	/**
+	 * 名称，用于 {@link JsonCodecs#PROPERTY} 配置
+	 *
+	 * @return 名称
+	 */
+	String name();
+
+	/**
+	 * 序列化
+	 *
+	 * @param value 对象
+	 * @return JSON 字符串
+	 */
+	String toJson(Object value);
+
+	/**
+	 * 序列化为 UTF-8 字节
+	 *
+	 * @param value 对象
+	 * @return JSON 字节
+	 */
+	byte[] toJsonBytes(Object value);
+
+	/**
+	 * 以 UTF-8 直接写到输出流，不生成中间字符串；不关闭输出流
+	 *
+	 * @param value 对象
+	 * @param out   输出流
+	 */
+	void writeTo(Object value, OutputStream out);
+
+	/**
+	 * 直接写到 {@link Writer}，不生成中间字符串；不关闭 writer
+	 *
+	 * @param value  对象
+	 * @param writer writer
+	 */
+	void writeTo(Object value, Writer writer);
+
+	/**
+	 * 反序列化
+	 *
+	 * @param json JSON 字符串
+	 * @param type 类型
+	 * @param <T>  类型
+	 * @return 对象
+	 */
+	<T> T parse(String json, Class<T> type);
+
+	/**
+	 * 反序列化 JSON 数组
+	 *
+	 * @param json JSON 字符串
+	 * @param type 元素类型
+	 * @param <T>  元素类型
+	 * @return 列表
+	 */
+	<T> List<T> parseList(String json, Class<T> type);
+
+	/**
+	 * 解析为 Map，嵌套的对象同样是 {@link Map}，数组是 {@link List}
+	 *
+	 * @param json JSON 字符串
+	 * @return Map
+	 */
+	Map<String, Object> parseMap(String json);
+}
@@ -0,0 +1,93 @@
+package club.gclmit.gear4j.core.json;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link JsonCodec} 注册表
+ * <p>
+ * 默认实现由系统属性 {@value #PROPERTY} 指定（jackson、fastjson 或通过 {@link ServiceLoader} 提供的实现名称），
+ * 未配置时使用 Jackson；也可以在启动时调用 {@link #setDefault(JsonCodec)} 替换。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/2 10:30
+ * @since jdk11
+ */
+public class JsonCodecs {
+
+	/**
+	 * 指定默认实现的系统属性
+	 */
+	public static final String PROPERTY = "gear4j.json.codec";
+
+	private static final Map<String, JsonCodec> CODECS = new ConcurrentHashMap<>();
+
+	private static volatile JsonCodec defaultCodec;
+
+	private JsonCodecs() {
+	}
+
+	/**
+	 * 默认实现，首次调用时按 {@value #PROPERTY} 创建
+	 *
+	 * @return {@link JsonCodec}
+	 */
+	public static JsonCodec getDefault() {
+		JsonCodec codec = defaultCodec;
+		if (codec == null) {
+			synchronized (JsonCodecs.class) {
+				if (defaultCodec == null) {
+					defaultCodec = get(System.getProperty(PROPERTY, JacksonJsonCodec.NAME));
+				}
+				codec = defaultCodec;
+			}
+		}
+		return codec;
+	}
+
+	/**
+	 * 替换默认实现，需在各模块首次序列化之前调用
+	 *
+	 * @param codec 实现
+	 */
+	public static void setDefault(JsonCodec codec) {
+		register(codec);
+		defaultCodec = codec;
+	}
+
+	/**
+	 * 注册实现，替换同名实现
+	 *
+	 * @param codec 实现
+	 */
+	public static void register(JsonCodec codec) {
+		CODECS.put(codec.name(), codec);
+	}
+
+	/**
+	 * 按名称获取实现，同名实例全局共享
+	 *
+	 * @param name 名称
+	 * @return {@link JsonCodec}
+	 * @throws IllegalArgumentException 没有对应的实现
+	 */
+	public static JsonCodec get(String name) {
+		return CODECS.computeIfAbsent(name, JsonCodecs::create);
+	}
+
+	private static JsonCodec create(String name) {
+		if (JacksonJsonCodec.NAME.equals(name)) {
+			return new JacksonJsonCodec();
+		}
+		if (FastjsonJsonCodec.NAME.equals(name)) {
+			return new FastjsonJsonCodec();
+		}
+		for (JsonCodec codec : ServiceLoader.load(JsonCodec.class)) {
+			if (name.equals(codec.name())) {
+				return codec;
+			}
+		}
+		throw new IllegalArgumentException("未知的 JSON 编解码器: " + name);
+	}
+}
@@ -0,0 +1,41 @@
+package club.gclmit.gear4j.core.lang;
+
+/**
+ * 摘要算法，见 {@link club.gclmit.gear4j.core.utils.SecureUtils#digest(java.io.InputStream, DigestType...)}
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/29 09:20
+ * @since jdk11
+ */
+public enum DigestType {
+
+	/**
+	 * MD5
+	 */
+	MD5("MD5"),
+	/**
+	 * SHA-1
+	 */
+	SHA1("SHA-1"),
+	/**
+	 * SHA-256
+	 */
+	SHA256("SHA-256"),
+	/**
+	 * CRC32C，结果为 8 位 16 进制字符串
+	 */
+	CRC32C(null);
+
+	/**
+	 * {@link java.security.MessageDigest} 算法名，校验和类算法为 null
+	 */
+	private final String algorithm;
+
+	DigestType(String algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	public String getAlgorithm() {
+		return algorithm;
+	}
+}
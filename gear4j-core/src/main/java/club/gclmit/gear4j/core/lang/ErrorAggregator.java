@@ -0,0 +1,232 @@
+package club.gclmit.gear4j.core.lang;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 异常日志聚合器
+ * <p>
+ * 按异常类型 + 栈顶若干帧生成指纹，同一指纹第一次出现时输出完整堆栈，之后只计数，每个统计窗口结束时输出一条汇总。
+ * 日志在后台线程中写出，待写日志超过上限时直接丢弃并计数，请求线程不会阻塞在日志 appender 上。
+ * 所有聚合器共用一个后台线程，不再使用的聚合器调用 {@link #close()} 停止汇总。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/26 09:40
+ * @since jdk11
+ */
+public class ErrorAggregator implements AutoCloseable {
+
+	/**
+	 * 默认统计窗口（秒）
+	 */
+	public static final long DEFAULT_WINDOW_SECONDS = 60;
+
+	/**
+	 * 默认参与指纹计算的栈帧数
+	 */
+	public static final int DEFAULT_FRAMES = 5;
+
+	/**
+	 * 最多同时统计的指纹数，超出后归入同一个溢出指纹
+	 */
+	private static final int MAX_FINGERPRINTS = 1024;
+
+	/**
+	 * 最多等待写出的日志数
+	 */
+	private static final int MAX_PENDING = 1024;
+
+	private static final String OVERFLOW = "<overflow>";
+
+	/**
+	 * 已从统计中移除的计数器，记录时遇到需要重新创建
+	 */
+	private static final long RETIRED = Long.MIN_VALUE;
+
+	private final Logger logger;
+
+	private final long windowSeconds;
+
+	private final int frames;
+
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+	private final ScheduledFuture<?> summaryTask;
+
+	private final AtomicInteger pending = new AtomicInteger();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * @param logger        日志
+	 * @param windowSeconds 统计窗口（秒）
+	 * @param frames        参与指纹计算的栈帧数
+	 */
+	public ErrorAggregator(Logger logger, long windowSeconds, int frames) {
+		this.logger = logger;
+		this.windowSeconds = windowSeconds;
+		this.frames = frames;
+		this.summaryTask = Scheduler.EXECUTOR.scheduleAtFixedRate(this::summary, windowSeconds, windowSeconds,
+			TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 默认聚合器，日志输出到 {@link ErrorAggregator} 对应的 logger
+	 *
+	 * @return {@link ErrorAggregator}
+	 */
+	public static ErrorAggregator getInstance() {
+		return ErrorAggregatorHolder.INSTANCE;
+	}
+
+	/**
+	 * 记录一次异常
+	 *
+	 * @param message 日志信息
+	 * @param e       异常
+	 */
+	public void record(String message, Throwable e) {
+		String fingerprint = fingerprint(e);
+		Counter counter;
+		long previous;
+		do {
+			counter = counters.get(fingerprint);
+			if (counter == null) {
+				if (counters.size() >= MAX_FINGERPRINTS) {
+					fingerprint = OVERFLOW;
+				}
+				counter = counters.computeIfAbsent(fingerprint, key -> new Counter());
+			}
+			// 汇总线程已经移除的计数器不再累加，重新创建，保证不丢失计数
+			previous = counter.count.getAndUpdate(count -> count == RETIRED ? RETIRED : count + 1);
+		} while (previous == RETIRED);
+		counter.last = e;
+		if (previous == 0 && !counter.logged) {
+			counter.logged = true;
+			submit(() -> logger.error(message, e));
+		}
+	}
+
+	/**
+	 * 生成异常指纹：类型 + 栈顶若干帧
+	 */
+	String fingerprint(Throwable e) {
+		StringBuilder fingerprint = new StringBuilder(128).append(e.getClass().getName());
+		StackTraceElement[] trace = e.getStackTrace();
+		for (int i = 0; i < Math.min(frames, trace.length); i++) {
+			fingerprint.append('|').append(trace[i].getClassName()).append('#').append(trace[i].getMethodName())
+				.append(':').append(trace[i].getLineNumber());
+		}
+		return fingerprint.toString();
+	}
+
+	private void submit(Runnable task) {
+		if (pending.incrementAndGet() > MAX_PENDING) {
+			pending.decrementAndGet();
+			dropped.incrementAndGet();
+			return;
+		}
+		Scheduler.EXECUTOR.execute(() -> {
+			try {
+				task.run();
+			} finally {
+				pending.decrementAndGet();
+			}
+		});
+	}
+
+	/**
+	 * 输出窗口汇总：首次记录之外的重复次数；整个窗口内没有出现的指纹被移除，再次出现时重新输出完整堆栈
+	 */
+	private void summary() {
+		for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+			Counter counter = entry.getValue();
+			if (counter.count.compareAndSet(0, RETIRED)) {
+				counters.remove(entry.getKey(), counter);
+				continue;
+			}
+			long count = counter.count.getAndSet(0);
+			long repeated = counter.reported ? count : count - 1;
+			counter.reported = true;
+			if (repeated > 0) {
+				Throwable last = counter.last;
+				logger.error("异常在最近 {} 秒内重复 {} 次：{}: {}", windowSeconds, repeated, last.getClass().getName(),
+					last.getMessage());
+			}
+		}
+		long drop = dropped.getAndSet(0);
+		if (drop > 0) {
+			logger.warn("异常日志积压，丢弃 {} 条", drop);
+		}
+	}
+
+	/**
+	 * 立即在后台线程输出一次汇总并等待完成，之前提交的日志也已经写出
+	 */
+	void flush() {
+		try {
+			Scheduler.EXECUTOR.submit(this::summary).get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 停止定时汇总，并输出最后一次汇总
+	 */
+	@Override
+	public void close() {
+		if (summaryTask.cancel(false)) {
+			flush();
+		}
+	}
+
+	private static class Counter {
+
+		private final AtomicLong count = new AtomicLong();
+
+		/**
+		 * 是否已经输出过完整堆栈
+		 */
+		private volatile boolean logged;
+
+		/**
+		 * 是否已经做过一次汇总，首次汇总需要扣除输出过完整堆栈的那一次
+		 */
+		private boolean reported;
+
+		private volatile Throwable last;
+	}
+
+	/**
+	 * 所有聚合器共用的后台线程
+	 */
+	private static class Scheduler {
+		private static final ScheduledThreadPoolExecutor EXECUTOR = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "gear4j-error-aggregator");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		static {
+			// 关闭的聚合器取消的定时任务立即移出队列
+			EXECUTOR.setRemoveOnCancelPolicy(true);
+		}
+	}
+
+	private static class ErrorAggregatorHolder {
+		private static final ErrorAggregator INSTANCE = new ErrorAggregator(LoggerFactory.getLogger(ErrorAggregator.class),
+			DEFAULT_WINDOW_SECONDS, DEFAULT_FRAMES);
+	}
+}
@@ -140,8 +140,11 @@
 
 package club.gclmit.gear4j.core.lang;
 
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.helpers.FormattingTuple;
 import org.slf4j.helpers.MessageFormatter;
 
 import club.gclmit.gear4j.core.utils.StringUtils;
@@ -150,6 +153,10 @@ import club.gclmit.gear4j.core.utils.StringUtils;
  * <p>
  * Slf4j 日志封装
  * </p>
+ * <p>
+ * 调用方通过 {@link StackWalker} 定位，Logger 按调用类缓存；日志级别未开启时不做任何消息格式化。
+ * 参数计算开销较大时可使用 {@link Supplier} 形式的重载延迟计算。
+ * </p>
  *
  * @author <a href="https://blog.gclmit.club">gclm</a>
  * @since jdk11
@@ -157,57 +164,34 @@ import club.gclmit.gear4j.core.utils.StringUtils;
 public class Log {
 
     /**
-     * 当前日志类名
+     * 只保留 Class 引用的栈遍历器，调用方通常在前几帧内，预估深度取 4
      */
-    private final static String CURRENT_LOG_CLASS_NAME = Log.class.getName();
+    private static final StackWalker WALKER =
+        StackWalker.getInstance(Set.of(StackWalker.Option.RETAIN_CLASS_REFERENCE), 4);
 
     /**
-     * 获取最原始被调用的堆栈信息
+     * 按调用类缓存 Logger
      */
-    private static StackTraceElement getCaller() {
-
-        // 获取堆栈信息
-        StackTraceElement[] traceElements = Thread.currentThread().getStackTrace();
-
-        // 最原始被调用的堆栈信息
-        StackTraceElement caller = null;
-
-        // 循环遍历到日志类标识
-        boolean isEachLogFlag = false;
-
-        // 遍历堆栈信息，获取出最原始被调用的方法信息
-        // 当前日志类的堆栈信息完了就是调用该日志类对象信息
-        for (StackTraceElement element : traceElements) {
-            // 遍历到日志类
-            if (element.getClassName().equals(CURRENT_LOG_CLASS_NAME)) {
-                isEachLogFlag = true;
-            }
-
-            // 下一个非日志类的堆栈，就是最原始被调用的方法
-            if (isEachLogFlag) {
-                if (!element.getClassName().equals(CURRENT_LOG_CLASS_NAME)) {
-                    caller = element;
-                    break;
-                }
-            }
+    private static final ClassValue<Logger> LOGGERS = new ClassValue<>() {
+        @Override
+        protected Logger computeValue(Class<?> type) {
+            return LoggerFactory.getLogger(type);
         }
+    };
 
-        return caller;
+    /**
+     * 获取最原始被调用的类
+     */
+    private static Class<?> getCaller() {
+        return WALKER.walk(frames -> frames.map(StackWalker.StackFrame::getDeclaringClass)
+            .filter(clazz -> clazz != Log.class).findFirst().orElse(Log.class));
     }
 
     /**
-     * 自动匹配请求类名，生成logger对象
+     * 自动匹配请求类名，获取缓存的 logger 对象
      */
-    private static org.slf4j.Logger log() {
-        // 最原始被调用的堆栈对象
-        StackTraceElement caller = getCaller();
-        // 空堆栈处理
-        if (caller == null) {
-            return LoggerFactory.getLogger(Log.class);
-        }
-
-        // 取出被调用对象的类名，并构造一个Logger对象返回
-        return LoggerFactory.getLogger(caller.getClassName());
+    private static Logger log() {
+        return LOGGERS.get(getCaller());
     }
 
     /**
@@ -217,7 +201,10 @@ public class Log {
      * @param args 消息参数
      */
     public static void trace(String format, Object... args) {
-        log().trace(build(null, format, args));
+        Logger logger = log();
+        if (logger.isTraceEnabled()) {
+            logger.trace(build(null, format, args));
+        }
     }
 
     /**
@@ -227,7 +214,10 @@ public class Log {
      * @param args 消息参数
      */
     public static void info(String format, Object... args) {
-        log().info(build(null, format, args));
+        Logger logger = log();
+        if (logger.isInfoEnabled()) {
+            logger.info(build(null, format, args));
+        }
     }
 
     /**
@@ -237,7 +227,10 @@ public class Log {
      * @param args 消息参数
      */
     public static void debug(String format, Object... args) {
-        log().debug(build(null, format, args));
+        Logger logger = log();
+        if (logger.isDebugEnabled()) {
+            logger.debug(build(null, format, args));
+        }
     }
 
     /**
@@ -247,7 +240,10 @@ public class Log {
      * @param args 消息参数
      */
     public static void warn(String format, Object... args) {
-        log().warn(build(null, format, args));
+        Logger logger = log();
+        if (logger.isWarnEnabled()) {
+            logger.warn(build(null, format, args));
+        }
     }
 
     /**
@@ -257,7 +253,10 @@ public class Log {
      * @param args 消息参数
      */
     public static void error(String format, Object... args) {
-        log().error(build(null, format, args));
+        Logger logger = log();
+        if (logger.isErrorEnabled()) {
+            logger.error(build(null, format, args));
+        }
     }
 
     /**
@@ -268,7 +267,10 @@ public class Log {
      * @param args 消息参数
      */
     public static void trace(LoggerProvider loggerProvider, String format, Object... args) {
-        log().trace(build(loggerProvider.getCode(), format, args));
+        Logger logger = log();
+        if (logger.isTraceEnabled()) {
+            logger.trace(build(loggerProvider.getCode(), format, args));
+        }
     }
 
     /**
@@ -279,7 +281,10 @@ public class Log {
      * @param args 消息参数
      */
     public static void info(LoggerProvider loggerProvider, String format, Object... args) {
-        log().info(build(loggerProvider.getCode(), format, args));
+        Logger logger = log();
+        if (logger.isInfoEnabled()) {
+            logger.info(build(loggerProvider.getCode(), format, args));
+        }
     }
 
     /**
@@ -290,7 +295,10 @@ public class Log {
      * @param args 消息参数
      */
     public static void debug(LoggerProvider loggerProvider, String format, Object... args) {
-        log().debug(build(loggerProvider.getCode(), format, args));
+        Logger logger = log();
+        if (logger.isDebugEnabled()) {
+            logger.debug(build(loggerProvider.getCode(), format, args));
+        }
     }
 
     /**
@@ -301,7 +309,10 @@ public class Log {
      * @param args 消息参数
      */
     public static void warn(LoggerProvider loggerProvider, String format, Object... args) {
-        log().warn(build(loggerProvider.getCode(), format, args));
+        Logger logger = log();
+        if (logger.isWarnEnabled()) {
+            logger.warn(build(loggerProvider.getCode(), format, args));
+        }
     }
 
     /**
@@ -312,7 +323,162 @@ public class Log {
      * @param args 消息参数
      */
     public static void error(LoggerProvider loggerProvider, String format, Object... args) {
-        log().error(build(loggerProvider.getCode(), format, args));
+        Logger logger = log();
+        if (logger.isErrorEnabled()) {
+            logger.error(build(loggerProvider.getCode(), format, args));
+        }
+    }
+
+    /**
+     * trace，参数在日志级别开启时才计算
+     *
+     * @param format 消息模板
+     * @param args 消息参数提供者
+     */
+    public static void trace(String format, Supplier<?>... args) {
+        Logger logger = log();
+        if (logger.isTraceEnabled()) {
+            logger.trace(build(null, format, resolve(args)));
+        }
+    }
+
+    /**
+     * info，参数在日志级别开启时才计算
+     *
+     * @param format 消息模板
+     * @param args 消息参数提供者
+     */
+    public static void info(String format, Supplier<?>... args) {
+        Logger logger = log();
+        if (logger.isInfoEnabled()) {
+            logger.info(build(null, format, resolve(args)));
+        }
+    }
+
+    /**
+     * debug，参数在日志级别开启时才计算
+     *
+     * @param format 消息模板
+     * @param args 消息参数提供者
+     */
+    public static void debug(String format, Supplier<?>... args) {
+        Logger logger = log();
+        if (logger.isDebugEnabled()) {
+            logger.debug(build(null, format, resolve(args)));
+        }
+    }
+
+    /**
+     * warn，参数在日志级别开启时才计算
+     *
+     * @param format 消息模板
+     * @param args 消息参数提供者
+     */
+    public static void warn(String format, Supplier<?>... args) {
+        Logger logger = log();
+        if (logger.isWarnEnabled()) {
+            logger.warn(build(null, format, resolve(args)));
+        }
+    }
+
+    /**
+     * error，参数在日志级别开启时才计算
+     *
+     * @param format 消息模板
+     * @param args 消息参数提供者
+     */
+    public static void error(String format, Supplier<?>... args) {
+        Logger logger = log();
+        if (logger.isErrorEnabled()) {
+            logger.error(build(null, format, resolve(args)));
+        }
+    }
+
+    /**
+     * trace，参数在日志级别开启时才计算
+     *
+     * @param loggerProvider 消息提供者
+     * @param format 消息模板
+     * @param args 消息参数提供者
+     */
+    public static void trace(LoggerProvider loggerProvider, String format, Supplier<?>... args) {
+        Logger logger = log();
+        if (logger.isTraceEnabled()) {
+            logger.trace(build(loggerProvider.getCode(), format, resolve(args)));
+        }
+    }
+
+    /**
+     * info，参数在日志级别开启时才计算
+     *
+     * @param loggerProvider 消息提供者
+     * @param format 消息模板
+     * @param args 消息参数提供者
+     */
+    public static void info(LoggerProvider loggerProvider, String format, Supplier<?>... args) {
+        Logger logger = log();
+        if (logger.isInfoEnabled()) {
+            logger.info(build(loggerProvider.getCode(), format, resolve(args)));
+        }
+    }
+
+    /**
+     * debug，参数在日志级别开启时才计算
+     *
+     * @param loggerProvider 消息提供者
+     * @param format 消息模板
+     * @param args 消息参数提供者
+     */
+    public static void debug(LoggerProvider loggerProvider, String format, Supplier<?>... args) {
+        Logger logger = log();
+        if (logger.isDebugEnabled()) {
+            logger.debug(build(loggerProvider.getCode(), format, resolve(args)));
+        }
+    }
+
+    /**
+     * warn，参数在日志级别开启时才计算
+     *
+     * @param loggerProvider 消息提供者
+     * @param format 消息模板
+     * @param args 消息参数提供者
+     */
+    public static void warn(LoggerProvider loggerProvider, String format, Supplier<?>... args) {
+        Logger logger = log();
+        if (logger.isWarnEnabled()) {
+            logger.warn(build(loggerProvider.getCode(), format, resolve(args)));
+        }
+    }
+
+    /**
+     * error，参数在日志级别开启时才计算
+     *
+     * @param loggerProvider 消息提供者
+     * @param format 消息模板
+     * @param args 消息参数提供者
+     */
+    public static void error(LoggerProvider loggerProvider, String format, Supplier<?>... args) {
+        Logger logger = log();
+        if (logger.isErrorEnabled()) {
+            logger.error(build(loggerProvider.getCode(), format, resolve(args)));
+        }
+    }
+
+    /**
+     * 计算延迟参数
+     *
+     * @param suppliers 消息参数提供者
+     * @return {@link Object[]}
+     */
+    private static Object[] resolve(Supplier<?>... suppliers) {
+        if (suppliers == null) {
+            return null;
+        }
+        Object[] args = new Object[suppliers.length];
+        for (int i = 0; i < suppliers.length; i++) {
+            args[i] = suppliers[i] == null ? null : suppliers[i].get();
+        }
+        return args;
     }
 
     /**
@@ -324,10 +490,10 @@ public class Log {
      * @return {@link String}
      */
     private static String build(String prefix, String template, Object... args) {
-        FormattingTuple ft = MessageFormatter.arrayFormat(template, args);
+        String message = MessageFormatter.arrayFormat(template, args).getMessage();
         if (StringUtils.isNotBlank(prefix)) {
-            return String.format("%s ---> %s", prefix, ft.getMessage());
+            return prefix + " ---> " + message;
         }
-        return ft.getMessage();
+        return message;
     }
 }
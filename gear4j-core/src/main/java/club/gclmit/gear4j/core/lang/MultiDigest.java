@@ -0,0 +1,108 @@
+package club.gclmit.gear4j.core.lang;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import cn.hutool.core.util.HexUtil;
+
+/**
+ * 同时计算多个摘要，数据只需经过一次
+ * <p>
+ * 非线程安全，每次计算使用一个新实例
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/30 10:10
+ * @since jdk11
+ */
+public class MultiDigest {
+
+	private final DigestType[] types;
+
+	private final MessageDigest[] digests;
+
+	private final CRC32C crc;
+
+	public MultiDigest(DigestType... types) {
+		this.types = types.clone();
+		this.digests = new MessageDigest[types.length];
+		CRC32C checksum = null;
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] == DigestType.CRC32C) {
+				checksum = new CRC32C();
+			} else {
+				try {
+					digests[i] = MessageDigest.getInstance(types[i].getAlgorithm());
+				} catch (NoSuchAlgorithmException e) {
+					throw new Gear4jException("不支持的摘要算法：" + types[i], e);
+				}
+			}
+		}
+		this.crc = checksum;
+	}
+
+	/**
+	 * 是否没有需要计算的摘要
+	 *
+	 * @return boolean
+	 */
+	public boolean isEmpty() {
+		return types.length == 0;
+	}
+
+	/**
+	 * 更新 buffer 中 position 到 limit 的数据，完成后 buffer 的 position 移到 limit
+	 *
+	 * @param buffer 数据
+	 */
+	public void update(ByteBuffer buffer) {
+		int position = buffer.position();
+		for (MessageDigest digest : digests) {
+			if (digest != null) {
+				buffer.position(position);
+				digest.update(buffer);
+			}
+		}
+		if (crc != null) {
+			buffer.position(position);
+			crc.update(buffer);
+		}
+		buffer.position(buffer.limit());
+	}
+
+	/**
+	 * 更新数据
+	 *
+	 * @param data   数据
+	 * @param offset 起始位置
+	 * @param length 长度
+	 */
+	public void update(byte[] data, int offset, int length) {
+		for (MessageDigest digest : digests) {
+			if (digest != null) {
+				digest.update(data, offset, length);
+			}
+		}
+		if (crc != null) {
+			crc.update(data, offset, length);
+		}
+	}
+
+	/**
+	 * 完成计算
+	 *
+	 * @return 算法 -> 16进制摘要
+	 */
+	public Map<DigestType, String> hex() {
+		Map<DigestType, String> result = new EnumMap<>(DigestType.class);
+		for (int i = 0; i < types.length; i++) {
+			result.put(types[i], types[i] == DigestType.CRC32C ? String.format("%08x", crc.getValue())
+				: HexUtil.encodeHexStr(digests[i].digest()));
+		}
+		return result;
+	}
+}
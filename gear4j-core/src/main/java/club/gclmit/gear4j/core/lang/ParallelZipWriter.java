@@ -0,0 +1,616 @@
+package club.gclmit.gear4j.core.lang;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * 并行压缩、顺序输出的流式 ZIP 写入器
+ * <p>
+ * 每个条目在线程池中独立压缩（按条目并行），压缩结果按添加顺序依次写入输出流，输出流可以直接是 HTTP 响应。
+ * 条目内容通过 {@link StreamSupplier} 在压缩前才打开，同时压缩中的条目数不超过 {@code window}，
+ * 窗口满时 {@link #add} 会先写出最早的条目；单个条目的压缩结果超过 {@code spillThreshold} 时转存到临时文件，
+ * 因此内存占用与归档大小无关，只与窗口和阈值有关（中央目录每个条目保留少量元数据）。
+ * 条目大小、偏移或条目数超出 ZIP 限制时自动使用 Zip64。
+ *
+ * <pre>
+ * try (ParallelZipWriter zip = new ParallelZipWriter(response.getOutputStream())) {
+ *     for (String key : keys) {
+ *         zip.add(key, () -&gt; cosClient.download(key));
+ *     }
+ * }
+ * </pre>
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/30 15:00
+ * @since jdk11
+ */
+public class ParallelZipWriter implements Closeable {
+
+	/**
+	 * 默认单个条目在内存中保留的压缩数据上限
+	 */
+	public static final int DEFAULT_SPILL_THRESHOLD = 4 * 1024 * 1024;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+	private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+
+	private static final int VERSION_DEFAULT = 20;
+
+	private static final int VERSION_ZIP64 = 45;
+
+	/**
+	 * 通用标记位 11：文件名使用 UTF-8
+	 */
+	private static final int FLAG_UTF8 = 0x0800;
+
+	private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+	private final CountingOutputStream out;
+
+	private final ExecutorService executor;
+
+	private final boolean ownExecutor;
+
+	private final int window;
+
+	private final int spillThreshold;
+
+	private final int level;
+
+	private final ArrayDeque<Future<Compressed>> pending = new ArrayDeque<>();
+
+	private final List<CentralEntry> central = new ArrayList<>();
+
+	/**
+	 * 还没有写出的压缩结果，出错时统一删除
+	 */
+	private final Set<SpillBuffer> buffers = ConcurrentHashMap.newKeySet();
+
+	private boolean closed;
+
+	/**
+	 * 出错后不再接受条目，压缩线程完成时直接删除结果
+	 */
+	private volatile boolean discarded;
+
+	/**
+	 * 使用 CPU 核数个压缩线程，默认压缩级别
+	 *
+	 * @param out 输出流，关闭写入器时一并关闭
+	 */
+	public ParallelZipWriter(OutputStream out) {
+		this(out, Runtime.getRuntime().availableProcessors(), Deflater.DEFAULT_COMPRESSION, DEFAULT_SPILL_THRESHOLD);
+	}
+
+	/**
+	 * @param out            输出流，关闭写入器时一并关闭
+	 * @param parallelism    压缩线程数
+	 * @param level          压缩级别
+	 * @param spillThreshold 单个条目在内存中保留的压缩数据上限
+	 */
+	public ParallelZipWriter(OutputStream out, int parallelism, int level, int spillThreshold) {
+		this(out, Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "gear4j-zip-" + THREAD_ID.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}), true, parallelism * 2, level, spillThreshold);
+	}
+
+	/**
+	 * @param out            输出流，关闭写入器时一并关闭
+	 * @param executor       压缩线程池，由调用方管理
+	 * @param window         同时压缩中的最大条目数
+	 * @param level          压缩级别
+	 * @param spillThreshold 单个条目在内存中保留的压缩数据上限
+	 */
+	public ParallelZipWriter(OutputStream out, ExecutorService executor, int window, int level, int spillThreshold) {
+		this(out, executor, false, window, level, spillThreshold);
+	}
+
+	private ParallelZipWriter(OutputStream out, ExecutorService executor, boolean ownExecutor, int window, int level,
+		int spillThreshold) {
+		this.out = new CountingOutputStream(out);
+		this.executor = executor;
+		this.ownExecutor = ownExecutor;
+		this.window = Math.max(1, window);
+		this.level = level;
+		this.spillThreshold = spillThreshold;
+	}
+
+	/**
+	 * 添加压缩条目
+	 *
+	 * @param name     条目名称
+	 * @param supplier 内容，压缩前才打开，压缩后关闭
+	 * @throws IOException 写出之前的条目失败
+	 */
+	public void add(String name, StreamSupplier supplier) throws IOException {
+		add(new ZipEntry(name), supplier);
+	}
+
+	/**
+	 * 添加条目，按 {@link ZipEntry#getMethod()} 决定存储（{@link ZipEntry#STORED}）或压缩（默认），
+	 * 按 {@link ZipEntry#getTime()} 设置修改时间；名称以 / 结尾时为目录，supplier 可以为 null
+	 *
+	 * @param entry    条目
+	 * @param supplier 内容，压缩前才打开，压缩后关闭
+	 * @throws IOException 写出之前的条目失败
+	 */
+	public void add(ZipEntry entry, StreamSupplier supplier) throws IOException {
+		if (closed) {
+			throw new IOException("ZIP 写入器已关闭");
+		}
+		if (discarded) {
+			throw new IOException("ZIP 写入器之前的条目写入失败");
+		}
+		while (pending.size() >= window) {
+			writeHead();
+		}
+		String name = entry.getName();
+		boolean directory = name.endsWith("/");
+		boolean stored = directory || entry.getMethod() == ZipEntry.STORED;
+		long time = entry.getTime() == -1 ? System.currentTimeMillis() : entry.getTime();
+		pending.add(executor.submit(() -> compress(name, directory ? null : supplier, stored, time)));
+		// 顺手写出已经完成的条目，尽早把数据交给输出流
+		while (!pending.isEmpty() && pending.peek().isDone()) {
+			writeHead();
+		}
+	}
+
+	/**
+	 * 写出所有条目和中央目录，关闭输出流；之前的条目已经写入失败时只关闭输出流
+	 *
+	 * @throws IOException 写出失败
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			while (!discarded && !pending.isEmpty()) {
+				writeHead();
+			}
+			if (!discarded) {
+				writeCentralDirectory();
+				out.flush();
+			}
+		} finally {
+			discard();
+			out.close();
+		}
+	}
+
+	private void writeHead() throws IOException {
+		Future<Compressed> future = pending.poll();
+		Compressed compressed;
+		try {
+			compressed = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("等待压缩时被中断");
+		} catch (ExecutionException | CancellationException e) {
+			discard();
+			Throwable cause = e.getCause() == null ? e : e.getCause();
+			throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+		}
+		try {
+			writeEntry(compressed);
+		} finally {
+			release(compressed.data);
+		}
+	}
+
+	/**
+	 * 出错或关闭时取消还在排队的条目，删除所有未写出条目的临时文件，不影响之后关闭输出流
+	 */
+	private void discard() {
+		discarded = true;
+		for (Future<Compressed> future : pending) {
+			future.cancel(true);
+		}
+		pending.clear();
+		// 取消不一定能停下正在压缩的条目，这里删除后压缩线程无法再写入，完成时也会自行删除
+		for (SpillBuffer buffer : buffers) {
+			release(buffer);
+		}
+		if (ownExecutor) {
+			executor.shutdownNow();
+		}
+	}
+
+	private void release(SpillBuffer buffer) {
+		buffer.delete();
+		buffers.remove(buffer);
+	}
+
+	private Compressed compress(String name, StreamSupplier supplier, boolean stored, long time) throws IOException {
+		if (discarded) {
+			throw new CancellationException("ZIP 写入器已出错");
+		}
+		CRC32 crc = new CRC32();
+		SpillBuffer data = new SpillBuffer(spillThreshold);
+		buffers.add(data);
+		long size = 0;
+		try {
+			if (supplier != null) {
+				byte[] buffer = new byte[BUFFER_SIZE];
+				try (InputStream in = supplier.get()) {
+					if (stored) {
+						int read;
+						while ((read = in.read(buffer)) != -1) {
+							crc.update(buffer, 0, read);
+							data.write(buffer, 0, read);
+							size += read;
+						}
+					} else {
+						size = deflate(in, buffer, crc, data);
+					}
+				}
+			}
+			return new Compressed(name, stored, time, crc.getValue(), size, data);
+		} catch (IOException | RuntimeException e) {
+			release(data);
+			throw e;
+		} finally {
+			if (discarded) {
+				release(data);
+			}
+		}
+	}
+
+	private long deflate(InputStream in, byte[] buffer, CRC32 crc, SpillBuffer data) throws IOException {
+		Deflater deflater = new Deflater(level, true);
+		byte[] output = new byte[BUFFER_SIZE];
+		long size = 0;
+		try {
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+				size += read;
+				deflater.setInput(buffer, 0, read);
+				while (!deflater.needsInput()) {
+					data.write(output, 0, deflater.deflate(output));
+				}
+			}
+			deflater.finish();
+			while (!deflater.finished()) {
+				data.write(output, 0, deflater.deflate(output));
+			}
+			return size;
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private void writeEntry(Compressed entry) throws IOException {
+		long offset = out.count;
+		byte[] name = entry.name.getBytes(StandardCharsets.UTF_8);
+		long compressedSize = entry.data.size();
+		boolean zip64 = entry.size >= ZIP64_MAGIC || compressedSize >= ZIP64_MAGIC;
+		int dosTime = dosTime(entry.time);
+
+		writeInt(0x04034b50);
+		writeShort(zip64 ? VERSION_ZIP64 : VERSION_DEFAULT);
+		writeShort(FLAG_UTF8);
+		writeShort(entry.stored ? ZipEntry.STORED : ZipEntry.DEFLATED);
+		writeInt(dosTime);
+		writeInt(entry.crc);
+		writeInt(zip64 ? ZIP64_MAGIC : compressedSize);
+		writeInt(zip64 ? ZIP64_MAGIC : entry.size);
+		writeShort(name.length);
+		writeShort(zip64 ? 20 : 0);
+		out.write(name);
+		if (zip64) {
+			// 本地文件头的 Zip64 扩展字段必须同时包含原始大小和压缩后大小
+			writeShort(0x0001);
+			writeShort(16);
+			writeLong(entry.size);
+			writeLong(compressedSize);
+		}
+		entry.data.writeTo(out);
+		central.add(new CentralEntry(name, entry.stored, dosTime, entry.crc, entry.size, compressedSize, offset));
+	}
+
+	private void writeCentralDirectory() throws IOException {
+		long start = out.count;
+		for (CentralEntry entry : central) {
+			boolean sizeOverflow = entry.size >= ZIP64_MAGIC;
+			boolean compressedOverflow = entry.compressedSize >= ZIP64_MAGIC;
+			boolean offsetOverflow = entry.offset >= ZIP64_MAGIC;
+			int extra = (sizeOverflow ? 8 : 0) + (compressedOverflow ? 8 : 0) + (offsetOverflow ? 8 : 0);
+			boolean zip64 = extra > 0;
+
+			writeInt(0x02014b50);
+			writeShort(VERSION_ZIP64);
+			writeShort(zip64 ? VERSION_ZIP64 : VERSION_DEFAULT);
+			writeShort(FLAG_UTF8);
+			writeShort(entry.stored ? ZipEntry.STORED : ZipEntry.DEFLATED);
+			writeInt(entry.dosTime);
+			writeInt(entry.crc);
+			writeInt(compressedOverflow ? ZIP64_MAGIC : entry.compressedSize);
+			writeInt(sizeOverflow ? ZIP64_MAGIC : entry.size);
+			writeShort(entry.name.length);
+			writeShort(zip64 ? extra + 4 : 0);
+			// 注释长度、起始磁盘、内部属性
+			writeShort(0);
+			writeShort(0);
+			writeShort(0);
+			// 外部属性：目录标记
+			writeInt(entry.name.length > 0 && entry.name[entry.name.length - 1] == '/' ? 0x10 : 0);
+			writeInt(offsetOverflow ? ZIP64_MAGIC : entry.offset);
+			out.write(entry.name);
+			if (zip64) {
+				writeShort(0x0001);
+				writeShort(extra);
+				if (sizeOverflow) {
+					writeLong(entry.size);
+				}
+				if (compressedOverflow) {
+					writeLong(entry.compressedSize);
+				}
+				if (offsetOverflow) {
+					writeLong(entry.offset);
+				}
+			}
+		}
+		long end = out.count;
+		long size = end - start;
+		int count = central.size();
+		if (count >= ZIP64_MAGIC_COUNT || size >= ZIP64_MAGIC || start >= ZIP64_MAGIC) {
+			// Zip64 中央目录结束记录
+			writeInt(0x06064b50);
+			writeLong(44);
+			writeShort(VERSION_ZIP64);
+			writeShort(VERSION_ZIP64);
+			writeInt(0);
+			writeInt(0);
+			writeLong(count);
+			writeLong(count);
+			writeLong(size);
+			writeLong(start);
+			// Zip64 中央目录结束记录定位器
+			writeInt(0x07064b50);
+			writeInt(0);
+			writeLong(end);
+			writeInt(1);
+		}
+		writeInt(0x06054b50);
+		writeShort(0);
+		writeShort(0);
+		writeShort(Math.min(count, ZIP64_MAGIC_COUNT));
+		writeShort(Math.min(count, ZIP64_MAGIC_COUNT));
+		writeInt(Math.min(size, ZIP64_MAGIC));
+		writeInt(Math.min(start, ZIP64_MAGIC));
+		writeShort(0);
+	}
+
+	private static int dosTime(long time) {
+		LocalDateTime date = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+		if (date.getYear() < 1980) {
+			return (1 << 21) | (1 << 16);
+		}
+		return (date.getYear() - 1980) << 25 | date.getMonthValue() << 21 | date.getDayOfMonth() << 16
+			| date.getHour() << 11 | date.getMinute() << 5 | date.getSecond() >> 1;
+	}
+
+	private void writeShort(int value) throws IOException {
+		out.write(value & 0xff);
+		out.write((value >>> 8) & 0xff);
+	}
+
+	private void writeInt(long value) throws IOException {
+		writeShort((int) (value & 0xffff));
+		writeShort((int) ((value >>> 16) & 0xffff));
+	}
+
+	private void writeLong(long value) throws IOException {
+		writeInt(value & 0xffffffffL);
+		writeInt(value >>> 32);
+	}
+
+	/**
+	 * 按需打开的条目内容
+	 */
+	@FunctionalInterface
+	public interface StreamSupplier {
+
+		/**
+		 * 打开内容流
+		 *
+		 * @return {@link InputStream}
+		 * @throws IOException 打开失败
+		 */
+		InputStream get() throws IOException;
+	}
+
+	private static class Compressed {
+
+		private final String name;
+
+		private final boolean stored;
+
+		private final long time;
+
+		private final long crc;
+
+		private final long size;
+
+		private final SpillBuffer data;
+
+		Compressed(String name, boolean stored, long time, long crc, long size, SpillBuffer data) {
+			this.name = name;
+			this.stored = stored;
+			this.time = time;
+			this.crc = crc;
+			this.size = size;
+			this.data = data;
+		}
+	}
+
+	private static class CentralEntry {
+
+		private final byte[] name;
+
+		private final boolean stored;
+
+		private final int dosTime;
+
+		private final long crc;
+
+		private final long size;
+
+		private final long compressedSize;
+
+		private final long offset;
+
+		CentralEntry(byte[] name, boolean stored, int dosTime, long crc, long size, long compressedSize, long offset) {
+			this.name = name;
+			this.stored = stored;
+			this.dosTime = dosTime;
+			this.crc = crc;
+			this.size = size;
+			this.compressedSize = compressedSize;
+			this.offset = offset;
+		}
+	}
+
+	/**
+	 * 超过阈值后转存到临时文件的缓冲区，删除后不能再写入
+	 */
+	private static class SpillBuffer extends OutputStream {
+
+		private final int threshold;
+
+		private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+
+		private Path file;
+
+		private OutputStream fileOut;
+
+		private long size;
+
+		private boolean deleted;
+
+		SpillBuffer(int threshold) {
+			this.threshold = threshold;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) throws IOException {
+			if (deleted) {
+				throw new IOException("压缩结果已丢弃");
+			}
+			if (len == 0) {
+				return;
+			}
+			if (fileOut == null && memory.size() + len > threshold) {
+				file = Files.createTempFile("gear4j-zip-", ".tmp");
+				fileOut = Files.newOutputStream(file);
+				memory.writeTo(fileOut);
+				memory = null;
+			}
+			if (fileOut != null) {
+				fileOut.write(b, off, len);
+			} else {
+				memory.write(b, off, len);
+			}
+			size += len;
+		}
+
+		long size() {
+			return size;
+		}
+
+		synchronized void writeTo(OutputStream target) throws IOException {
+			if (fileOut == null) {
+				memory.writeTo(target);
+				return;
+			}
+			fileOut.close();
+			Files.copy(file, target);
+		}
+
+		synchronized void delete() {
+			deleted = true;
+			memory = null;
+			if (file != null) {
+				try {
+					fileOut.close();
+					Files.deleteIfExists(file);
+				} catch (IOException ignored) {
+					// 临时文件删除失败不影响结果
+				}
+			}
+		}
+	}
+
+	/**
+	 * 记录已写出字节数，用于计算条目偏移
+	 */
+	private static class CountingOutputStream extends OutputStream {
+
+		private final OutputStream out;
+
+		private long count;
+
+		CountingOutputStream(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+}
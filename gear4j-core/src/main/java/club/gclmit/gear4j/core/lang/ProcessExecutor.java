@@ -0,0 +1,339 @@
+package club.gclmit.gear4j.core.lang;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 异步进程执行器
+ * <p>
+ * 同时运行的进程数不超过 {@code maxProcesses}，多出的命令排队等待。每个进程的 stdout、stderr 由独立的读取线程并发读取，
+ * 输出再多也不会因为管道缓冲区写满而阻塞；可以按行回调实时处理输出，不传回调时原始字节收集到 {@link Result} 中。
+ * 超时或取消 {@link CompletableFuture} 时强制结束进程及其所有子进程。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/31 10:20
+ * @since jdk11
+ */
+public class ProcessExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProcessExecutor.class);
+
+	/**
+	 * 默认同时运行的进程数
+	 */
+	public static final int DEFAULT_MAX_PROCESSES = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * 进程结束后等待读取线程读完剩余输出的时间（毫秒），后台子进程仍持有管道时不再等待
+	 */
+	private static final long DRAIN_MILLIS = 5000;
+
+	private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+	private final ExecutorService executor;
+
+	private final ExecutorService readers;
+
+	private final Duration timeout;
+
+	private final Charset charset;
+
+	/**
+	 * @param maxProcesses 同时运行的进程数
+	 * @param timeout      默认超时时间，{@link Duration#ZERO} 表示不超时
+	 * @param charset      输出编码
+	 */
+	public ProcessExecutor(int maxProcesses, Duration timeout, Charset charset) {
+		this.executor = new ThreadPoolExecutor(maxProcesses, maxProcesses, 60, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), daemon("gear4j-process-"));
+		((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+		this.readers = Executors.newCachedThreadPool(daemon("gear4j-process-reader-"));
+		this.timeout = timeout;
+		this.charset = charset;
+	}
+
+	/**
+	 * 默认执行器：{@link #DEFAULT_MAX_PROCESSES} 个并发进程，不超时，UTF-8 输出
+	 *
+	 * @return {@link ProcessExecutor}
+	 */
+	public static ProcessExecutor getInstance() {
+		return ProcessExecutorHolder.INSTANCE;
+	}
+
+	/**
+	 * 执行命令，使用默认超时时间，输出收集到结果中
+	 *
+	 * @param command 命令及参数
+	 * @return 执行结果
+	 */
+	public CompletableFuture<Result> execute(List<String> command) {
+		return execute(command, timeout, null, null);
+	}
+
+	/**
+	 * 执行命令
+	 *
+	 * @param command 命令及参数
+	 * @param timeout 超时时间，{@link Duration#ZERO} 表示不超时
+	 * @param stdout  stdout 行回调，为 null 时原样收集到 {@link Result#getStdoutBytes()}
+	 * @param stderr  stderr 行回调，为 null 时原样收集到 {@link Result#getStderrBytes()}
+	 * @return 执行结果，进程无法启动时异常完成；超时时正常完成，{@link Result#isTimedOut()} 为 true
+	 */
+	public CompletableFuture<Result> execute(List<String> command, Duration timeout, Consumer<String> stdout,
+		Consumer<String> stderr) {
+		Task task = new Task(List.copyOf(command), timeout, stdout, stderr);
+		task.result.whenComplete((result, e) -> {
+			Process process = task.process;
+			if (task.result.isCancelled() && process != null) {
+				destroyTree(process);
+			}
+		});
+		executor.execute(task);
+		return task.result;
+	}
+
+	/**
+	 * 关闭执行器，强制结束正在运行的进程
+	 */
+	public void shutdown() {
+		for (Runnable queued : executor.shutdownNow()) {
+			((Task) queued).result.cancel(false);
+		}
+		readers.shutdownNow();
+	}
+
+	private static ThreadFactory daemon(String prefix) {
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + THREAD_ID.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * 先结束子孙进程再结束进程本身，避免子进程被托管给 init 后继续持有输出管道
+	 */
+	static void destroyTree(Process process) {
+		process.descendants().forEach(ProcessHandle::destroyForcibly);
+		process.destroyForcibly();
+	}
+
+	private class Task implements Runnable {
+
+		private final List<String> command;
+
+		private final Duration timeout;
+
+		private final Consumer<String> stdout;
+
+		private final Consumer<String> stderr;
+
+		private final CompletableFuture<Result> result = new CompletableFuture<>();
+
+		private volatile Process process;
+
+		Task(List<String> command, Duration timeout, Consumer<String> stdout, Consumer<String> stderr) {
+			this.command = command;
+			this.timeout = timeout;
+			this.stdout = stdout;
+			this.stderr = stderr;
+		}
+
+		@Override
+		public void run() {
+			if (result.isDone()) {
+				return;
+			}
+			long start = System.nanoTime();
+			Process process;
+			try {
+				process = new ProcessBuilder(command).start();
+				process.getOutputStream().close();
+			} catch (IOException e) {
+				result.completeExceptionally(e);
+				return;
+			}
+			this.process = process;
+			if (result.isCancelled()) {
+				destroyTree(process);
+			}
+			ByteArrayOutputStream out = stdout == null ? new ByteArrayOutputStream() : null;
+			ByteArrayOutputStream err = stderr == null ? new ByteArrayOutputStream() : null;
+			Future<?> outReader = readers.submit(() -> drain(process.getInputStream(), stdout, out));
+			Future<?> errReader = readers.submit(() -> drain(process.getErrorStream(), stderr, err));
+			boolean timedOut = false;
+			try {
+				if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+					process.waitFor();
+				} else if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+					timedOut = true;
+					destroyTree(process);
+					process.waitFor();
+				}
+				await(outReader);
+				await(errReader);
+				int exitCode = timedOut ? -1 : process.exitValue();
+				long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				result.complete(new Result(command, exitCode, bytes(out), bytes(err), charset, millis, timedOut));
+			} catch (InterruptedException e) {
+				// 关闭执行器
+				destroyTree(process);
+				outReader.cancel(true);
+				errReader.cancel(true);
+				result.cancel(false);
+			}
+		}
+
+		private void await(Future<?> reader) throws InterruptedException {
+			try {
+				reader.get(DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (ExecutionException | TimeoutException e) {
+				reader.cancel(true);
+				logger.warn("读取进程输出失败: {}", command, e);
+			}
+		}
+
+		private byte[] bytes(ByteArrayOutputStream buffer) {
+			return buffer == null ? new byte[0] : buffer.toByteArray();
+		}
+
+		private void drain(InputStream stream, Consumer<String> consumer, ByteArrayOutputStream buffer) {
+			if (consumer == null) {
+				// 没有回调时不按行拆分，保留换行符和二进制输出
+				try (stream) {
+					stream.transferTo(buffer);
+				} catch (IOException e) {
+					logger.debug("进程输出已关闭: {}", command);
+				}
+				return;
+			}
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, charset))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					try {
+						consumer.accept(line);
+					} catch (RuntimeException e) {
+						// 回调出错也要继续读取，否则进程会阻塞在写管道上
+						logger.warn("处理进程输出失败: {}", command, e);
+					}
+				}
+			} catch (IOException e) {
+				// 进程被强制结束时管道关闭
+				logger.debug("进程输出已关闭: {}", command);
+			}
+		}
+	}
+
+	/**
+	 * 执行结果
+	 */
+	public static class Result {
+
+		private final List<String> command;
+
+		private final int exitCode;
+
+		private final byte[] stdout;
+
+		private final byte[] stderr;
+
+		private final Charset charset;
+
+		private final long durationMillis;
+
+		private final boolean timedOut;
+
+		Result(List<String> command, int exitCode, byte[] stdout, byte[] stderr, Charset charset, long durationMillis,
+			boolean timedOut) {
+			this.command = command;
+			this.exitCode = exitCode;
+			this.stdout = stdout;
+			this.stderr = stderr;
+			this.charset = charset;
+			this.durationMillis = durationMillis;
+			this.timedOut = timedOut;
+		}
+
+		public List<String> getCommand() {
+			return command;
+		}
+
+		/**
+		 * @return 退出码，超时为 -1
+		 */
+		public int getExitCode() {
+			return exitCode;
+		}
+
+		/**
+		 * @return 按执行器编码解码的 stdout，传入行回调时为空字符串
+		 */
+		public String getStdout() {
+			return new String(stdout, charset);
+		}
+
+		/**
+		 * @return 原始 stdout，传入行回调时为空数组
+		 */
+		public byte[] getStdoutBytes() {
+			return stdout.clone();
+		}
+
+		/**
+		 * @return 按执行器编码解码的 stderr，传入行回调时为空字符串
+		 */
+		public String getStderr() {
+			return new String(stderr, charset);
+		}
+
+		/**
+		 * @return 原始 stderr，传入行回调时为空数组
+		 */
+		public byte[] getStderrBytes() {
+			return stderr.clone();
+		}
+
+		public long getDurationMillis() {
+			return durationMillis;
+		}
+
+		public boolean isTimedOut() {
+			return timedOut;
+		}
+
+		/**
+		 * @return 未超时且退出码为 0
+		 */
+		public boolean isSuccess() {
+			return !timedOut && exitCode == 0;
+		}
+	}
+
+	private static class ProcessExecutorHolder {
+		private static final ProcessExecutor INSTANCE = new ProcessExecutor(DEFAULT_MAX_PROCESSES, Duration.ZERO,
+			StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,86 @@
+package club.gclmit.gear4j.core.lang;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 分块树形摘要结果
+ * <p>
+ * 文件按固定大小切块，每块的摘要就是该块内容的普通摘要，可以直接作为分片上传的分片校验值；
+ * 叶子节点为 {@code H(0x00 || 块摘要)}，中间节点为 {@code H(0x01 || 左 || 右)}，
+ * 按 RFC 6962 的方式在不超过块数的最大 2 的幂处划分左右子树。同样的算法和块大小对同一内容总是得到同一个根摘要。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/29 14:20
+ * @since jdk11
+ */
+public class TreeHash {
+
+	private final DigestType type;
+
+	private final long chunkSize;
+
+	private final long length;
+
+	private final String root;
+
+	private final List<String> chunkDigests;
+
+	public TreeHash(DigestType type, long chunkSize, long length, String root, List<String> chunkDigests) {
+		this.type = type;
+		this.chunkSize = chunkSize;
+		this.length = length;
+		this.root = root;
+		this.chunkDigests = Collections.unmodifiableList(chunkDigests);
+	}
+
+	/**
+	 * 摘要算法
+	 *
+	 * @return {@link DigestType}
+	 */
+	public DigestType getType() {
+		return type;
+	}
+
+	/**
+	 * 块大小
+	 *
+	 * @return long
+	 */
+	public long getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * 文件长度
+	 *
+	 * @return long
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * 16进制根摘要
+	 *
+	 * @return {@link String}
+	 */
+	public String getRoot() {
+		return root;
+	}
+
+	/**
+	 * 按顺序排列的每块的 16进制摘要
+	 *
+	 * @return {@link List}
+	 */
+	public List<String> getChunkDigests() {
+		return chunkDigests;
+	}
+
+	@Override
+	public String toString() {
+		return type + ":" + chunkSize + ":" + root;
+	}
+}
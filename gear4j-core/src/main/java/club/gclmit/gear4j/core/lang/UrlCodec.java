@@ -0,0 +1,330 @@
+package club.gclmit.gear4j.core.lang;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 查表实现的 URL 编解码，规则与 {@link java.net.URLEncoder}、{@link java.net.URLDecoder} 相同（application/x-www-form-urlencoded）
+ * <p>
+ * 字符分类、十六进制转换全部查静态表，单次遍历完成；不需要编码或解码时直接返回原字符串，不分配任何对象。
+ * 带 {@link StringBuilder} 参数的重载把结果追加到调用方的缓冲区，批量处理时可以复用同一个缓冲区。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/31 15:40
+ * @since jdk11
+ */
+public final class UrlCodec {
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	/**
+	 * 编码时原样保留的字符：0-9a-zA-Z - _ . *
+	 */
+	private static final boolean[] UNRESERVED = new boolean[128];
+
+	/**
+	 * 已编码字符串中可以出现的字符：{@link #UNRESERVED} 加上表示空格的 +
+	 */
+	private static final boolean[] ENCODED = new boolean[128];
+
+	/**
+	 * 十六进制字符对应的数值，非十六进制字符为 -1
+	 */
+	private static final byte[] HEX_VALUE = new byte[128];
+
+	static {
+		for (int c = 'a'; c <= 'z'; c++) {
+			UNRESERVED[c] = true;
+		}
+		for (int c = 'A'; c <= 'Z'; c++) {
+			UNRESERVED[c] = true;
+		}
+		for (int c = '0'; c <= '9'; c++) {
+			UNRESERVED[c] = true;
+		}
+		for (char c : "-_.*".toCharArray()) {
+			UNRESERVED[c] = true;
+		}
+		System.arraycopy(UNRESERVED, 0, ENCODED, 0, UNRESERVED.length);
+		ENCODED['+'] = true;
+
+		Arrays.fill(HEX_VALUE, (byte) -1);
+		for (int i = 0; i < 16; i++) {
+			HEX_VALUE[HEX[i]] = (byte) i;
+			HEX_VALUE[Character.toLowerCase(HEX[i])] = (byte) i;
+		}
+	}
+
+	private UrlCodec() {
+	}
+
+	/**
+	 * 判断字符串是否已经编码：只包含 0-9a-zA-Z - _ . * + 和 %XX（X 为大写十六进制）
+	 *
+	 * @param str 字符串
+	 * @return 符合编码规范返回 true
+	 */
+	public static boolean isEncoded(CharSequence str) {
+		int length = str.length();
+		for (int i = 0; i < length; i++) {
+			char c = str.charAt(i);
+			if (c < 128 && ENCODED[c]) {
+				continue;
+			}
+			if (c == '%' && i + 2 < length && isUpperHex(str.charAt(i + 1)) && isUpperHex(str.charAt(i + 2))) {
+				i += 2;
+				continue;
+			}
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * 使用 UTF-8 编码
+	 *
+	 * @param str 字符串
+	 * @return 编码结果，不需要编码时返回原字符串
+	 */
+	public static String encode(String str) {
+		return encode(str, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * 编码
+	 *
+	 * @param str     字符串
+	 * @param charset 编码
+	 * @return 编码结果，不需要编码时返回原字符串
+	 */
+	public static String encode(String str, Charset charset) {
+		int start = firstToEncode(str);
+		if (start == str.length()) {
+			return str;
+		}
+		StringBuilder out = new StringBuilder(str.length() + 16);
+		out.append(str, 0, start);
+		encode(str, start, charset, out);
+		return out.toString();
+	}
+
+	/**
+	 * 编码并追加到缓冲区
+	 *
+	 * @param str     字符串
+	 * @param charset 编码
+	 * @param out     输出缓冲区
+	 * @return out
+	 */
+	public static StringBuilder encode(CharSequence str, Charset charset, StringBuilder out) {
+		int start = firstToEncode(str);
+		out.append(str, 0, start);
+		if (start < str.length()) {
+			encode(str, start, charset, out);
+		}
+		return out;
+	}
+
+	/**
+	 * 使用 UTF-8 解码
+	 *
+	 * @param str 字符串
+	 * @return 解码结果，不包含 % 和 + 时返回原字符串
+	 */
+	public static String decode(String str) {
+		return decode(str, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * 解码，+ 解码为空格；不符合 %XX 格式的 % 原样保留
+	 *
+	 * @param str     字符串
+	 * @param charset 编码
+	 * @return 解码结果，不包含 % 和 + 时返回原字符串
+	 */
+	public static String decode(String str, Charset charset) {
+		int start = firstToDecode(str);
+		if (start == str.length()) {
+			return str;
+		}
+		StringBuilder out = new StringBuilder(str.length());
+		out.append(str, 0, start);
+		decode(str, start, charset, out);
+		return out.toString();
+	}
+
+	/**
+	 * 解码并追加到缓冲区
+	 *
+	 * @param str     字符串
+	 * @param charset 编码
+	 * @param out     输出缓冲区
+	 * @return out
+	 */
+	public static StringBuilder decode(CharSequence str, Charset charset, StringBuilder out) {
+		int start = firstToDecode(str);
+		out.append(str, 0, start);
+		if (start < str.length()) {
+			decode(str, start, charset, out);
+		}
+		return out;
+	}
+
+	private static int firstToEncode(CharSequence str) {
+		int length = str.length();
+		int i = 0;
+		while (i < length) {
+			if (needEncode(str.charAt(i))) {
+				break;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private static int firstToDecode(CharSequence str) {
+		int length = str.length();
+		int i = 0;
+		while (i < length) {
+			char c = str.charAt(i);
+			if (c == '%' || c == '+') {
+				break;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private static void encode(CharSequence str, int start, Charset charset, StringBuilder out) {
+		boolean utf8 = StandardCharsets.UTF_8.equals(charset);
+		int length = str.length();
+		int i = start;
+		while (i < length) {
+			char c = str.charAt(i);
+			if (!needEncode(c)) {
+				// 整段复制不需要编码的字符
+				int run = i;
+				while (i < length && !needEncode(str.charAt(i))) {
+					i++;
+				}
+				out.append(str, run, i);
+			} else if (c == ' ') {
+				out.append('+');
+				i++;
+			} else if (utf8) {
+				i = encodeUtf8(str, i, out);
+			} else {
+				// 其他编码按连续的待编码字符整段转换
+				int end = i + 1;
+				while (end < length && needEncode(str.charAt(end)) && str.charAt(end) != ' ') {
+					end++;
+				}
+				for (byte b : str.subSequence(i, end).toString().getBytes(charset)) {
+					appendHex(b, out);
+				}
+				i = end;
+			}
+		}
+	}
+
+	/**
+	 * 直接按码点写出 UTF-8 字节，不经过 {@link String#getBytes}；孤立的代理字符与 {@link String#getBytes} 一样替换为 ?
+	 *
+	 * @return 下一个字符的位置
+	 */
+	private static int encodeUtf8(CharSequence str, int i, StringBuilder out) {
+		char c = str.charAt(i);
+		if (c < 0x80) {
+			appendHex(c, out);
+		} else if (c < 0x800) {
+			appendHex(0xC0 | (c >> 6), out);
+			appendHex(0x80 | (c & 0x3F), out);
+		} else if (Character.isHighSurrogate(c) && i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))) {
+			int codePoint = Character.toCodePoint(c, str.charAt(i + 1));
+			appendHex(0xF0 | (codePoint >> 18), out);
+			appendHex(0x80 | ((codePoint >> 12) & 0x3F), out);
+			appendHex(0x80 | ((codePoint >> 6) & 0x3F), out);
+			appendHex(0x80 | (codePoint & 0x3F), out);
+			return i + 2;
+		} else if (Character.isSurrogate(c)) {
+			appendHex('?', out);
+		} else {
+			appendHex(0xE0 | (c >> 12), out);
+			appendHex(0x80 | ((c >> 6) & 0x3F), out);
+			appendHex(0x80 | (c & 0x3F), out);
+		}
+		return i + 1;
+	}
+
+	private static void appendHex(int b, StringBuilder out) {
+		out.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+	}
+
+	private static void decode(CharSequence str, int start, Charset charset, StringBuilder out) {
+		int length = str.length();
+		boolean ascii = StandardCharsets.UTF_8.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset)
+			|| StandardCharsets.US_ASCII.equals(charset);
+		byte[] bytes = null;
+		int i = start;
+		while (i < length) {
+			// 整段复制不需要解码的字符
+			int run = i;
+			while (i < length && str.charAt(i) != '%' && str.charAt(i) != '+') {
+				i++;
+			}
+			out.append(str, run, i);
+			if (i == length) {
+				break;
+			}
+			if (str.charAt(i) == '+') {
+				out.append(' ');
+				i++;
+				continue;
+			}
+			int value = hexValue(str, i);
+			if (value < 0) {
+				out.append('%');
+				i++;
+			} else if (ascii && value < 0x80) {
+				// ASCII 字节不会出现在多字节字符中间，可以单独解码
+				out.append((char) value);
+				i += 3;
+			} else {
+				// 连续的 %XX 一起转换，保证多字节字符完整
+				if (bytes == null) {
+					bytes = new byte[(length - i) / 3];
+				}
+				int count = 0;
+				while (i < length && str.charAt(i) == '%' && (value = hexValue(str, i)) >= 0) {
+					bytes[count++] = (byte) value;
+					i += 3;
+				}
+				out.append(new String(bytes, 0, count, charset));
+			}
+		}
+	}
+
+	/**
+	 * @return i 处 %XX 的字节值，格式不正确时返回 -1
+	 */
+	private static int hexValue(CharSequence str, int i) {
+		if (i + 2 >= str.length()) {
+			return -1;
+		}
+		char h = str.charAt(i + 1);
+		char l = str.charAt(i + 2);
+		if (h >= 128 || l >= 128 || HEX_VALUE[h] < 0 || HEX_VALUE[l] < 0) {
+			return -1;
+		}
+		return HEX_VALUE[h] << 4 | HEX_VALUE[l];
+	}
+
+	private static boolean needEncode(char c) {
+		return c >= 128 || !UNRESERVED[c];
+	}
+
+	private static boolean isUpperHex(char c) {
+		return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F');
+	}
+}
@@ -1,7 +1,5 @@
 package club.gclmit.gear4j.core.utils;
 
-import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -9,8 +7,7 @@ import org.springframework.cglib.beans.BeanMap;
 
 import com.tuyang.beanutils.BeanCopyUtils;
 
-import club.gclmit.gear4j.core.exception.Gear4jException;
-import cn.hutool.core.util.ReflectUtil;
+import club.gclmit.gear4j.core.beans.BeanBinder;
 
 /**
  * Bean Copy Utils
@@ -41,7 +38,7 @@ public class BeanUtils extends BeanCopyUtils {
 	}
 
 	/**
-	 * 将map集合中的数据转化为指定对象的同名属性中
+	 * 将map集合中的数据转化为指定对象的同名属性中，字段绑定计划按类缓存，见 {@link BeanBinder}
 	 *
 	 * @param map   待转换的Map
 	 * @param clazz 生成的Object
@@ -51,25 +48,6 @@ public class BeanUtils extends BeanCopyUtils {
 		if (map == null) {
 			return null;
 		}
-
-		T obj = ReflectUtil.newInstance(clazz);
-		Field[] fields = ReflectUtil.getFields(clazz);
-
-		for (Field field : fields) {
-			field.setAccessible(true);
-			String name = field.getName();
-			if (map.containsKey(name)) {
-				Object value = map.get(name);
-				if (ArrayUtils.isArray(value)) {
-					if (Array.getLength(value) > 1) {
-                        throw new Gear4jException("不支持数组参数");
-					}
-					value = Array.get(value, 0);
-				}
-				field.set(obj, ConvertUtils.convert(value, field.getType()));
-			}
-			field.setAccessible(true);
-		}
-		return obj;
+		return BeanBinder.of(clazz).bind(map);
 	}
 }
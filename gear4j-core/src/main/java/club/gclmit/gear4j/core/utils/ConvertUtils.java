@@ -204,6 +204,9 @@
 
 package club.gclmit.gear4j.core.utils;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.lang.Nullable;
@@ -216,9 +219,19 @@ import club.gclmit.gear4j.core.beans.ChaosConversionService;
  * @author gclm
  * @since jdk11
  */
-@SuppressWarnings("unchecked")
+@SuppressWarnings({"unchecked", "rawtypes"})
 public class ConvertUtils {
 
+	/**
+	 * 快速路径未处理时的返回标记
+	 */
+	private static final Object UNHANDLED = new Object();
+
+	/**
+	 * ISO 日期 yyyy-MM-dd 的长度
+	 */
+	private static final int ISO_DATE_LENGTH = 10;
+
 	/**
 	 * Convenience operation for converting a source object to the specified targetType.
 	 * {@link TypeDescriptor#forObject(Object)}.
@@ -238,8 +251,13 @@ public class ConvertUtils {
 		if (ClassUtils.isAssignableValue(targetType, source)) {
 			return (T) source;
 		}
-		GenericConversionService conversionService = ChaosConversionService.getInstance();
-		return conversionService.convert(source, targetType);
+		if (source instanceof String) {
+			Object value = fromString((String) source, targetType);
+			if (value != UNHANDLED) {
+				return (T) value;
+			}
+		}
+		return (T) ChaosConversionService.getInstance().resolve(source.getClass(), targetType).convert(source);
 	}
 
 	/**
@@ -287,4 +305,104 @@ public class ConvertUtils {
 		return (T) conversionService.convert(source, targetType);
 	}
 
+	/**
+	 * 请求参数常见类型的手写转换，结果与 spring 默认转换器一致；
+	 * 遇到十六进制数字、越界、非法值等情况返回 {@link #UNHANDLED}，交由通用流程处理（包括抛出相同的异常）。
+	 * <p>
+	 * 例外：spring 默认只按本地化短格式解析 {@link LocalDate}，这里额外支持请求参数中最常见的 ISO 格式 yyyy-MM-dd
+	 */
+	private static Object fromString(String source, Class<?> targetType) {
+		if (source.isEmpty()) {
+			// spring 对空字符串返回 null，基本类型由通用流程抛出异常
+			return targetType.isPrimitive() ? UNHANDLED : fromEmpty(targetType);
+		}
+		String text = source.trim();
+		if (text.isEmpty()) {
+			// 仅布尔和日期转换器把空白串视为 null
+			return targetType == Boolean.class || targetType == LocalDate.class ? null : UNHANDLED;
+		}
+		if (targetType == Integer.class || targetType == int.class) {
+			return isDecimal(text, 9) ? Integer.valueOf(text) : UNHANDLED;
+		}
+		if (targetType == Long.class || targetType == long.class) {
+			return isDecimal(text, 18) ? Long.valueOf(text) : UNHANDLED;
+		}
+		if (targetType == Boolean.class || targetType == boolean.class) {
+			return toBoolean(text);
+		}
+		if (targetType == BigDecimal.class) {
+			try {
+				return new BigDecimal(text);
+			} catch (NumberFormatException e) {
+				return UNHANDLED;
+			}
+		}
+		if (targetType == LocalDate.class) {
+			// 日期格式化器不会去除首尾空白
+			return source.length() == ISO_DATE_LENGTH && source.charAt(4) == '-' && source.charAt(7) == '-'
+				&& isDecimal(source.substring(0, 4), 4) ? parseIsoDate(source) : UNHANDLED;
+		}
+		if (targetType.isEnum()) {
+			try {
+				return Enum.valueOf((Class<Enum>) targetType, text);
+			} catch (IllegalArgumentException e) {
+				return UNHANDLED;
+			}
+		}
+		return UNHANDLED;
+	}
+
+	private static Object fromEmpty(Class<?> targetType) {
+		if (targetType == Integer.class || targetType == Long.class || targetType == Boolean.class
+			|| targetType == BigDecimal.class || targetType == LocalDate.class || targetType.isEnum()) {
+			return null;
+		}
+		return UNHANDLED;
+	}
+
+	/**
+	 * 可选正负号 + 不超过 maxDigits 位的十进制数字，保证解析不会越界
+	 */
+	private static boolean isDecimal(String text, int maxDigits) {
+		int start = text.charAt(0) == '-' || text.charAt(0) == '+' ? 1 : 0;
+		int digits = text.length() - start;
+		if (digits == 0 || digits > maxDigits) {
+			return false;
+		}
+		for (int i = start; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 与 StringToBooleanConverter 的取值一致
+	 */
+	private static Object toBoolean(String text) {
+		switch (text.toLowerCase()) {
+			case "true":
+			case "on":
+			case "yes":
+			case "1":
+				return Boolean.TRUE;
+			case "false":
+			case "off":
+			case "no":
+			case "0":
+				return Boolean.FALSE;
+			default:
+				return UNHANDLED;
+		}
+	}
+
+	private static Object parseIsoDate(String text) {
+		try {
+			return LocalDate.parse(text);
+		} catch (RuntimeException e) {
+			return UNHANDLED;
+		}
+	}
 }
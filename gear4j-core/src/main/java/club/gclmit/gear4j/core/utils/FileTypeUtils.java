@@ -204,16 +204,282 @@
 
 package club.gclmit.gear4j.core.utils;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import cn.hutool.core.io.FileTypeUtil;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IORuntimeException;
+import cn.hutool.core.util.HexUtil;
 
 /**
  * 文件类型工具类
+ * <p>
+ * 按文件头魔数识别类型。与 hutool 的 {@link FileTypeUtil} 使用同一份魔数表，但预先编译成字节前缀树，
+ * 只看开头 {@link #PEEK_SIZE} 个字节，一次遍历得到最长匹配。支持 mark 的流（如 {@link #peekable(InputStream)}
+ * 返回的流）识别后会回到开头，同一个流可以继续用于上传或保存。
  *
  * @author <a href="https://blog.gclmit.club">gclm</a>
  * @since jdk11
  */
 public class FileTypeUtils extends FileTypeUtil {
 
+	/**
+	 * 识别类型时最多读取的字节数
+	 */
+	public static final int PEEK_SIZE = 64;
+
+	/**
+	 * 魔数（16进制，奇数位时最后半个字节也参与匹配） -> 扩展名
+	 */
+	private static final Map<String, String> SIGNATURES = new ConcurrentHashMap<>();
+
+	private static volatile Node root;
+
+	static {
+		String[][] signatures = {
+			{"ffd8ff", "jpg"}, {"89504e47", "png"}, {"4749463837", "gif"}, {"4749463839", "gif"},
+			{"49492a00227105008037", "tif"}, {"424d228c010000000000", "bmp"}, {"424d8240090000000000", "bmp"},
+			{"424d8e1b030000000000", "bmp"}, {"41433130313500000000", "dwg"}, {"7b5c727466315c616e73", "rtf"},
+			{"38425053000100000000", "psd"}, {"46726f6d3a203d3f6762", "eml"}, {"5374616E64617264204A", "mdb"},
+			{"252150532D41646F6265", "ps"}, {"255044462d312e", "pdf"}, {"2e524d46000000120001", "rmvb"},
+			{"464c5601050000000900", "flv"}, {"0000001C66747970", "mp4"}, {"00000020667479706", "mp4"},
+			{"00000018667479706D70", "mp4"}, {"49443303000000002176", "mp3"}, {"000001ba210001000180", "mpg"},
+			{"3026b2758e66cf11a6d9", "wmv"}, {"52494646e27807005741", "wav"}, {"52494646d07d60074156", "avi"},
+			{"4d546864000000060001", "mid"}, {"526172211a0700cf9073", "rar"}, {"235468697320636f6e66", "ini"},
+			{"504B03040a0000000000", "jar"}, {"504B0304140008000800", "jar"}, {"d0cf11e0a1b11ae10", "xls"},
+			{"504B0304", "zip"}, {"4d5a9000030000000400", "exe"}, {"3c25402070616765206c", "jsp"},
+			{"4d616e69666573742d56", "mf"}, {"7061636b616765207765", "java"}, {"406563686f206f66660d", "bat"},
+			{"1f8b0800000000000000", "gz"}, {"cafebabe0000002e0041", "class"}, {"49545346030000006000", "chm"},
+			{"04000000010000001300", "mxp"}, {"6431303a637265617465", "torrent"}, {"6D6F6F76", "mov"},
+			{"FF575043", "wpd"}, {"CFAD12FEC5FD746F", "dbx"}, {"2142444E", "pst"}, {"AC9EBD8F", "qdf"},
+			{"E3828596", "pwl"}, {"2E7261FD", "ram"}, {"52494646", "webp"}};
+		for (String[] signature : signatures) {
+			SIGNATURES.put(signature[0].toLowerCase(), signature[1]);
+		}
+		root = compile(SIGNATURES);
+	}
+
 	private FileTypeUtils() {
 	}
+
+	/**
+	 * 增加魔数，同时注册到 hutool 的魔数表
+	 *
+	 * @param fileStreamHexHead 16进制魔数
+	 * @param extName           扩展名
+	 * @return 之前的扩展名
+	 */
+	public static synchronized String putFileType(String fileStreamHexHead, String extName) {
+		FileTypeUtil.putFileType(fileStreamHexHead, extName);
+		String previous = SIGNATURES.put(fileStreamHexHead.toLowerCase(), extName);
+		root = compile(SIGNATURES);
+		return previous;
+	}
+
+	/**
+	 * 移除魔数，同时从 hutool 的魔数表中移除
+	 *
+	 * @param fileStreamHexHead 16进制魔数
+	 * @return 移除的扩展名
+	 */
+	public static synchronized String removeFileType(String fileStreamHexHead) {
+		FileTypeUtil.removeFileType(fileStreamHexHead);
+		String previous = SIGNATURES.remove(fileStreamHexHead.toLowerCase());
+		root = compile(SIGNATURES);
+		return previous;
+	}
+
+	/**
+	 * 根据16进制文件头识别类型
+	 *
+	 * @param fileStreamHexHead 16进制文件头
+	 * @return 扩展名，无法识别时为 null
+	 */
+	public static String getType(String fileStreamHexHead) {
+		String hex = fileStreamHexHead.length() % 2 == 0 ? fileStreamHexHead : fileStreamHexHead + "0";
+		byte[] header = HexUtil.decodeHex(hex);
+		return getType(header, header.length);
+	}
+
+	/**
+	 * 根据文件头识别类型，返回最长匹配的魔数对应的扩展名
+	 *
+	 * @param header 文件头
+	 * @param length 文件头有效长度
+	 * @return 扩展名，无法识别时为 null
+	 */
+	public static String getType(byte[] header, int length) {
+		Node node = root;
+		String type = null;
+		for (int i = 0; i < length && node != null; i++) {
+			node = node.next(header[i] & 0xff);
+			if (node != null && node.type != null) {
+				type = node.type;
+			}
+		}
+		return type;
+	}
+
+	/**
+	 * 根据文件头识别类型，再结合文件名区分魔数相同的类型
+	 *
+	 * @param header   文件头
+	 * @param length   文件头有效长度
+	 * @param filename 文件名
+	 * @return 扩展名
+	 */
+	public static String getType(byte[] header, int length, String filename) {
+		return refine(getType(header, Math.min(length, PEEK_SIZE)), filename);
+	}
+
+	/**
+	 * 识别流的类型，流支持 mark 时读取后回到开头，否则会消耗开头的字节
+	 *
+	 * @param in 输入流
+	 * @return 扩展名，无法识别时为 null
+	 * @throws IORuntimeException 读取异常
+	 */
+	public static String getType(InputStream in) throws IORuntimeException {
+		try {
+			byte[] header = new byte[PEEK_SIZE];
+			boolean mark = in.markSupported();
+			if (mark) {
+				in.mark(PEEK_SIZE);
+			}
+			int length = in.readNBytes(header, 0, PEEK_SIZE);
+			if (mark) {
+				in.reset();
+			}
+			return getType(header, length);
+		} catch (IOException e) {
+			throw new IORuntimeException(e);
+		}
+	}
+
+	/**
+	 * 识别流的类型，压缩包和 Office 文档等魔数相同的类型再结合文件名区分，与 {@link FileTypeUtil} 的规则一致
+	 *
+	 * @param in       输入流
+	 * @param filename 文件名
+	 * @return 扩展名
+	 * @throws IORuntimeException 读取异常
+	 */
+	public static String getType(InputStream in, String filename) throws IORuntimeException {
+		return refine(getType(in), filename);
+	}
+
+	/**
+	 * 识别文件类型
+	 *
+	 * @param file 文件
+	 * @return 扩展名
+	 * @throws IORuntimeException 读取异常
+	 */
+	public static String getType(File file) throws IORuntimeException {
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			return getType(in, file.getName());
+		} catch (IOException e) {
+			throw new IORuntimeException(e);
+		}
+	}
+
+	/**
+	 * 包装成支持 mark 的流，识别类型后可以继续完整读取
+	 *
+	 * @param in 输入流
+	 * @return 支持 mark 的流
+	 */
+	public static InputStream peekable(InputStream in) {
+		return in.markSupported() ? in : new BufferedInputStream(in);
+	}
+
+	private static String refine(String type, String filename) {
+		if (type == null) {
+			return FileUtil.extName(filename);
+		}
+		String ext = FileUtil.extName(filename);
+		switch (type) {
+			case "xls":
+				return match(ext, type, "doc", "msi");
+			case "zip":
+				return match(ext, type, "docx", "xlsx", "pptx", "jar", "war", "ofd");
+			case "jar":
+				return match(ext, type, "xlsx", "docx", "pptx");
+			default:
+				return type;
+		}
+	}
+
+	private static String match(String ext, String type, String... candidates) {
+		for (String candidate : candidates) {
+			if (candidate.equalsIgnoreCase(ext)) {
+				return candidate;
+			}
+		}
+		return type;
+	}
+
+	/**
+	 * 编译字节前缀树，奇数位魔数的最后半个字节展开成 16 个子节点
+	 */
+	private static Node compile(Map<String, String> signatures) {
+		Node compiled = new Node();
+		for (Map.Entry<String, String> entry : signatures.entrySet()) {
+			String hex = entry.getKey();
+			Node node = compiled;
+			int bytes = hex.length() / 2;
+			for (int i = 0; i < bytes; i++) {
+				node = node.child(Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16));
+			}
+			if (hex.length() % 2 == 0) {
+				node.type = entry.getValue();
+			} else {
+				int high = Character.digit(hex.charAt(hex.length() - 1), 16) << 4;
+				for (int low = 0; low < 16; low++) {
+					node.child(high | low).type = entry.getValue();
+				}
+			}
+		}
+		return compiled;
+	}
+
+	/**
+	 * 前缀树节点，大多数节点只有一个子节点，用紧凑数组存储
+	 */
+	private static class Node {
+
+		private byte[] keys = new byte[0];
+
+		private Node[] children = new Node[0];
+
+		private String type;
+
+		Node next(int b) {
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i] == (byte) b) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		Node child(int b) {
+			Node child = next(b);
+			if (child == null) {
+				child = new Node();
+				keys = Arrays.copyOf(keys, keys.length + 1);
+				children = Arrays.copyOf(children, children.length + 1);
+				keys[keys.length - 1] = (byte) b;
+				children[children.length - 1] = child;
+			}
+			return child;
+		}
+	}
 }
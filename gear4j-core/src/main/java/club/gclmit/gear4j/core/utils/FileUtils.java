@@ -141,15 +141,28 @@
 package club.gclmit.gear4j.core.utils;
 
 import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.lang.DigestType;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.lang.Assert;
-import cn.hutool.crypto.SecureUtil;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.FilterReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
 
 /**
  * 文件辅助工具类
@@ -159,6 +172,8 @@ import java.io.InputStream;
  */
 public class FileUtils extends FileUtil {
 
+	private static final int BUFFER_SIZE = 8192;
+
 	private FileUtils() {
 	}
 
@@ -179,8 +194,12 @@ public class FileUtils extends FileUtil {
 	 * @return 如果文件相同返回 true,否则返回 false
 	 */
 	public static boolean checkFile(File file1, File file2) {
-		return SecureUtil.md5(file1).equals(SecureUtil.md5(file2))
-			&& SecureUtil.sha1(file1).equals(SecureUtil.sha1(file2));
+		// 大小不同的文件不可能相同，不用计算摘要
+		if (file1.length() != file2.length()) {
+			return false;
+		}
+		return SecureUtils.digest(file1, DigestType.MD5, DigestType.SHA1)
+			.equals(SecureUtils.digest(file2, DigestType.MD5, DigestType.SHA1));
 	}
 
 	/**
@@ -209,7 +228,105 @@ public class FileUtils extends FileUtil {
 	 * @return {@link String}
 	 */
 	public static String getContentTrim(File file) {
-		return getContent(file).replaceAll("\\s*", "");
+		Assert.isTrue(file.exists(), "文件不能为空");
+		return getContentTrim(file.toPath(), Charset.defaultCharset());
+	}
+
+	/**
+	 * 获取文件内容并去除全部空白字符（与正则 {@code \s} 相同），边读边过滤，不生成中间字符串
+	 *
+	 * @param path    文件
+	 * @param charset 编码
+	 * @return {@link String}
+	 */
+	public static String getContentTrim(Path path, Charset charset) {
+		StringBuilder content = new StringBuilder();
+		char[] buffer = new char[BUFFER_SIZE];
+		try (Reader reader = getTrimReader(path, charset)) {
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				content.append(buffer, 0, read);
+			}
+		} catch (IOException e) {
+			throw new Gear4jException("读取文件失败: " + path, e);
+		}
+		return content.toString();
+	}
+
+	/**
+	 * 读取时跳过全部空白字符（与正则 {@code \s} 相同）的 {@link Reader}
+	 *
+	 * @param path    文件
+	 * @param charset 编码
+	 * @return {@link Reader}，由调用方关闭
+	 */
+	public static Reader getTrimReader(Path path, Charset charset) {
+		try {
+			return new WhitespaceStrippingReader(Files.newBufferedReader(path, charset));
+		} catch (IOException e) {
+			throw new Gear4jException("读取文件失败: " + path, e);
+		}
+	}
+
+	/**
+	 * 按行懒加载读取文件，只在遍历时读取，内存中只保留当前行
+	 *
+	 * @param path    文件
+	 * @param charset 编码
+	 * @return {@link Stream}，需要在 try-with-resources 中使用以关闭文件
+	 */
+	public static Stream<String> lines(Path path, Charset charset) {
+		try {
+			return Files.lines(path, charset);
+		} catch (IOException e) {
+			throw new Gear4jException("读取文件失败: " + path, e);
+		}
+	}
+
+	/**
+	 * 只读内存映射文件，内容由操作系统按页加载，不占用堆内存
+	 *
+	 * @param path 文件，不能超过 2GB
+	 * @return {@link MappedByteBuffer}
+	 */
+	public static MappedByteBuffer map(Path path) {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new Gear4jException("文件超过 2GB，无法整体映射: " + path);
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		} catch (IOException e) {
+			throw new Gear4jException("映射文件失败: " + path, e);
+		}
+	}
+
+	/**
+	 * 以 {@link CharSequence} 形式读取内存映射文件，可以直接交给正则、解析器使用
+	 * <p>
+	 * US-ASCII、ISO-8859-1 等单字节编码直接在映射内存上取字符，不复制文件内容；其他编码一次性解码为 {@link java.nio.CharBuffer}
+	 *
+	 * @param path    文件，不能超过 2GB
+	 * @param charset 编码
+	 * @return {@link CharSequence}
+	 */
+	public static CharSequence mapContent(Path path, Charset charset) {
+		MappedByteBuffer buffer = map(path);
+		if (StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset)) {
+			return new ByteCharSequence(buffer, 0, buffer.limit());
+		}
+		try {
+			return charset.newDecoder().decode(buffer);
+		} catch (CharacterCodingException e) {
+			throw new Gear4jException("文件编码不是 " + charset + ": " + path, e);
+		}
+	}
+
+	/**
+	 * 与正则 {@code \s} 相同的空白字符：空格、\t、\n、\u000B、\f、\r
+	 */
+	private static boolean isWhitespace(int c) {
+		return c == ' ' || (c >= '\t' && c <= '\r');
 	}
 
 	/**
@@ -226,4 +343,104 @@ public class FileUtils extends FileUtil {
 			throw new Gear4jException("读取文件失败", e);
 		}
 	}
+
+	/**
+	 * 过滤空白字符的 {@link Reader}
+	 */
+	private static class WhitespaceStrippingReader extends FilterReader {
+
+		WhitespaceStrippingReader(Reader in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int c;
+			do {
+				c = in.read();
+			} while (c != -1 && isWhitespace(c));
+			return c;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			int read;
+			do {
+				read = in.read(cbuf, off, len);
+				if (read <= 0) {
+					return read;
+				}
+				// 原地压缩，整块都是空白时继续读取
+				int count = 0;
+				for (int i = off; i < off + read; i++) {
+					char c = cbuf[i];
+					if (!isWhitespace(c)) {
+						cbuf[off + count++] = c;
+					}
+				}
+				read = count;
+			} while (read == 0);
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = 0;
+			while (skipped < n && read() != -1) {
+				skipped++;
+			}
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+
+	/**
+	 * 单字节编码的内存映射字符视图
+	 */
+	private static class ByteCharSequence implements CharSequence {
+
+		private final ByteBuffer buffer;
+
+		private final int offset;
+
+		private final int length;
+
+		ByteCharSequence(ByteBuffer buffer, int offset, int length) {
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= length) {
+				throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+			}
+			return (char) (buffer.get(offset + index) & 0xff);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if (start < 0 || end > length || start > end) {
+				throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+			}
+			return new ByteCharSequence(buffer, offset + start, end - start);
+		}
+
+		@Override
+		public String toString() {
+			byte[] bytes = new byte[length];
+			buffer.duplicate().position(offset).get(bytes);
+			return new String(bytes, StandardCharsets.ISO_8859_1);
+		}
+	}
 }
@@ -1,5 +1,12 @@
 package club.gclmit.gear4j.core.utils;
 
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cn.hutool.core.io.FileUtil;
+
 /**
  * 文件类型封装
  *
@@ -8,4 +15,59 @@ package club.gclmit.gear4j.core.utils;
  * @since jdk11
  */
 public class MimeTypeUtils extends org.springframework.util.MimeTypeUtils {
+
+	/**
+	 * 最多缓存的扩展名数量，扩展名来自用户上传的文件名，需要限制
+	 */
+	private static final int MAX_CACHE_SIZE = 1024;
+
+	/**
+	 * 未知扩展名的占位
+	 */
+	private static final String UNKNOWN = "";
+
+	private static final Map<String, String> MIME_TYPES = new ConcurrentHashMap<>();
+
+	/**
+	 * 根据扩展名获取 MIME 类型，结果按扩展名缓存
+	 *
+	 * @param extName 扩展名，不含点，忽略大小写
+	 * @return MIME 类型，未知时为 {@link #APPLICATION_OCTET_STREAM_VALUE}
+	 */
+	public static String getMimeType(String extName) {
+		if (StringUtils.isBlank(extName)) {
+			return APPLICATION_OCTET_STREAM_VALUE;
+		}
+		String ext = extName.toLowerCase(Locale.ROOT);
+		String mimeType = MIME_TYPES.get(ext);
+		if (mimeType == null) {
+			String resolved = FileUtil.getMimeType("file." + ext);
+			mimeType = resolved == null ? UNKNOWN : resolved;
+			if (MIME_TYPES.size() < MAX_CACHE_SIZE) {
+				MIME_TYPES.put(ext, mimeType);
+			}
+		}
+		return mimeType.isEmpty() ? APPLICATION_OCTET_STREAM_VALUE : mimeType;
+	}
+
+	/**
+	 * 根据文件名的扩展名获取 MIME 类型
+	 *
+	 * @param filename 文件名
+	 * @return MIME 类型，未知时为 {@link #APPLICATION_OCTET_STREAM_VALUE}
+	 */
+	public static String getMimeTypeByName(String filename) {
+		return getMimeType(FileUtil.extName(filename));
+	}
+
+	/**
+	 * 按文件头识别类型后获取 MIME 类型，流支持 mark 时不会消耗数据，见 {@link FileTypeUtils#peekable(InputStream)}
+	 *
+	 * @param in       输入流
+	 * @param filename 文件名
+	 * @return MIME 类型，未知时为 {@link #APPLICATION_OCTET_STREAM_VALUE}
+	 */
+	public static String getMimeType(InputStream in, String filename) {
+		return getMimeType(FileTypeUtils.getType(in, filename));
+	}
 }
@@ -140,11 +140,30 @@
 
 package club.gclmit.gear4j.core.utils;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.springframework.web.multipart.MultipartFile;
 
 import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.lang.DigestType;
+import club.gclmit.gear4j.core.lang.MultiDigest;
+import club.gclmit.gear4j.core.lang.TreeHash;
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.util.HexUtil;
 import cn.hutool.crypto.SecureUtil;
 import cn.hutool.crypto.digest.DigestAlgorithm;
 import cn.hutool.crypto.digest.Digester;
@@ -159,6 +178,19 @@ import cn.hutool.crypto.digest.MD5;
  */
 public class SecureUtils extends SecureUtil {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 树形摘要默认块大小
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * 每个线程复用一块直接内存，文件通道直接读入，CRC32C 可以直接在堆外计算
+     */
+    private static final ThreadLocal<ByteBuffer> BUFFER =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
     /**
      * MD5加密，生成16进制MD5字符串<br>
      *
@@ -176,11 +208,7 @@ public class SecureUtils extends SecureUtil {
      * @return MD5字符串
      */
     public static String md5(MultipartFile file) {
-        try {
-            return md5(file.getBytes());
-        } catch (IOException e) {
-            throw new Gear4jException("md5 加密失败", e);
-        }
+        return digest(file, DigestType.MD5).get(DigestType.MD5);
     }
 
     /**
@@ -200,10 +228,183 @@ public class SecureUtils extends SecureUtil {
      * @return sha1字符串
      */
     public static String sha1(MultipartFile file) {
+        return digest(file, DigestType.SHA1).get(DigestType.SHA1);
+    }
+
+    /**
+     * 一次读取同时计算多个摘要
+     *
+     * @param in    数据流，不会关闭
+     * @param types 摘要算法
+     * @return 算法 -> 16进制摘要
+     */
+    public static Map<DigestType, String> digest(InputStream in, DigestType... types) {
         try {
-            return sha1(file.getBytes());
+            return digest(Channels.newChannel(in), types);
         } catch (IOException e) {
-            throw new Gear4jException("md5 加密失败", e);
+            throw new Gear4jException("摘要计算失败", e);
+        }
+    }
+
+    /**
+     * 一次读取同时计算多个摘要
+     *
+     * @param file  文件
+     * @param types 摘要算法
+     * @return 算法 -> 16进制摘要
+     */
+    public static Map<DigestType, String> digest(File file, DigestType... types) {
+        return digest(file.toPath(), types);
+    }
+
+    /**
+     * 一次读取同时计算多个摘要
+     *
+     * @param path  文件
+     * @param types 摘要算法
+     * @return 算法 -> 16进制摘要
+     */
+    public static Map<DigestType, String> digest(Path path, DigestType... types) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return digest(channel, types);
+        } catch (IOException e) {
+            throw new Gear4jException("摘要计算失败", e);
+        }
+    }
+
+    /**
+     * 一次读取同时计算多个摘要，不会把整个文件读入内存
+     *
+     * @param file  上传文件
+     * @param types 摘要算法
+     * @return 算法 -> 16进制摘要
+     */
+    public static Map<DigestType, String> digest(MultipartFile file, DigestType... types) {
+        try (InputStream in = file.getInputStream()) {
+            return digest(Channels.newChannel(in), types);
+        } catch (IOException e) {
+            throw new Gear4jException("摘要计算失败", e);
+        }
+    }
+
+    private static Map<DigestType, String> digest(ReadableByteChannel channel, DigestType... types) throws IOException {
+        MultiDigest digest = new MultiDigest(types);
+        ByteBuffer buffer = BUFFER.get();
+        buffer.clear();
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+        return digest.hex();
+    }
+
+    /**
+     * 分块并行计算树形摘要，块大小 {@link #DEFAULT_CHUNK_SIZE}，使用公共 ForkJoinPool
+     *
+     * @param path 文件
+     * @param type 摘要算法，不支持 CRC32C
+     * @return {@link TreeHash}
+     */
+    public static TreeHash treeHash(Path path, DigestType type) {
+        return treeHash(path, type, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 分块并行计算树形摘要
+     * <p>
+     * 每块通过内存映射读取，在 pool 中并行计算并逐层合并。映射的内存在 GC 时释放，超大文件建议使用较大的块。
+     *
+     * @param path      文件
+     * @param type      摘要算法，不支持 CRC32C
+     * @param chunkSize 块大小
+     * @param pool      计算使用的 ForkJoinPool
+     * @return {@link TreeHash}
+     */
+    public static TreeHash treeHash(Path path, DigestType type, int chunkSize, ForkJoinPool pool) {
+        Assert.notNull(type.getAlgorithm(), "树形摘要不支持 {}", type);
+        Assert.isTrue(chunkSize > 0, "块大小必须大于 0");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            int chunks = (int) Math.max(1, (length + chunkSize - 1) / chunkSize);
+            byte[][] chunkDigests = new byte[chunks][];
+            byte[] root = pool.invoke(new TreeHashTask(channel, type, chunkSize, length, chunkDigests, 0, chunks));
+            List<String> hex = new ArrayList<>(chunks);
+            for (byte[] digest : chunkDigests) {
+                hex.add(HexUtil.encodeHexStr(digest));
+            }
+            return new TreeHash(type, chunkSize, length, HexUtil.encodeHexStr(root), hex);
+        } catch (IOException e) {
+            throw new Gear4jException("摘要计算失败", e);
+        }
+    }
+
+    /**
+     * 计算 [from, to) 块组成的子树，块数大于 1 时在不超过块数的最大 2 的幂处拆分并行计算
+     */
+    private static class TreeHashTask extends RecursiveTask<byte[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final byte LEAF = 0;
+
+        private static final byte NODE = 1;
+
+        private final transient FileChannel channel;
+
+        private final DigestType type;
+
+        private final int chunkSize;
+
+        private final long length;
+
+        private final byte[][] chunkDigests;
+
+        private final int from;
+
+        private final int to;
+
+        TreeHashTask(FileChannel channel, DigestType type, int chunkSize, long length, byte[][] chunkDigests, int from,
+            int to) {
+            this.channel = channel;
+            this.type = type;
+            this.chunkSize = chunkSize;
+            this.length = length;
+            this.chunkDigests = chunkDigests;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected byte[] compute() {
+            MessageDigest digest = createMessageDigest(type.getAlgorithm());
+            if (to - from == 1) {
+                chunkDigests[from] = chunk(digest, from);
+                digest.update(LEAF);
+                return digest.digest(chunkDigests[from]);
+            }
+            int split = Integer.highestOneBit(to - from - 1);
+            TreeHashTask left = new TreeHashTask(channel, type, chunkSize, length, chunkDigests, from, from + split);
+            TreeHashTask right = new TreeHashTask(channel, type, chunkSize, length, chunkDigests, from + split, to);
+            right.fork();
+            byte[] leftDigest = left.compute();
+            byte[] rightDigest = right.join();
+            digest.update(NODE);
+            digest.update(leftDigest);
+            return digest.digest(rightDigest);
+        }
+
+        private byte[] chunk(MessageDigest digest, int index) {
+            long offset = (long) index * chunkSize;
+            long size = Math.min(chunkSize, length - offset);
+            try {
+                if (size > 0) {
+                    digest.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, size));
+                }
+                return digest.digest();
+            } catch (IOException e) {
+                throw new Gear4jException("摘要计算失败", e);
+            }
         }
     }
 }
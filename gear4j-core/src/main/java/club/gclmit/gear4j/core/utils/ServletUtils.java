@@ -157,8 +157,10 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import club.gclmit.gear4j.core.constant.ServletConstant;
 import club.gclmit.gear4j.core.exception.Gear4jException;
 import club.gclmit.gear4j.core.http.HttpClient;
-import club.gclmit.gear4j.core.http.servlet.HttpCacheRequestWrapper;
+import club.gclmit.gear4j.core.http.servlet.ClientIpResolver;
 import club.gclmit.gear4j.core.http.servlet.HttpCacheResponseWrapper;
+import club.gclmit.gear4j.core.http.servlet.RequestBodyHolder;
+import club.gclmit.gear4j.core.http.servlet.ServletMapView;
 import cn.hutool.core.lang.Assert;
 
 /**
@@ -215,43 +217,14 @@ public class ServletUtils {
     }
 
     /**
-     * 获取客户端 ip
+     * 获取客户端 ip，只有直连地址属于可信代理时才采用 X-Forwarded-For，结果缓存在 request 属性上
      *
      * @param request http request instance
      * @return {@link String} ip address
      */
     public static String getClientIp(HttpServletRequest request) {
         Assert.notNull(request, "request instance is null.");
-        String ip = request.getHeader("X-Forwarded-For");
-        if (StringUtils.isNotEmpty(ip) && !HttpClient.UNKNOWN.equalsIgnoreCase(ip)) {
-            int index = ip.indexOf(",");
-            if (index != -1) {
-                return ip.substring(0, index);
-            } else {
-                return ip;
-            }
-        }
-        ip = request.getHeader("X-Real-IP");
-        if (StringUtils.isNotEmpty(ip) && !HttpClient.UNKNOWN.equalsIgnoreCase(ip)) {
-            return ip;
-        }
-        if (StringUtils.isEmpty(ip) || HttpClient.UNKNOWN.equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (StringUtils.isEmpty(ip) || HttpClient.UNKNOWN.equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (StringUtils.isEmpty(ip) || HttpClient.UNKNOWN.equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_CLIENT_IP");
-        }
-        if (StringUtils.isEmpty(ip) || HttpClient.UNKNOWN.equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_X_FORWARDED_FOR");
-        }
-        if (StringUtils.isEmpty(ip) || HttpClient.UNKNOWN.equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-
-        return HttpClient.LOCALHOST.equals(ip) ? HttpClient.DEFAULT_HOST : ip;
+        return ClientIpResolver.getDefault().resolve(request);
     }
 
     /**
@@ -286,6 +259,17 @@ public class ServletUtils {
         return headers;
     }
 
+    /**
+     * get all request header，返回只读视图，不复制请求头，只能在请求处理期间使用
+     *
+     * @param request http request instance
+     * @return {@link Map}
+     */
+    public static Map<String, String> getRequestHeadersView(HttpServletRequest request) {
+        Assert.notNull(request, "request instance is null.");
+        return ServletMapView.requestHeaders(request);
+    }
+
     /**
      * get all response header
      *
@@ -302,6 +286,17 @@ public class ServletUtils {
         return headers;
     }
 
+    /**
+     * get all response header，返回只读视图，不复制响应头，只能在请求处理期间使用
+     *
+     * @param response http response instance
+     * @return {@link Map}
+     */
+    public static Map<String, String> getResponseHeadersView(HttpServletResponse response) {
+        Assert.notNull(response, "response instance is null.");
+        return ServletMapView.responseHeaders(response);
+    }
+
     /**
      * get request header by name
      *
@@ -338,6 +333,17 @@ public class ServletUtils {
         return map;
     }
 
+    /**
+     * get request path param，返回只读视图，只包含单值且非空的参数，只能在请求处理期间使用
+     *
+     * @param request http request instance
+     * @return {@link Map}
+     */
+    public static Map<String, String> getPathParamsView(HttpServletRequest request) {
+        Assert.notNull(request, "request instance is null.");
+        return ServletMapView.parameters(request);
+    }
+
     /**
      * get request uri
      *
@@ -413,14 +419,8 @@ public class ServletUtils {
      */
     public static String getRequestBody(HttpServletRequest request) throws IOException {
         Assert.notNull(request, "request instance is null.");
-        HttpCacheRequestWrapper httpCacheRequestWrapper;
-        if (request instanceof HttpCacheRequestWrapper) {
-            httpCacheRequestWrapper = (HttpCacheRequestWrapper)request;
-        } else {
-            httpCacheRequestWrapper = new HttpCacheRequestWrapper(request);
-        }
-        return StringUtils.isNotBlank(httpCacheRequestWrapper.getBody()) ? httpCacheRequestWrapper.getBody()
-            : request.getQueryString();
+        String body = RequestBodyHolder.of(request).asString();
+        return StringUtils.isNotBlank(body) ? body : request.getQueryString();
     }
 
     /**
@@ -204,15 +204,20 @@
 
 package club.gclmit.gear4j.core.utils;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.lang.ProcessExecutor;
 import cn.hutool.core.collection.ListUtil;
 import cn.hutool.core.util.CharsetUtil;
 
@@ -261,44 +266,56 @@ public class ShellUtils {
      * 执行系统命令，使用系统默认编码
      *
      * @param cmd 命令列表，每个元素代表一条命令
-     * @return 执行结果，按行区分
+     * @return stdout 的原始字节，执行失败时为 null
      * @throws Gear4jException 自定义异常
      */
 	public static InputStream exec(String cmd) {
-        Long startTime = DateUtils.getTime();
+		ProcessExecutor.Result result;
+		try {
+			result = execAsync(cmd).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new Gear4jException("执行 Shell 命令被中断", e);
+		} catch (ExecutionException e) {
+			throw new Gear4jException("执行 Shell 命令发生异常", e.getCause());
+		}
 
-		String[] commands = new String[3];
-		if (SystemUtils.isWindows()) {
-			commands[0] = "cmd.exe";
-			commands[1] = "/c";
-		} else {
-			commands[0] = "/bin/sh";
-			commands[1] = "-c";
+		if (result.isSuccess()) {
+			logger.debug("命令:[{}]\t耗时:[{}]", result.getCommand(), result.getDurationMillis());
+			return new ByteArrayInputStream(result.getStdoutBytes());
 		}
+		logger.debug("状态:[{}]\t命令:[{}]\n错误:[{}]", false, result.getCommand(), result.getStderr());
+		return null;
+	}
 
-		commands[2] = cmd;
+	/**
+	 * 异步执行系统命令，stdout、stderr 收集到结果中
+	 *
+	 * @param cmd 命令
+	 * @return 执行结果
+	 */
+	public static CompletableFuture<ProcessExecutor.Result> execAsync(String cmd) {
+		return ProcessExecutor.getInstance().execute(commands(cmd));
+	}
 
-		try {
-			Process process = Runtime.getRuntime().exec(commands);
-			String shell = Arrays.toString(commands);
-
-			if (process.waitFor() == 0) {
-				InputStream stream = process.getInputStream();
-                Long endTime = DateUtils.getTime();
-				Long distance = endTime - startTime;
-
-				logger.debug("命令:[{}]\t耗时:[{}]", shell, distance);
-				return stream;
-			} else {
-				InputStream is = process.getErrorStream();
-				if (is != null) {
-                    String error = IoUtils.readUtf8(is);
-					logger.debug("状态:[{}]\t命令:[{}]\n错误:[{}]", false, shell, error);
-				}
-				return null;
-			}
-		} catch (Exception e) {
-            throw new Gear4jException("执行 Shell 命令发生异常", e);
+	/**
+	 * 异步执行系统命令，按行回调输出，超时后结束命令及其子进程
+	 *
+	 * @param cmd     命令
+	 * @param timeout 超时时间，{@link Duration#ZERO} 表示不超时
+	 * @param stdout  stdout 行回调
+	 * @param stderr  stderr 行回调
+	 * @return 执行结果
+	 */
+	public static CompletableFuture<ProcessExecutor.Result> execAsync(String cmd, Duration timeout,
+		Consumer<String> stdout, Consumer<String> stderr) {
+		return ProcessExecutor.getInstance().execute(commands(cmd), timeout, stdout, stderr);
+	}
+
+	private static List<String> commands(String cmd) {
+		if (SystemUtils.isWindows()) {
+			return List.of("cmd.exe", "/c", cmd);
 		}
+		return List.of("/bin/sh", "-c", cmd);
 	}
 }
@@ -204,13 +204,7 @@
 
 package club.gclmit.gear4j.core.utils;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
-import club.gclmit.gear4j.core.exception.Gear4jException;
-import cn.hutool.core.util.ObjectUtil;
+import club.gclmit.gear4j.core.beans.BeanStringWriter;
 import cn.hutool.core.util.StrUtil;
 
 /**
@@ -226,43 +220,25 @@ public class StringUtils extends StrUtil {
 
 	/**
 	 * 采用反射获取toString,null会返回“null”
+	 * <p>
+	 * 字段读取计划按类缓存，输出超过 {@link BeanStringWriter#DEFAULT_MAX_LENGTH} 时截断
 	 *
 	 * @param obj 对象
 	 * @return 字符串
 	 */
 	public static String toString(Object obj) {
-		if (null == obj) {
-			return NULL;
-		}
-		List<Field> fieldList = new ArrayList<>();
-		Class clazz = obj.getClass();
-		String className = clazz.getSimpleName();
-
-		/*
-		 *  1. 当父类为null的时候说明到达了最上层的父类(Object类).
-		 *  2. 得到父类,然后赋给自己
-		 */
-		while (clazz != null) {
-			fieldList.addAll(Arrays.asList(clazz.getDeclaredFields()));
-			clazz = clazz.getSuperclass();
-		}
-
-		/*
-		 * 获取 参数属性封装
-		 */
-		StringBuilder fieldBuilder = StringUtils.builder();
-		for (Field field : fieldList) {
-			field.setAccessible(true);
-			try {
-				Object value = ObjectUtil.isEmpty(field.get(obj)) ? null : field.get(obj);
-				fieldBuilder.append(field.getName()).append("=").append(value).append(", ");
-			} catch (IllegalAccessException e) {
-                throw new Gear4jException("通过反射拼接ToString异常", e);
-			}
-			field.setAccessible(false);
-		}
-		String result = StringUtils.subBefore(fieldBuilder, ", ", true);
-		return StringUtils.builder(className).append("{").append(result).append("}").toString();
+		return BeanStringWriter.write(obj);
+	}
+
+	/**
+	 * 采用反射获取toString,null会返回“null”
+	 *
+	 * @param obj       对象
+	 * @param maxLength 最大输出长度，超过后截断并以 ... 结尾
+	 * @return 字符串
+	 */
+	public static String toString(Object obj, int maxLength) {
+		return BeanStringWriter.write(obj, maxLength, BeanStringWriter.DEFAULT_MAX_DEPTH);
 	}
 
 	/**
@@ -142,13 +142,29 @@
 package club.gclmit.gear4j.core.utils;
 
 import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.lang.DigestType;
+import club.gclmit.gear4j.core.lang.MultiDigest;
 import cn.hutool.core.util.IdUtil;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Spring MVC 文件上传
@@ -189,6 +205,21 @@ public class UploadFileUtils {
 	public static final String[] DEFAULT_ALLOWED_EXTENSION =
 		ArrayUtils.addAll(WINDOWS_IMAGE_EXTENSION, FLASH_EXTENSION, MEDIA_EXTENSION, VIDEO_EXTENSION);
 
+	/**
+	 * 默认允许的后缀名集合，不可修改
+	 */
+	public static final Set<String> DEFAULT_ALLOWED_EXTENSIONS = Set.copyOf(Arrays.asList(DEFAULT_ALLOWED_EXTENSION));
+
+	/**
+	 * 首次读取的大小，文件头识别在这块数据上完成
+	 */
+	private static final int HEAD_SIZE = 64 * 1024;
+
+	/**
+	 * 每次 transferFrom 的最大字节数
+	 */
+	private static final long TRANSFER_SIZE = 8 * 1024 * 1024;
+
 	private UploadFileUtils() {
 	}
 
@@ -219,7 +250,7 @@ public class UploadFileUtils {
 	 * @return java.io.File
 	 */
 	public static File toFile(MultipartFile multipartFile) {
-		return toFile(multipartFile, FileUtils.getRootPath(), Arrays.asList(DEFAULT_ALLOWED_EXTENSION));
+		return toFile(multipartFile, FileUtils.getRootPath(), DEFAULT_ALLOWED_EXTENSIONS);
 	}
 
 	/**
@@ -240,7 +271,7 @@ public class UploadFileUtils {
 	 * @return java.io.File
 	 */
 	public static File toFile(MultipartFile multipartFile, String dirPath) {
-		return toFile(multipartFile, dirPath, Arrays.asList(DEFAULT_ALLOWED_EXTENSION));
+		return toFile(multipartFile, dirPath, DEFAULT_ALLOWED_EXTENSIONS);
 	}
 
 	/**
@@ -251,17 +282,197 @@ public class UploadFileUtils {
 	 * @return java.io.File
 	 */
 	public static File toFile(MultipartFile multipartFile, String dirPath, List<String> whiteList) {
-		String suffix = FileUtils.getSuffix(multipartFile);
-		if (whiteList.contains(suffix)) {
-			dirPath = StringUtils.isEmpty(dirPath) ? FileUtils.getRootPath() : dirPath;
-			File localFile = new File(dirPath, IdUtil.fastSimpleUUID() + "." + suffix);
-			try {
-				multipartFile.transferTo(localFile);
-			} catch (IOException e) {
-				throw new Gear4jException("MultipartFile To File 失败", e);
+		return toFile(multipartFile, dirPath, extensions(whiteList));
+	}
+
+	/**
+	 * MultipartFile 转 File，见 {@link #save(MultipartFile, String, Set, DigestType...)}
+	 *
+	 * @param multipartFile springmvc封装的上传文件
+	 * @param dirPath       文件夹路径
+	 * @param whiteList     允许的后缀名
+	 * @return java.io.File
+	 */
+	public static File toFile(MultipartFile multipartFile, String dirPath, Set<String> whiteList) {
+		return save(multipartFile, dirPath, whiteList).getFile();
+	}
+
+	/**
+	 * 保存上传文件到 {@code dirPath/ab12...ef.jpg}，见 {@link #save(MultipartFile, String, Set, boolean, DigestType...)}
+	 *
+	 * @param multipartFile springmvc封装的上传文件
+	 * @param dirPath       文件夹路径，为空时为项目根目录
+	 * @param whiteList     允许的后缀名
+	 * @param digests       需要计算的摘要
+	 * @return {@link SavedFile}
+	 */
+	public static SavedFile save(MultipartFile multipartFile, String dirPath, Set<String> whiteList,
+		DigestType... digests) {
+		return save(multipartFile, dirPath, whiteList, false, digests);
+	}
+
+	/**
+	 * 保存上传文件
+	 * <p>
+	 * 只读取一遍数据：先读入第一块数据按文件头识别类型，不在白名单中时直接拒绝，不会创建任何文件；
+	 * 通过后写入，其余数据用 {@link FileChannel#transferFrom} 写入，同时计算摘要。
+	 * 单个目录下文件很多时可以按文件名前两位分目录（{@code dirPath/ab/ab12...ef.jpg}）。
+	 *
+	 * @param multipartFile springmvc封装的上传文件
+	 * @param dirPath       文件夹路径，为空时为项目根目录
+	 * @param whiteList     允许的后缀名，不区分大小写
+	 * @param shard         是否按文件名前两位分目录
+	 * @param digests       需要计算的摘要
+	 * @return {@link SavedFile}
+	 */
+	public static SavedFile save(MultipartFile multipartFile, String dirPath, Set<String> whiteList, boolean shard,
+		DigestType... digests) {
+		String dir = StringUtils.isEmpty(dirPath) ? FileUtils.getRootPath() : dirPath;
+		Set<String> allowed = whiteList == DEFAULT_ALLOWED_EXTENSIONS ? whiteList : extensions(whiteList);
+		try (InputStream in = multipartFile.getInputStream()) {
+			byte[] head = new byte[HEAD_SIZE];
+			int length = in.readNBytes(head, 0, head.length);
+			String suffix = FileTypeUtils.getType(head, length, multipartFile.getOriginalFilename());
+			suffix = suffix == null ? null : suffix.toLowerCase(Locale.ROOT);
+			if (suffix == null || !allowed.contains(suffix)) {
+				throw new Gear4jException("MultipartFile To File失败，当前格式【{}】不支持", suffix);
 			}
-			return localFile;
+			String name = IdUtil.fastSimpleUUID() + "." + suffix;
+			Path target = shard ? Paths.get(dir, name.substring(0, 2), name) : Paths.get(dir, name);
+			Files.createDirectories(target.getParent());
+			MultiDigest digest = new MultiDigest(digests);
+			try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.WRITE)) {
+				digest.update(head, 0, length);
+				ByteBuffer first = ByteBuffer.wrap(head, 0, length);
+				while (first.hasRemaining()) {
+					channel.write(first);
+				}
+				long size = length;
+				if (length == head.length) {
+					ReadableByteChannel source = Channels.newChannel(in);
+					if (!digest.isEmpty()) {
+						source = new DigestChannel(source, digest);
+					}
+					long transferred;
+					while ((transferred = channel.transferFrom(source, size, TRANSFER_SIZE)) > 0) {
+						size += transferred;
+					}
+				}
+				return new SavedFile(target.toFile(), suffix, size, digest.hex());
+			} catch (IOException | RuntimeException e) {
+				Files.deleteIfExists(target);
+				throw e;
+			}
+		} catch (IOException e) {
+			throw new Gear4jException("MultipartFile To File 失败", e);
+		}
+	}
+
+	/**
+	 * 白名单按识别出的后缀名同样转为小写，忽略 {@code null}
+	 */
+	private static Set<String> extensions(Collection<String> whiteList) {
+		Set<String> extensions = new HashSet<>(whiteList.size() * 2);
+		for (String extension : whiteList) {
+			if (extension != null) {
+				extensions.add(extension.toLowerCase(Locale.ROOT));
+			}
+		}
+		return extensions;
+	}
+
+	/**
+	 * 保存结果
+	 */
+	public static class SavedFile {
+
+		private final File file;
+
+		private final String suffix;
+
+		private final long size;
+
+		private final Map<DigestType, String> digests;
+
+		SavedFile(File file, String suffix, long size, Map<DigestType, String> digests) {
+			this.file = file;
+			this.suffix = suffix;
+			this.size = size;
+			this.digests = digests;
+		}
+
+		/**
+		 * 保存的文件
+		 *
+		 * @return {@link File}
+		 */
+		public File getFile() {
+			return file;
+		}
+
+		/**
+		 * 按文件头识别的后缀名
+		 *
+		 * @return {@link String}
+		 */
+		public String getSuffix() {
+			return suffix;
+		}
+
+		/**
+		 * 文件大小
+		 *
+		 * @return long
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * 算法 -> 16进制摘要
+		 *
+		 * @return {@link Map}
+		 */
+		public Map<DigestType, String> getDigests() {
+			return digests;
+		}
+	}
+
+	/**
+	 * 读取时顺带计算摘要的通道
+	 */
+	private static class DigestChannel implements ReadableByteChannel {
+
+		private final ReadableByteChannel source;
+
+		private final MultiDigest digest;
+
+		DigestChannel(ReadableByteChannel source, MultiDigest digest) {
+			this.source = source;
+			this.digest = digest;
+		}
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			int position = dst.position();
+			int read = source.read(dst);
+			if (read > 0) {
+				ByteBuffer view = dst.duplicate();
+				view.limit(dst.position()).position(position);
+				digest.update(view);
+			}
+			return read;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return source.isOpen();
+		}
+
+		@Override
+		public void close() throws IOException {
+			source.close();
 		}
-		throw new Gear4jException("MultipartFile To File失败，当前格式【{}】不支持", suffix);
 	}
 }
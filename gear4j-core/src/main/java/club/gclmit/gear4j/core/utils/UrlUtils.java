@@ -209,6 +209,7 @@ import java.util.List;
 
 import org.springframework.util.AntPathMatcher;
 
+import club.gclmit.gear4j.core.lang.UrlCodec;
 import cn.hutool.core.util.URLUtil;
 
 /**
@@ -283,35 +284,6 @@ public class UrlUtils extends URLUtil {
          * '-'，'_'，'.'，'*'保留 <br>
          * 其他字符转成%XX的格式，X是16进制的大写字符，范围是[0-9A-F]
          */
-		boolean needEncode = false;
-		for (int i = 0; i < str.length(); i++) {
-			char c = str.charAt(i);
-			if (getDontNeedEncoding().get((int) c)) {
-				continue;
-			}
-			if (c == '%' && (i + 2) < str.length()) {
-				// 判断是否符合urlEncode规范
-				char c1 = str.charAt(++i);
-				char c2 = str.charAt(++i);
-				if (isDigit16Char(c1) && isDigit16Char(c2)) {
-					continue;
-				}
-			}
-			// 其他字符，肯定需要urlEncode
-			needEncode = true;
-			break;
-		}
-
-		return !needEncode;
-	}
-
-	/**
-	 * 判断c是否是16进制的字符
-	 *
-	 * @param c 待判断字符
-	 * @return true 是16进制
-	 */
-	private static boolean isDigit16Char(char c) {
-		return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F');
+		return UrlCodec.isEncoded(str);
 	}
 }
@@ -143,10 +143,9 @@ package club.gclmit.gear4j.core.utils;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
-import com.alibaba.fastjson.JSONArray;
-import com.alibaba.fastjson.JSONObject;
-
+import club.gclmit.gear4j.core.json.JsonCodecs;
 import club.gclmit.gear4j.core.lang.Browsers;
 import cn.hutool.core.util.RandomUtil;
 
@@ -167,11 +166,11 @@ public class UserAgentUtils {
 
     static {
         String agent = IoUtils.readUtf8(UserAgentUtils.class.getClassLoader().getResourceAsStream("UserAgent.json"));
-        JSONObject jsonObject = JSONObject.parseObject(agent);
-        for (Map.Entry<String, Object> entry : jsonObject.entrySet()) {
-            String key = String.valueOf(entry.getKey());
-            List<String> object = JSONArray.parseArray(jsonObject.getString(key), String.class);
-            USERAGENT_LIST.put(key, object);
+        Map<String, Object> json = JsonCodecs.getDefault().parseMap(agent);
+        for (Map.Entry<String, Object> entry : json.entrySet()) {
+            List<String> object =
+                ((List<?>) entry.getValue()).stream().map(String::valueOf).collect(Collectors.toList());
+            USERAGENT_LIST.put(entry.getKey(), object);
         }
     }
 
@@ -204,6 +204,18 @@
 
 package club.gclmit.gear4j.core.utils;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.lang.ParallelZipWriter;
 import cn.hutool.core.util.ZipUtil;
 
 /**
@@ -216,4 +228,36 @@ public class ZipUtils extends ZipUtil {
 
 	private ZipUtils() {
 	}
+
+	/**
+	 * 创建并行压缩、顺序输出的流式 ZIP 写入器
+	 *
+	 * @param out 输出流，例如 HTTP 响应，关闭写入器时一并关闭
+	 * @return {@link ParallelZipWriter}
+	 */
+	public static ParallelZipWriter parallelWriter(OutputStream out) {
+		return new ParallelZipWriter(out);
+	}
+
+	/**
+	 * 并行压缩目录到输出流，条目名称为相对目录的路径，文件在压缩前才打开
+	 *
+	 * @param dir 目录
+	 * @param out 输出流，压缩完成后关闭
+	 */
+	public static void parallelZip(File dir, OutputStream out) {
+		Path root = dir.toPath();
+		try (Stream<Path> walk = Files.walk(root); ParallelZipWriter writer = parallelWriter(out)) {
+			List<Path> paths = walk.filter(path -> !path.equals(root)).sorted().collect(Collectors.toList());
+			for (Path path : paths) {
+				String name = root.relativize(path).toString().replace(File.separatorChar, '/');
+				boolean directory = Files.isDirectory(path);
+				ZipEntry entry = new ZipEntry(directory ? name + "/" : name);
+				entry.setTime(Files.getLastModifiedTime(path).toMillis());
+				writer.add(entry, directory ? null : () -> Files.newInputStream(path));
+			}
+		} catch (IOException e) {
+			throw new Gear4jException("压缩目录失败: " + dir, e);
+		}
+	}
 }
@@ -0,0 +1,50 @@
+package club.gclmit.gear4j.core;
+
+/**
+ * 基准测试工具
+ * <p>
+ * 标记 {@link #TAG} 的测试不在 test 任务中运行，需要时通过 {@code gradle benchmark} 单独运行
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/5 10:00
+ * @since jdk11
+ */
+public final class Benchmarks {
+
+	/**
+	 * 基准测试标签
+	 */
+	public static final String TAG = "benchmark";
+
+	private Benchmarks() {
+	}
+
+	/**
+	 * 预热后执行 rounds 次并输出平均耗时
+	 *
+	 * @param name 名称
+	 * @param warmup 预热次数
+	 * @param rounds 计时次数
+	 * @param task 任务
+	 * @return 平均耗时，单位纳秒
+	 * @throws Exception 任务抛出的异常
+	 */
+	public static long run(String name, int warmup, int rounds, Task task) throws Exception {
+		for (int i = 0; i < warmup; i++) {
+			task.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			task.run();
+		}
+		long cost = (System.nanoTime() - start) / rounds;
+		System.out.printf("%-32s %12d ns/op%n", name, cost);
+		return cost;
+	}
+
+	@FunctionalInterface
+	public interface Task {
+
+		void run() throws Exception;
+	}
+}
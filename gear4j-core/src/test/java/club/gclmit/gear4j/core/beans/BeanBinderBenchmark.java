@@ -0,0 +1,59 @@
+package club.gclmit.gear4j.core.beans;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import club.gclmit.gear4j.core.Benchmarks;
+import club.gclmit.gear4j.core.beans.BeanBinderTest.QueryDto;
+import club.gclmit.gear4j.core.utils.BeanUtils;
+import club.gclmit.gear4j.core.utils.ConvertUtils;
+import cn.hutool.core.util.ReflectUtil;
+
+/**
+ * BeanBinder 基准测试，20 个字段的查询对象对比旧版反射绑定
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/20 15:02
+ * @since jdk11
+ */
+@Tag(Benchmarks.TAG)
+@DisplayName("BeanBinder 基准测试")
+public class BeanBinderBenchmark {
+
+	private static final int WARMUP = 20_000;
+
+	private static final int ROUNDS = 100_000;
+
+	@Test
+	@DisplayName("20 字段绑定耗时")
+	public void bind() throws Exception {
+		Map<String, String[]> params = BeanBinderTest.params();
+		Benchmarks.run("legacy", WARMUP, ROUNDS, () -> legacyMapToBean(params, QueryDto.class));
+		Benchmarks.run("binder", WARMUP, ROUNDS, () -> BeanUtils.mapToBean(params, QueryDto.class));
+	}
+
+	/**
+	 * 旧版实现：每次调用反射全部字段并切换可访问性
+	 */
+	private static <T> T legacyMapToBean(Map<String, ?> map, Class<T> clazz) throws Exception {
+		T obj = ReflectUtil.newInstance(clazz);
+		for (Field field : ReflectUtil.getFields(clazz)) {
+			field.setAccessible(true);
+			String name = field.getName();
+			if (map.containsKey(name)) {
+				Object value = map.get(name);
+				if (value.getClass().isArray()) {
+					value = Array.get(value, 0);
+				}
+				field.set(obj, ConvertUtils.convert(value, field.getType()));
+			}
+			field.setAccessible(true);
+		}
+		return obj;
+	}
+}
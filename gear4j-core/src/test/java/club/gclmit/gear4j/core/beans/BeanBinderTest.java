@@ -0,0 +1,73 @@
+package club.gclmit.gear4j.core.beans;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import club.gclmit.gear4j.core.utils.BeanUtils;
+
+/**
+ * BeanBinder 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/20 15:02
+ * @since jdk11
+ */
+@DisplayName("BeanBinder 测试")
+public class BeanBinderTest {
+
+	@Test
+	@DisplayName("参数绑定")
+	public void bind() throws Exception {
+		QueryDto dto = BeanUtils.mapToBean(params(), QueryDto.class);
+		Assertions.assertEquals(1, dto.page);
+		Assertions.assertEquals(20L, dto.pageSize);
+		Assertions.assertEquals("gclm", dto.name);
+		Assertions.assertTrue(dto.enabled);
+		Assertions.assertEquals(new BigDecimal("9.90"), dto.minPrice);
+		Assertions.assertEquals("asc", dto.f19);
+	}
+
+	static Map<String, String[]> params() {
+		Map<String, String[]> params = new HashMap<>(32);
+		params.put("page", new String[]{"1"});
+		params.put("pageSize", new String[]{"20"});
+		params.put("name", new String[]{"gclm"});
+		params.put("enabled", new String[]{"true"});
+		params.put("minPrice", new String[]{"9.90"});
+		params.put("maxPrice", new String[]{"99.90"});
+		params.put("status", new String[]{"3"});
+		params.put("keyword", new String[]{"gear4j"});
+		for (int i = 9; i <= 20; i++) {
+			params.put("f" + i, new String[]{"asc"});
+		}
+		return params;
+	}
+
+	public static class QueryDto {
+		private int page;
+		private Long pageSize;
+		private String name;
+		private boolean enabled;
+		private BigDecimal minPrice;
+		private BigDecimal maxPrice;
+		private Integer status;
+		private String keyword;
+		private String f9;
+		private String f10;
+		private String f11;
+		private String f12;
+		private String f13;
+		private String f14;
+		private String f15;
+		private String f16;
+		private String f17;
+		private String f18;
+		private String f19;
+		private String f20;
+	}
+}
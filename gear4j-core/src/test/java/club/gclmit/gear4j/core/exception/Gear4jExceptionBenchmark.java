@@ -0,0 +1,44 @@
+package club.gclmit.gear4j.core.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import club.gclmit.gear4j.core.Benchmarks;
+
+/**
+ * Gear4jException 基准测试，对比携带堆栈、快速失败与共享实例的抛出开销
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/25 15:20
+ * @since jdk11
+ */
+@Tag(Benchmarks.TAG)
+@DisplayName("Gear4jException 基准测试")
+public class Gear4jExceptionBenchmark {
+
+	private static final int ROUNDS = 200_000;
+
+	private static final Gear4jException REJECTED = Gear4jException.fastFail("当前请求频繁，请稍后重试！");
+
+	@Test
+	@DisplayName("抛出耗时")
+	public void reject() throws Exception {
+		Benchmarks.run("stack", ROUNDS, ROUNDS, () -> rejectAndCatch(() -> new Gear4jException("当前请求频繁，请稍后重试！")));
+		Benchmarks.run("fastFail", ROUNDS, ROUNDS, () -> rejectAndCatch(() -> Gear4jException.fastFail("当前请求频繁，请稍后重试！")));
+		Benchmarks.run("shared", ROUNDS, ROUNDS, () -> rejectAndCatch(() -> REJECTED));
+	}
+
+	private static int rejectAndCatch(Factory factory) {
+		try {
+			throw factory.create();
+		} catch (Gear4jException e) {
+			return 1;
+		}
+	}
+
+	@FunctionalInterface
+	private interface Factory {
+		Gear4jException create();
+	}
+}
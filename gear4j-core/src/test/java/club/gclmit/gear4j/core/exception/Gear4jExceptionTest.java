@@ -0,0 +1,32 @@
+package club.gclmit.gear4j.core.exception;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Gear4jException 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/25 15:20
+ * @since jdk11
+ */
+@DisplayName("Gear4jException 测试")
+public class Gear4jExceptionTest {
+
+	private static final Gear4jException REJECTED = Gear4jException.fastFail("当前请求频繁，请稍后重试！");
+
+	@Test
+	@DisplayName("快速失败异常不携带堆栈")
+	public void fastFail() {
+		Assertions.assertTrue(REJECTED.isFastFail());
+		Assertions.assertEquals(0, REJECTED.getStackTrace().length);
+		REJECTED.addSuppressed(new IllegalStateException());
+		Assertions.assertEquals(0, REJECTED.getSuppressed().length);
+		Assertions.assertThrows(IllegalStateException.class, () -> REJECTED.initCause(new IllegalStateException()));
+
+		Gear4jException exception = new Gear4jException("普通异常");
+		Assertions.assertFalse(exception.isFastFail());
+		Assertions.assertTrue(exception.getStackTrace().length > 0);
+	}
+}
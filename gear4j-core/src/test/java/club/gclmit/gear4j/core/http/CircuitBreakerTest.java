@@ -0,0 +1,70 @@
+package club.gclmit.gear4j.core.http;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import club.gclmit.gear4j.core.http.CircuitBreaker.Permit;
+
+/**
+ * CircuitBreaker 测试，打开时长为 0 时打开后立即进入半开状态
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/26 16:40
+ * @since jdk11
+ */
+@DisplayName("CircuitBreaker 测试")
+public class CircuitBreakerTest {
+
+	@Test
+	@DisplayName("打开之前发出的请求不影响探测")
+	public void stalePermit() {
+		CircuitBreaker breaker = new CircuitBreaker(2, 0);
+		Permit released = breaker.tryAcquire();
+		Permit failed = breaker.tryAcquire();
+		Permit succeeded = breaker.tryAcquire();
+		Assertions.assertEquals(Permit.NORMAL, released);
+		breaker.onFailure(breaker.tryAcquire());
+		breaker.onFailure(breaker.tryAcquire());
+		Assertions.assertTrue(breaker.isOpen());
+
+		Permit probe = breaker.tryAcquire();
+		Assertions.assertEquals(Permit.PROBE, probe);
+		// 旧请求归还许可不会放行第二个探测
+		breaker.release(released);
+		Assertions.assertEquals(Permit.REJECTED, breaker.tryAcquire());
+		// 旧请求失败不会重新打开、清除探测
+		breaker.onFailure(failed);
+		Assertions.assertEquals(Permit.REJECTED, breaker.tryAcquire());
+		// 旧请求成功不会关闭
+		breaker.onSuccess(succeeded);
+		Assertions.assertTrue(breaker.isOpen());
+		Assertions.assertEquals(Permit.REJECTED, breaker.tryAcquire());
+
+		breaker.onSuccess(probe);
+		Assertions.assertFalse(breaker.isOpen());
+		Assertions.assertEquals(Permit.NORMAL, breaker.tryAcquire());
+	}
+
+	@Test
+	@DisplayName("探测失败重新打开，归还探测许可后可以再次探测")
+	public void probe() {
+		CircuitBreaker breaker = new CircuitBreaker(1, 0);
+		breaker.onFailure(Permit.NORMAL);
+		Permit probe = breaker.tryAcquire();
+		Assertions.assertEquals(Permit.PROBE, probe);
+		breaker.release(probe);
+
+		probe = breaker.tryAcquire();
+		Assertions.assertEquals(Permit.PROBE, probe);
+		breaker.onFailure(probe);
+		Assertions.assertTrue(breaker.isOpen());
+		Assertions.assertEquals(Permit.PROBE, breaker.tryAcquire());
+
+		CircuitBreaker open = new CircuitBreaker(1, TimeUnit.MINUTES.toNanos(1));
+		open.onFailure(Permit.NORMAL);
+		Assertions.assertEquals(Permit.REJECTED, open.tryAcquire());
+	}
+}
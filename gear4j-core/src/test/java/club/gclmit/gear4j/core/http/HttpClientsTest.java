@@ -0,0 +1,170 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ejlchina.okhttps.HTTP;
+import com.sun.net.httpserver.HttpServer;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * HttpClients 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/27 11:05
+ * @since jdk11
+ */
+@DisplayName("HttpClients 测试")
+public class HttpClientsTest {
+
+	private HttpServer server;
+
+	private ExecutorService handlers;
+
+	private String url;
+
+	private final CountDownLatch slowEntered = new CountDownLatch(1);
+
+	private final CountDownLatch slowRelease = new CountDownLatch(1);
+
+	@BeforeEach
+	public void start() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			if (exchange.getRequestURI().getPath().equals("/slow")) {
+				slowEntered.countDown();
+				try {
+					slowRelease.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			byte[] body = "ok".getBytes();
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		handlers = Executors.newCachedThreadPool();
+		server.setExecutor(handlers);
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+	}
+
+	@AfterEach
+	public void stop() {
+		slowRelease.countDown();
+		server.stop(0);
+		handlers.shutdownNow();
+	}
+
+	private static CompletableFuture<IOException> enqueue(HTTP http, String url) {
+		CompletableFuture<IOException> result = new CompletableFuture<>();
+		http.request(new Request.Builder().url(url).build()).enqueue(new Callback() {
+			@Override
+			public void onFailure(Call call, IOException e) {
+				result.complete(e);
+			}
+
+			@Override
+			public void onResponse(Call call, Response response) {
+				response.close();
+				result.complete(null);
+			}
+		});
+		return result.orTimeout(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	@DisplayName("未注册的配置档沿用默认配置")
+	public void profile() {
+		HttpClientProfile profile = HttpClients.profile("test-unknown");
+		Assertions.assertEquals("test-unknown", profile.getName());
+		Assertions.assertEquals(HttpClients.profile(HttpClientProfile.DEFAULT).getMaxIdleConnections(),
+			profile.getMaxIdleConnections());
+
+		HttpClients.registerIfAbsent(HttpClientProfile.builder().name("test-kept").maxIdleConnections(1).build());
+		HttpClients.registerIfAbsent(HttpClientProfile.builder().name("test-kept").maxIdleConnections(3).build());
+		Assertions.assertEquals(1, HttpClients.profile("test-kept").getMaxIdleConnections());
+	}
+
+	@Test
+	@DisplayName("每个配置档独立的客户端和指标")
+	public void metrics() {
+		HttpClients.register(HttpClientProfile.builder().name("test-a").readTimeout(Duration.ofSeconds(1)).build());
+		HttpClients.register(HttpClientProfile.builder().name("test-b").http2(false).build());
+		HTTP a = HttpClients.get("test-a");
+		Assertions.assertSame(a, HttpClients.get("test-a"));
+		Assertions.assertNotSame(a, HttpClients.get("test-b"));
+
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertEquals("ok", a.sync(url).get().getBody().toString());
+		}
+		HttpClients.get("test-b").sync(url).get().close();
+
+		Map<String, HttpClientMetrics.Snapshot> metrics = HttpClients.metrics();
+		HttpClientMetrics.Snapshot snapshot = metrics.get("test-a");
+		Assertions.assertEquals(3, snapshot.getCalls());
+		Assertions.assertEquals(0, snapshot.getFailures());
+		Assertions.assertEquals(3, snapshot.getLatency().values().stream().mapToLong(Long::longValue).sum());
+		Assertions.assertEquals(1, snapshot.getConnections());
+		Assertions.assertEquals(1, metrics.get("test-b").getCalls());
+	}
+
+	@Test
+	@DisplayName("重新注册后按新配置重建客户端")
+	public void reregister() throws InterruptedException {
+		HttpClients.register(HttpClientProfile.builder().name("test-c").build());
+		HTTP before = HttpClients.get("test-c");
+		CompletableFuture<IOException> slow = enqueue(before, url + "slow");
+		Assertions.assertTrue(slowEntered.await(10, TimeUnit.SECONDS));
+		HttpClients.register(HttpClientProfile.builder().name("test-c").maxIdleConnections(1).build());
+		Assertions.assertNotSame(before, HttpClients.get("test-c"));
+
+		// 旧客户端还有请求在执行，仍然可以继续发起请求
+		Assertions.assertNull(enqueue(before, url).join());
+		slowRelease.countDown();
+		Assertions.assertNull(slow.join());
+
+		// 请求全部完成后调度线程池关闭，异步请求被拒绝
+		IOException e = null;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (e == null && System.nanoTime() < deadline) {
+			e = enqueue(before, url).join();
+		}
+		Assertions.assertTrue(e instanceof InterruptedIOException, String.valueOf(e));
+
+		// 没有请求在执行时立即关闭
+		HTTP idle = HttpClients.get("test-c");
+		HttpClients.register(HttpClientProfile.builder().name("test-c").build());
+		Assertions.assertTrue(enqueue(idle, url).join() instanceof InterruptedIOException);
+	}
+
+	@Test
+	@DisplayName("连接失败计入失败数")
+	public void failure() {
+		HttpClients.register(HttpClientProfile.builder().name("test-d").retryPolicy(null).build());
+		server.stop(0);
+		Assertions.assertThrows(RuntimeException.class, () -> HttpClients.get("test-d").sync(url).get());
+		HttpClientMetrics.Snapshot snapshot = HttpClients.metrics().get("test-d");
+		Assertions.assertEquals(1, snapshot.getCalls());
+		Assertions.assertEquals(1, snapshot.getFailures());
+	}
+}
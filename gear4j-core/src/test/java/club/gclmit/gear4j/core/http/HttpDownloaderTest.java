@@ -0,0 +1,189 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.utils.SecureUtils;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * HttpDownloader 测试，使用 JDK 自带的 HttpServer 模拟支持 Range 的文件服务
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/28 15:30
+ * @since jdk11
+ */
+@DisplayName("HttpDownloader 测试")
+public class HttpDownloaderTest {
+
+	private static final int SIZE = 300 * 1024 + 17;
+
+	private final byte[] content = new byte[SIZE];
+
+	private HttpServer server;
+
+	private ExecutorService executor;
+
+	private String url;
+
+	private final List<String> ranges = new CopyOnWriteArrayList<>();
+
+	private final List<String> ifRanges = new CopyOnWriteArrayList<>();
+
+	private volatile boolean acceptRanges = true;
+
+	private volatile String etag = "\"v1\"";
+
+	private volatile String lastModified;
+
+	/**
+	 * 大于等于 0 时，起始位置等于该值的范围请求只返回一半数据后断开
+	 */
+	private volatile long breakAt = -1;
+
+	@TempDir
+	Path dir;
+
+	@BeforeEach
+	public void start() throws IOException {
+		new Random(42).nextBytes(content);
+		executor = Executors.newFixedThreadPool(8);
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(executor);
+		server.createContext("/", exchange -> {
+			String range = exchange.getRequestHeaders().getFirst("Range");
+			String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+			if (ifRange != null) {
+				ifRanges.add(ifRange);
+			}
+			if (etag != null) {
+				exchange.getResponseHeaders().add("ETag", etag);
+			}
+			if (lastModified != null) {
+				exchange.getResponseHeaders().add("Last-Modified", lastModified);
+			}
+			// If-Range 为弱 ETag 或与当前文件不一致时按 RFC 9110 返回整个文件
+			boolean unchanged = ifRange == null || !ifRange.startsWith("W/") && (ifRange.equals(etag)
+				|| ifRange.equals(lastModified));
+			try (OutputStream out = exchange.getResponseBody()) {
+				if (range == null || !acceptRanges || !unchanged) {
+					exchange.sendResponseHeaders(200, SIZE);
+					out.write(content);
+					return;
+				}
+				ranges.add(range);
+				String[] bounds = range.substring("bytes=".length()).split("-");
+				int from = Integer.parseInt(bounds[0]);
+				int to = Integer.parseInt(bounds[1]);
+				int length = to - from + 1;
+				exchange.getResponseHeaders().add("Content-Range", "bytes " + from + "-" + to + "/" + SIZE);
+				exchange.sendResponseHeaders(206, length);
+				if (from == breakAt) {
+					out.write(content, from, length / 2);
+					out.flush();
+					throw new IOException("模拟断开");
+				}
+				out.write(content, from, length);
+			}
+		});
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/file.bin";
+	}
+
+	@AfterEach
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private HttpDownloader.HttpDownloaderBuilder downloader() {
+		return HttpDownloader.builder().parts(4).minPartSize(64 * 1024).md5(SecureUtils.md5(content));
+	}
+
+	@Test
+	@DisplayName("分段并发下载并校验 MD5")
+	public void ranged() throws IOException {
+		Path target = dir.resolve("file.bin");
+		downloader().sha1(SecureUtils.sha1(content)).build().download(url, target);
+		Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+		// 1 次探测 + 4 段
+		Assertions.assertEquals(5, ranges.size());
+		Assertions.assertFalse(Files.exists(dir.resolve("file.bin" + HttpDownloader.STATE_SUFFIX)));
+		Assertions.assertFalse(Files.exists(dir.resolve("file.bin" + HttpDownloader.PART_SUFFIX)));
+	}
+
+	@Test
+	@DisplayName("不支持 Range 时单连接下载")
+	public void single() throws IOException {
+		acceptRanges = false;
+		Path target = dir.resolve("file.bin");
+		downloader().build().download(url, target);
+		Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+	}
+
+	@Test
+	@DisplayName("中断后从已写入的位置继续")
+	public void resume() throws IOException {
+		Path target = dir.resolve("file.bin");
+		long[] starts = downloader().build().split(SIZE);
+		breakAt = starts[2];
+		Assertions.assertThrows(Gear4jException.class, () -> downloader().maxRetries(0).build().download(url, target));
+		Assertions.assertTrue(Files.exists(dir.resolve("file.bin" + HttpDownloader.STATE_SUFFIX)));
+		Assertions.assertFalse(Files.exists(target));
+
+		breakAt = -1;
+		ranges.clear();
+		downloader().build().download(url, target);
+		Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+		// 只请求了未完成的第 3 段，而且不是从头开始
+		Assertions.assertEquals(2, ranges.size());
+		long resumedFrom = Long.parseLong(ranges.get(1).substring("bytes=".length()).split("-")[0]);
+		Assertions.assertTrue(resumedFrom > starts[2]);
+	}
+
+	@Test
+	@DisplayName("弱 ETag 不用于 If-Range")
+	public void weakEtag() throws IOException {
+		etag = "W/\"v1\"";
+		lastModified = "Wed, 27 Jul 2022 08:00:00 GMT";
+		Path target = dir.resolve("file.bin");
+		downloader().build().download(url, target);
+		Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+		Assertions.assertEquals(List.of(lastModified), new ArrayList<>(new HashSet<>(ifRanges)));
+
+		// 没有 Last-Modified 时不发送 If-Range
+		lastModified = null;
+		ifRanges.clear();
+		Files.delete(target);
+		downloader().build().download(url, target);
+		Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+		Assertions.assertTrue(ifRanges.isEmpty());
+	}
+
+	@Test
+	@DisplayName("校验失败时不生成目标文件")
+	public void checksum() {
+		Path target = dir.resolve("file.bin");
+		Assertions.assertThrows(Gear4jException.class,
+			() -> downloader().md5("00000000000000000000000000000000").build().download(url, target));
+		Assertions.assertFalse(Files.exists(target));
+	}
+}
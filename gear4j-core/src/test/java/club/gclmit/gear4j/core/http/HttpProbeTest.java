@@ -0,0 +1,148 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * HttpProbe 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/27 15:20
+ * @since jdk11
+ */
+@DisplayName("HttpProbe 测试")
+public class HttpProbeTest {
+
+	private HttpServer server;
+
+	private ExecutorService executor;
+
+	private String url;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	private final Set<String> methods = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> userAgents = ConcurrentHashMap.newKeySet();
+
+	@BeforeEach
+	public void start() throws IOException {
+		executor = Executors.newFixedThreadPool(16);
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(executor);
+		server.createContext("/", exchange -> {
+			int current = inFlight.incrementAndGet();
+			maxInFlight.accumulateAndGet(current, Math::max);
+			methods.add(exchange.getRequestMethod());
+			userAgents.add(exchange.getRequestHeaders().getFirst("User-Agent"));
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			int status = exchange.getRequestURI().getPath().startsWith("/missing") ? 404 : 200;
+			inFlight.decrementAndGet();
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+		});
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+	}
+
+	@AfterEach
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("单主机并发不超过上限，结果按输入顺序返回")
+	public void perHostLimit() {
+		List<String> urls = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			urls.add(url + (i % 5 == 0 ? "missing/" : "ok/") + i);
+		}
+		List<HttpProbe.Result> results = HttpProbe.builder().concurrency(8).maxPerHost(3).build().probe(urls).join();
+
+		Assertions.assertEquals(20, results.size());
+		for (int i = 0; i < 20; i++) {
+			HttpProbe.Result result = results.get(i);
+			Assertions.assertEquals(urls.get(i), result.getUrl());
+			Assertions.assertEquals(i % 5 == 0 ? 404 : 200, result.getStatus());
+			Assertions.assertNull(result.getError());
+		}
+		Assertions.assertTrue(maxInFlight.get() <= 3, "max in flight " + maxInFlight.get());
+		Assertions.assertEquals(Set.of("GET"), methods);
+		Assertions.assertEquals(1, userAgents.size());
+	}
+
+	@Test
+	@DisplayName("HEAD 请求与回调")
+	public void head() {
+		List<HttpProbe.Result> results = new ArrayList<>();
+		HttpProbe.builder().head(true).build().probe(List.of(url + "a", url + "b"), result -> {
+			synchronized (results) {
+				results.add(result);
+			}
+		}).join();
+		Assertions.assertEquals(2, results.size());
+		Assertions.assertTrue(results.stream().allMatch(HttpProbe.Result::isOk));
+		Assertions.assertEquals(Set.of("HEAD"), methods);
+	}
+
+	@Test
+	@DisplayName("非法 URL 和连接失败返回错误结果")
+	public void errors() {
+		List<HttpProbe.Result> results = HttpClient.probe(List.of("not a url", "http://127.0.0.1:1/", url)).join();
+		Assertions.assertEquals(-1, results.get(0).getStatus());
+		Assertions.assertTrue(results.get(0).getError() instanceof IllegalArgumentException);
+		Assertions.assertEquals(-1, results.get(1).getStatus());
+		Assertions.assertTrue(results.get(1).getError() instanceof IOException);
+		Assertions.assertEquals(200, results.get(2).getStatus());
+		Assertions.assertTrue(HttpClient.probe(List.of()).join().isEmpty());
+	}
+
+	@Test
+	@DisplayName("并发数不大于 0 时拒绝")
+	public void invalidConcurrency() {
+		List<String> urls = List.of(url);
+		Assertions.assertThrows(IllegalArgumentException.class,
+			() -> HttpProbe.builder().concurrency(0).build().probe(urls));
+		Assertions.assertThrows(IllegalArgumentException.class,
+			() -> HttpProbe.builder().maxPerHost(-1).build().probe(urls));
+	}
+
+	@Test
+	@DisplayName("请求无法发出时返回错误结果并归还名额")
+	public void enqueueFailure() {
+		// 最大请求数为 0 的配置档创建客户端时失败
+		HttpClients.register(HttpClientProfile.builder().name("probe-broken").maxRequests(0).build());
+		List<String> urls = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			urls.add(url + i);
+		}
+		List<HttpProbe.Result> results = HttpProbe.builder().profile("probe-broken").concurrency(1).build()
+			.probe(urls).orTimeout(10, TimeUnit.SECONDS).join();
+		Assertions.assertEquals(1000, results.size());
+		Assertions.assertTrue(results.stream().allMatch(result -> result.getStatus() == -1
+			&& result.getError() instanceof IllegalArgumentException));
+	}
+}
@@ -0,0 +1,229 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ejlchina.okhttps.HTTP;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * HttpResponseCache 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/28 10:40
+ * @since jdk11
+ */
+@DisplayName("HttpResponseCache 测试")
+public class HttpResponseCacheTest {
+
+	private HttpServer server;
+
+	private ExecutorService executor;
+
+	private String url;
+
+	private final AtomicInteger hits = new AtomicInteger();
+
+	private final AtomicInteger conditionals = new AtomicInteger();
+
+	private HttpResponseCache cache;
+
+	private HTTP http;
+
+	@BeforeEach
+	public void start() throws IOException {
+		executor = Executors.newFixedThreadPool(16);
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(executor);
+		server.createContext("/", exchange -> {
+			hits.incrementAndGet();
+			String path = exchange.getRequestURI().getPath();
+			if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				conditionals.incrementAndGet();
+				exchange.getResponseHeaders().add("X-Tag", "a");
+				exchange.getResponseHeaders().add("X-Tag", "b");
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+				return;
+			}
+			if (path.contains("slow")) {
+				try {
+					Thread.sleep(300);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (path.startsWith("/error")) {
+				exchange.sendResponseHeaders(503, -1);
+				exchange.close();
+				return;
+			}
+			if (path.startsWith("/vary")) {
+				exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+				exchange.getResponseHeaders().add("Vary", "Accept");
+				path += exchange.getRequestHeaders().getFirst("Accept");
+			} else if (path.startsWith("/fresh")) {
+				exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+			} else if (path.startsWith("/etag")) {
+				exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+				exchange.getResponseHeaders().add("ETag", "\"v1\"");
+			} else {
+				exchange.getResponseHeaders().add("Cache-Control", "no-store");
+			}
+			byte[] body = ("body" + path).getBytes();
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort();
+		cache = new HttpResponseCache(1024, 256);
+		HttpClients.register(HttpClientProfile.builder().name("test-cache").responseCache(cache).build());
+		http = HttpClients.get("test-cache");
+	}
+
+	@AfterEach
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private String get(String path) {
+		return http.sync(url + path).get().getBody().toString();
+	}
+
+	@Test
+	@DisplayName("新鲜期内直接命中缓存")
+	public void fresh() {
+		Assertions.assertEquals("body/fresh", get("/fresh"));
+		Assertions.assertEquals("body/fresh", get("/fresh"));
+		Assertions.assertEquals(1, hits.get());
+		Assertions.assertEquals(1, cache.getHitCount());
+		Assertions.assertEquals(1, cache.getMissCount());
+		Assertions.assertEquals(1, cache.size());
+	}
+
+	@Test
+	@DisplayName("过期后用 ETag 重新验证")
+	public void revalidate() {
+		Assertions.assertEquals("body/etag", get("/etag"));
+		Assertions.assertEquals("body/etag", get("/etag"));
+		Assertions.assertEquals(2, hits.get());
+		Assertions.assertEquals(1, conditionals.get());
+		Assertions.assertEquals(1, cache.getRevalidationCount());
+	}
+
+	@Test
+	@DisplayName("no-store 不缓存")
+	public void noStore() {
+		get("/plain");
+		get("/plain");
+		Assertions.assertEquals(2, hits.get());
+		Assertions.assertEquals(0, cache.size());
+	}
+
+	@Test
+	@DisplayName("304 的多值响应头整体替换")
+	public void refreshHeaders() {
+		get("/etag");
+		List<String> tags = http.sync(url + "/etag").get().getHeaders("X-Tag");
+		Assertions.assertEquals(List.of("a", "b"), tags);
+	}
+
+	@Test
+	@DisplayName("带凭证头的请求不走缓存")
+	public void credentials() {
+		for (String header : List.of("Cookie", "X-Auth-Token")) {
+			http.sync(url + "/fresh").addHeader(header, "u1").get();
+			http.sync(url + "/fresh").addHeader(header, "u2").get();
+		}
+		Assertions.assertEquals(4, hits.get());
+		Assertions.assertEquals(0, cache.size());
+	}
+
+	@Test
+	@DisplayName("Vary 的请求头不同时不命中")
+	public void vary() {
+		Assertions.assertEquals("body/varya", http.sync(url + "/vary").addHeader("Accept", "a").get().getBody().toString());
+		Assertions.assertEquals("body/varyb", http.sync(url + "/vary").addHeader("Accept", "b").get().getBody().toString());
+		Assertions.assertEquals("body/varyb", http.sync(url + "/vary").addHeader("Accept", "b").get().getBody().toString());
+		Assertions.assertEquals(2, hits.get());
+		Assertions.assertEquals(1, cache.getHitCount());
+	}
+
+	private List<CompletableFuture<String>> concurrent(int threads, String path, String accept) {
+		CountDownLatch ready = new CountDownLatch(threads);
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			String value = accept + (i % 2);
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				ready.countDown();
+				try {
+					ready.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return http.sync(url + path).addHeader("Accept", accept == null ? "*/*" : value).get().getBody()
+					.toString();
+			}, executor));
+		}
+		return futures;
+	}
+
+	@Test
+	@DisplayName("并发的相同请求合并为一次")
+	public void coalesce() throws Exception {
+		int threads = 8;
+		for (CompletableFuture<String> future : concurrent(threads, "/fresh/slow", null)) {
+			Assertions.assertEquals("body/fresh/slow", future.get());
+		}
+		Assertions.assertEquals(threads, hits.get() + cache.getCoalescedCount());
+		Assertions.assertTrue(cache.getCoalescedCount() > 0);
+	}
+
+	@Test
+	@DisplayName("请求头不同的并发请求不合并")
+	public void coalesceHeaders() throws Exception {
+		List<CompletableFuture<String>> futures = concurrent(8, "/vary/slow", "t");
+		for (int i = 0; i < futures.size(); i++) {
+			Assertions.assertEquals("body/vary/slowt" + (i % 2), futures.get(i).get());
+		}
+	}
+
+	@Test
+	@DisplayName("错误响应不共享给合并的请求")
+	public void coalesceError() throws Exception {
+		int threads = 8;
+		for (CompletableFuture<String> future : concurrent(threads, "/error/slow", null)) {
+			future.get();
+		}
+		// 5xx 还会被重试，每个请求至少自己发出一次
+		Assertions.assertTrue(hits.get() >= threads);
+		Assertions.assertEquals(0, cache.getCoalescedCount());
+	}
+
+	@Test
+	@DisplayName("按总字节数淘汰最久未使用的响应")
+	public void evict() {
+		for (int i = 0; i < 20; i++) {
+			get("/fresh/" + i);
+		}
+		Assertions.assertTrue(cache.bytes() <= 1024);
+		Assertions.assertTrue(cache.size() < 20);
+		get("/fresh/19");
+		Assertions.assertEquals(20, hits.get());
+	}
+}
@@ -0,0 +1,225 @@
+package club.gclmit.gear4j.core.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * RetryInterceptor 测试，使用 JDK 自带的 HttpServer 模拟下游
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/26 16:40
+ * @since jdk11
+ */
+@DisplayName("RetryInterceptor 测试")
+public class RetryInterceptorTest {
+
+	private HttpServer server;
+
+	private final AtomicInteger hits = new AtomicInteger();
+
+	/**
+	 * 前 failures 次请求返回 status
+	 */
+	private volatile int failures;
+
+	private volatile int status = 503;
+
+	private volatile String retryAfter;
+
+	@BeforeEach
+	public void start() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			int hit = hits.incrementAndGet();
+			if (hit <= failures) {
+				if (retryAfter != null) {
+					exchange.getResponseHeaders().add("Retry-After", retryAfter);
+				}
+				exchange.sendResponseHeaders(status, -1);
+			} else {
+				byte[] body = "ok".getBytes();
+				exchange.sendResponseHeaders(200, body.length);
+				exchange.getResponseBody().write(body);
+			}
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@AfterEach
+	public void stop() {
+		server.stop(0);
+	}
+
+	@Test
+	@DisplayName("幂等请求退避后重试成功")
+	public void retry() throws IOException {
+		failures = 2;
+		try (Response response = call(policy().build(), "GET")) {
+			Assertions.assertEquals(200, response.code());
+		}
+		Assertions.assertEquals(3, hits.get());
+	}
+
+	@Test
+	@DisplayName("非幂等请求不重试")
+	public void notIdempotent() throws IOException {
+		failures = 2;
+		try (Response response = call(policy().build(), "POST")) {
+			Assertions.assertEquals(503, response.code());
+		}
+		Assertions.assertEquals(1, hits.get());
+	}
+
+	@Test
+	@DisplayName("Retry-After 超过上限时不重试")
+	public void retryAfter() throws IOException {
+		failures = 1;
+		retryAfter = "120";
+		try (Response response = call(policy().build(), "GET")) {
+			Assertions.assertEquals(503, response.code());
+		}
+		Assertions.assertEquals(1, hits.get());
+		Assertions.assertEquals(120_000, RetryInterceptor.retryAfter("120"));
+		Assertions.assertEquals(0, RetryInterceptor.retryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+		Assertions.assertEquals(-1, RetryInterceptor.retryAfter("soon"));
+	}
+
+	@Test
+	@DisplayName("重试预算耗尽后不再重试")
+	public void budget() throws IOException {
+		failures = Integer.MAX_VALUE;
+		RetryInterceptor interceptor = new RetryInterceptor(policy().budgetRatio(0).budgetMaxTokens(2).build());
+		OkHttpClient client = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+		for (int i = 0; i < 3; i++) {
+			client.newCall(request("GET")).execute().close();
+		}
+		// 3 次正常请求 + 预算内的 2 次重试
+		Assertions.assertEquals(5, hits.get());
+	}
+
+	@Test
+	@DisplayName("连续失败后熔断")
+	public void breaker() throws IOException {
+		failures = Integer.MAX_VALUE;
+		status = 500;
+		RetryInterceptor interceptor = new RetryInterceptor(policy().maxRetries(0).breakerFailureThreshold(2)
+			.breakerOpenDuration(Duration.ofMillis(200)).build());
+		OkHttpClient client = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+		client.newCall(request("GET")).execute().close();
+		client.newCall(request("GET")).execute().close();
+		Assertions.assertThrows(CircuitBreakerOpenException.class, () -> client.newCall(request("GET")).execute());
+		Assertions.assertEquals(2, hits.get());
+
+		// 熔断到期后放行探测请求，成功则恢复
+		failures = 0;
+		hits.set(0);
+		sleep(300);
+		client.newCall(request("GET")).execute().close();
+		client.newCall(request("GET")).execute().close();
+		Assertions.assertEquals(2, hits.get());
+	}
+
+	@Test
+	@DisplayName("探测请求抛出运行时异常时重新打开熔断")
+	public void probeRuntimeException() throws IOException {
+		failures = 1;
+		status = 500;
+		RetryInterceptor interceptor = new RetryInterceptor(policy().maxRetries(0).breakerFailureThreshold(1)
+			.breakerOpenDuration(Duration.ofMillis(100)).build());
+		AtomicBoolean fail = new AtomicBoolean();
+		OkHttpClient client = new OkHttpClient.Builder().addInterceptor(interceptor).addInterceptor(chain -> {
+			if (fail.get()) {
+				throw new IllegalStateException("probe");
+			}
+			return chain.proceed(chain.request());
+		}).build();
+		client.newCall(request("GET")).execute().close();
+		Assertions.assertThrows(CircuitBreakerOpenException.class, () -> client.newCall(request("GET")).execute());
+
+		sleep(150);
+		fail.set(true);
+		Assertions.assertThrows(IllegalStateException.class, () -> client.newCall(request("GET")).execute());
+		Assertions.assertThrows(CircuitBreakerOpenException.class, () -> client.newCall(request("GET")).execute());
+
+		// 到期后可以再次探测
+		sleep(150);
+		fail.set(false);
+		try (Response response = client.newCall(request("GET")).execute()) {
+			Assertions.assertEquals(200, response.code());
+		}
+		Assertions.assertFalse(interceptor.breaker(host()).isOpen());
+	}
+
+	@Test
+	@DisplayName("熔断拒绝的重试不消耗预算")
+	public void breakerBeforeBudget() throws IOException {
+		failures = 2;
+		status = 500;
+		RetryInterceptor interceptor = new RetryInterceptor(policy().maxRetries(1).budgetRatio(0).budgetMaxTokens(1)
+			.breakerFailureThreshold(2).breakerOpenDuration(Duration.ofMillis(100)).build());
+		OkHttpClient client = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+		CircuitBreaker breaker = interceptor.breaker(host());
+		breaker.onFailure(CircuitBreaker.Permit.NORMAL);
+		// 第 2 次失败打开熔断，重试被拒绝
+		try (Response response = client.newCall(request("GET")).execute()) {
+			Assertions.assertEquals(500, response.code());
+		}
+		Assertions.assertEquals(1, hits.get());
+
+		// 预算仍在，失败后可以重试
+		sleep(150);
+		CircuitBreaker.Permit probe = breaker.tryAcquire();
+		Assertions.assertEquals(CircuitBreaker.Permit.PROBE, probe);
+		breaker.onSuccess(probe);
+		try (Response response = client.newCall(request("GET")).execute()) {
+			Assertions.assertEquals(200, response.code());
+		}
+		Assertions.assertEquals(3, hits.get());
+	}
+
+	private String host() {
+		return "127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	private static RetryPolicy.RetryPolicyBuilder policy() {
+		return RetryPolicy.builder().baseDelay(Duration.ofMillis(10)).maxDelay(Duration.ofMillis(50))
+			.maxRetryAfter(Duration.ofSeconds(1));
+	}
+
+	private Response call(RetryPolicy policy, String method) throws IOException {
+		OkHttpClient client = new OkHttpClient.Builder().addInterceptor(new RetryInterceptor(policy)).build();
+		return client.newCall(request(method)).execute();
+	}
+
+	private Request request(String method) {
+		RequestBody body = "GET".equals(method) ? null : RequestBody.create(MediaType.get("application/json"), "{}");
+		return new Request.Builder().url("http://127.0.0.1:" + server.getAddress().getPort() + "/").method(method, body)
+			.build();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package club.gclmit.gear4j.core.http.servlet;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import club.gclmit.gear4j.core.utils.ServletUtils;
+
+/**
+ * ClientIpResolver 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/1 11:00
+ * @since jdk11
+ */
+@DisplayName("ClientIpResolver 测试")
+public class ClientIpResolverTest {
+
+	private final ClientIpResolver resolver = new ClientIpResolver(
+		List.of("10.0.0.0/8", "192.168.1.7", "2001:db8::/32", "::1", "100.64.0.0/10"));
+
+	private static MockHttpServletRequest request(String remote, String... forwarded) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr(remote);
+		for (String value : forwarded) {
+			request.addHeader("X-Forwarded-For", value);
+		}
+		return request;
+	}
+
+	@Test
+	@DisplayName("可信网段匹配")
+	public void trusted() {
+		Assertions.assertTrue(resolver.isTrusted("10.1.2.3"));
+		Assertions.assertTrue(resolver.isTrusted("10.255.255.255"));
+		Assertions.assertFalse(resolver.isTrusted("11.0.0.0"));
+		Assertions.assertTrue(resolver.isTrusted("192.168.1.7"));
+		Assertions.assertFalse(resolver.isTrusted("192.168.1.8"));
+		Assertions.assertTrue(resolver.isTrusted("100.127.255.255"));
+		Assertions.assertFalse(resolver.isTrusted("100.128.0.0"));
+
+		Assertions.assertTrue(resolver.isTrusted("2001:db8::1"));
+		Assertions.assertTrue(resolver.isTrusted("2001:0DB8:ffff:0:0:0:0:1"));
+		Assertions.assertTrue(resolver.isTrusted("[2001:db8::1]"));
+		Assertions.assertTrue(resolver.isTrusted("2001:db8::1%eth0"));
+		Assertions.assertFalse(resolver.isTrusted("2001:db9::1"));
+		Assertions.assertTrue(resolver.isTrusted("::1"));
+		Assertions.assertTrue(resolver.isTrusted("0:0:0:0:0:0:0:1"));
+		Assertions.assertFalse(resolver.isTrusted("::2"));
+
+		// 格式不正确的地址一律不可信
+		for (String invalid : new String[] {"", "unknown", "10.1.2", "10.1.2.3.4", "10.1.2.256", "10.1.2.3:80",
+			"2001:db8:::1", "2001:db8::1::2", "2001:db8:1:2:3:4:5:6:7", ":2001:db8::1", "2001:db8::1:", "2001:db8::12345",
+			"2001:db8::g"}) {
+			Assertions.assertFalse(resolver.isTrusted(invalid), invalid);
+		}
+
+		// 覆盖范围：后加入的大网段覆盖已有的小网段，0 位前缀信任全部地址
+		ClientIpResolver wide = new ClientIpResolver(List.of("10.1.0.0/16", "10.0.0.0/8", "::/0"));
+		Assertions.assertTrue(wide.isTrusted("10.200.0.1"));
+		Assertions.assertTrue(wide.isTrusted("fe80::1"));
+		Assertions.assertFalse(wide.isTrusted("11.0.0.1"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("10.0.0.0/33")));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("example.com")));
+	}
+
+	@Test
+	@DisplayName("IPv4 映射地址按 IPv4 网段匹配")
+	public void mapped() {
+		Assertions.assertTrue(resolver.isTrusted("::ffff:10.0.0.1"));
+		Assertions.assertTrue(resolver.isTrusted("::FFFF:a00:1"));
+		Assertions.assertTrue(resolver.isTrusted("[::ffff:192.168.1.7]"));
+		Assertions.assertTrue(resolver.isTrusted("0:0:0:0:0:ffff:100.64.0.1"));
+		Assertions.assertFalse(resolver.isTrusted("::ffff:11.0.0.1"));
+		Assertions.assertFalse(resolver.isTrusted("::ffff:192.168.1.8"));
+		// 不是映射地址
+		Assertions.assertFalse(resolver.isTrusted("::fffe:10.0.0.1"));
+		Assertions.assertFalse(resolver.isTrusted("::10.0.0.1"));
+		Assertions.assertFalse(resolver.isTrusted("1::ffff:10.0.0.1"));
+
+		// 直连地址是映射地址时同样读取 X-Forwarded-For
+		Assertions.assertEquals("203.0.113.9", resolver.resolve(request("::ffff:10.0.0.1", "203.0.113.9")));
+		Assertions.assertEquals("203.0.113.9",
+			resolver.resolve(request("10.0.0.1", "1.1.1.1, 203.0.113.9, ::ffff:10.0.0.2")));
+
+		// 映射形式配置的网段与 IPv4 形式等价
+		ClientIpResolver mapped = new ClientIpResolver(List.of("::ffff:10.0.0.0/104"));
+		Assertions.assertTrue(mapped.isTrusted("10.2.3.4"));
+		Assertions.assertTrue(mapped.isTrusted("::ffff:10.2.3.4"));
+		Assertions.assertFalse(mapped.isTrusted("11.2.3.4"));
+		ClientIpResolver all = new ClientIpResolver(List.of("0.0.0.0/0"));
+		Assertions.assertTrue(all.isTrusted("::ffff:8.8.8.8"));
+		Assertions.assertFalse(all.isTrusted("2001:db8::1"));
+	}
+
+	@Test
+	@DisplayName("从右往左解析 X-Forwarded-For")
+	public void resolve() {
+		// 直连地址不可信时忽略请求头，防止伪造
+		Assertions.assertEquals("8.8.8.8", resolver.resolve(request("8.8.8.8", "1.1.1.1")));
+		// 停在第一个不可信的地址，左侧客户端伪造的条目不会被采用
+		Assertions.assertEquals("203.0.113.9",
+			resolver.resolve(request("10.0.0.1", "1.1.1.1, 203.0.113.9, 10.0.0.2")));
+		// 多个请求头按顺序合并
+		Assertions.assertEquals("203.0.113.9", resolver.resolve(request("10.0.0.1", "1.1.1.1", "203.0.113.9 ,10.0.0.2")));
+		// 全部可信时取最左侧
+		Assertions.assertEquals("10.0.0.3", resolver.resolve(request("10.0.0.1", "10.0.0.3,10.0.0.2")));
+		// 格式不正确的条目停在转发它的那一跳
+		Assertions.assertEquals("10.0.0.2", resolver.resolve(request("10.0.0.1", "1.1.1.1, unknown, 10.0.0.2")));
+		Assertions.assertEquals("10.0.0.1", resolver.resolve(request("10.0.0.1", "unknown")));
+		Assertions.assertEquals("2001:db9::1", resolver.resolve(request("::1", "2001:db9::1, 2001:db8::5")));
+
+		MockHttpServletRequest realIp = request("10.0.0.1");
+		realIp.addHeader("X-Real-IP", "203.0.113.7");
+		Assertions.assertEquals("203.0.113.7", resolver.resolve(realIp));
+		// IPv6 回环地址统一为 127.0.0.1
+		Assertions.assertEquals("127.0.0.1", resolver.resolve(request("0:0:0:0:0:0:0:1")));
+	}
+
+	@Test
+	@DisplayName("结果缓存在 request 属性上")
+	public void cached() {
+		MockHttpServletRequest request = request("127.0.0.1", "203.0.113.9");
+		Assertions.assertEquals("203.0.113.9", ServletUtils.getClientIp(request));
+		Assertions.assertEquals("203.0.113.9", request.getAttribute(ClientIpResolver.ATTRIBUTE));
+
+		request.setRemoteAddr("8.8.8.8");
+		Assertions.assertEquals("203.0.113.9", ServletUtils.getClientIp(request));
+		ClientIpResolver.reset(request);
+		Assertions.assertEquals("8.8.8.8", ServletUtils.getClientIp(request));
+	}
+}
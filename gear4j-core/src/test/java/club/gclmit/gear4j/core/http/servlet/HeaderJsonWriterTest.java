@@ -0,0 +1,66 @@
+package club.gclmit.gear4j.core.http.servlet;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+
+/**
+ * HeaderJsonWriter 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/1 16:50
+ * @since jdk11
+ */
+@DisplayName("HeaderJsonWriter 测试")
+public class HeaderJsonWriterTest {
+
+	private static Map<String, String> parse(String json) {
+		return JSON.parseObject(json, new TypeReference<Map<String, String>>() {});
+	}
+
+	@Test
+	@DisplayName("默认跳过 Cookie 和认证头")
+	public void denylist() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept", "application/json");
+		request.addHeader("cookie", "session=" + "x".repeat(4096));
+		request.addHeader("Authorization", "Bearer token");
+		request.addHeader("X-Quote", "say \"hi\" \\ \n\t\u0001 中文");
+		String json = new HeaderJsonWriter().requestHeaders(request);
+		Assertions.assertEquals(Map.of("Accept", "application/json", "X-Quote", "say \"hi\" \\ \n\t\u0001 中文"),
+			parse(json));
+		Assertions.assertFalse(json.contains("session"));
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.addHeader("Set-Cookie", "id=1");
+		response.addHeader("Content-Type", "text/plain");
+		Assertions.assertEquals("{\"Content-Type\":\"text/plain\"}", new HeaderJsonWriter().responseHeaders(response));
+		Assertions.assertEquals("{}", new HeaderJsonWriter().requestHeaders(new MockHttpServletRequest()));
+	}
+
+	@Test
+	@DisplayName("白名单与黑名单")
+	public void allowlist() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept", "*/*");
+		request.addHeader("User-Agent", "gear4j");
+		request.addHeader("X-Secret", "1");
+		HeaderJsonWriter writer = new HeaderJsonWriter(List.of("user-agent", "x-secret"), List.of("X-SECRET"));
+		Assertions.assertTrue(writer.isIncluded("USER-AGENT"));
+		Assertions.assertFalse(writer.isIncluded("Accept"));
+		Assertions.assertEquals("{\"User-Agent\":\"gear4j\"}", writer.requestHeaders(request));
+
+		// 追加到已有缓冲区
+		StringBuilder buffer = new StringBuilder("headers=");
+		writer.writeRequestHeaders(request, buffer);
+		Assertions.assertEquals("headers={\"User-Agent\":\"gear4j\"}", buffer.toString());
+	}
+}
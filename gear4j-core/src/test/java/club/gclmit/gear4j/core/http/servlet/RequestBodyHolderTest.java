@@ -0,0 +1,120 @@
+package club.gclmit.gear4j.core.http.servlet;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.DelegatingServletInputStream;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import club.gclmit.gear4j.core.utils.IoUtils;
+
+/**
+ * RequestBodyHolder 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/22 10:15
+ * @since jdk11
+ */
+@DisplayName("RequestBodyHolder 测试")
+public class RequestBodyHolderTest {
+
+	private static final String BODY = "{\"name\":\"gclm\",\"desc\":\"共享 body\"}";
+
+	@Test
+	@DisplayName("多层包装只读取一次原始输入流")
+	public void readOnce() throws IOException {
+		AtomicInteger opened = new AtomicInteger();
+		HttpServletRequest request = request(BODY.getBytes(StandardCharsets.UTF_8), opened);
+		HttpCacheRequestWrapper inner = new HttpCacheRequestWrapper(request);
+		HttpCacheRequestWrapper outer = new HttpCacheRequestWrapper(inner);
+
+		Assertions.assertEquals(BODY, IoUtils.read(outer.getInputStream(), StandardCharsets.UTF_8));
+		Assertions.assertEquals(BODY, IoUtils.read(outer.getReader()));
+		Assertions.assertEquals(BODY, inner.getBody());
+		Assertions.assertSame(RequestBodyHolder.of(outer), RequestBodyHolder.of(request));
+		Assertions.assertEquals(1, opened.get());
+	}
+
+	@Test
+	@DisplayName("超过预分配大小时扩容读取")
+	public void grow() throws IOException {
+		byte[] bytes = new byte[100_000];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) ('a' + i % 26);
+		}
+		HttpServletRequest request = request(bytes, new AtomicInteger());
+		RequestBodyHolder body = RequestBodyHolder.of(request);
+		Assertions.assertEquals(bytes.length, body.length());
+		Assertions.assertArrayEquals(bytes, IoUtils.readBytes(body.newInputStream()));
+	}
+
+	@Test
+	@DisplayName("超过上限时停止读取")
+	public void maxBytes() throws IOException {
+		byte[] bytes = new byte[10_000];
+		// Content-Length 超过上限时不读取
+		AtomicInteger opened = new AtomicInteger();
+		Assertions.assertThrows(RequestBodyTooLargeException.class,
+			() -> RequestBodyHolder.of(request(bytes, opened), 4096));
+
+		// 没有 Content-Length 时读到上限即停止
+		AtomicInteger read = new AtomicInteger();
+		MockHttpServletRequest chunked = new MockHttpServletRequest() {
+			@Override
+			public long getContentLengthLong() {
+				return -1;
+			}
+
+			@Override
+			public ServletInputStream getInputStream() {
+				return new DelegatingServletInputStream(new ByteArrayInputStream(bytes) {
+					@Override
+					public synchronized int read(byte[] b, int off, int len) {
+						int n = super.read(b, off, len);
+						read.addAndGet(Math.max(n, 0));
+						return n;
+					}
+
+					@Override
+					public synchronized int read() {
+						read.incrementAndGet();
+						return super.read();
+					}
+				});
+			}
+		};
+		Assertions.assertThrows(RequestBodyTooLargeException.class, () -> RequestBodyHolder.of(chunked, 4096));
+		Assertions.assertTrue(read.get() <= 4097, String.valueOf(read.get()));
+
+		// 恰好等于上限时正常读取，已缓存的 body 同样按上限检查
+		MockHttpServletRequest request = request(bytes, opened);
+		Assertions.assertEquals(bytes.length, RequestBodyHolder.of(request, bytes.length).length());
+		Assertions.assertThrows(RequestBodyTooLargeException.class, () -> RequestBodyHolder.of(request, 100));
+		Assertions.assertThrows(RequestBodyTooLargeException.class,
+			() -> new HttpCacheRequestWrapper(request, 100).getInputStream());
+		Assertions.assertEquals(bytes.length, new HttpCacheRequestWrapper(request).getBody().length());
+	}
+
+	/**
+	 * 记录原始输入流被打开次数的 request
+	 */
+	private static MockHttpServletRequest request(byte[] body, AtomicInteger opened) {
+		MockHttpServletRequest request = new MockHttpServletRequest() {
+			@Override
+			public ServletInputStream getInputStream() {
+				opened.incrementAndGet();
+				return super.getInputStream();
+			}
+		};
+		request.setContent(body);
+		return request;
+	}
+}
@@ -0,0 +1,85 @@
+package club.gclmit.gear4j.core.http.servlet;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import club.gclmit.gear4j.core.utils.ServletUtils;
+
+/**
+ * ServletMapView 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/1 16:30
+ * @since jdk11
+ */
+@DisplayName("ServletMapView 测试")
+public class ServletMapViewTest {
+
+	@Test
+	@DisplayName("请求头、响应头视图")
+	public void headers() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept", "application/json");
+		request.addHeader("X-Trace", "a");
+		request.addHeader("X-Trace", "b");
+		Map<String, String> headers = ServletUtils.getRequestHeadersView(request);
+		Assertions.assertEquals(2, headers.size());
+		Assertions.assertEquals("application/json", headers.get("accept"));
+		Assertions.assertEquals("a", headers.get("X-Trace"));
+		Assertions.assertTrue(headers.containsKey("ACCEPT"));
+		Assertions.assertFalse(headers.containsKey("Cookie"));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> headers.put("Cookie", "x"));
+
+		// 视图不复制数据，之后加入的请求头也能看到
+		request.addHeader("Cookie", "id=1");
+		Assertions.assertEquals("id=1", headers.get("Cookie"));
+		Assertions.assertEquals(Map.of("Accept", "application/json", "X-Trace", "a", "Cookie", "id=1"), headers);
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.addHeader("ETag", "\"v1\"");
+		Assertions.assertEquals(Map.of("ETag", "\"v1\""), ServletUtils.getResponseHeadersView(response));
+	}
+
+	@Test
+	@DisplayName("请求参数视图只包含单值非空参数")
+	public void parameters() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addParameter("name", "gear4j");
+		request.addParameter("ids", "1", "2");
+		request.addParameter("empty", "");
+		Map<String, String> params = ServletUtils.getPathParamsView(request);
+		Assertions.assertEquals(Map.of("name", "gear4j"), params);
+		Assertions.assertNull(params.get("ids"));
+		Assertions.assertFalse(params.containsKey("empty"));
+	}
+
+	@Test
+	@DisplayName("非视图方法返回独立的副本")
+	public void copies() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept", "application/json");
+		request.addParameter("name", "gear4j");
+		request.addParameter("ids", "1", "2");
+		Map<String, String> headers = ServletUtils.getRequestHeaders(request);
+		Map<String, String> params = ServletUtils.getPathParams(request);
+		request.addHeader("Cookie", "id=1");
+		request.addParameter("page", "1");
+		Assertions.assertEquals(Map.of("Accept", "application/json"), headers);
+		Assertions.assertEquals(Map.of("name", "gear4j"), params);
+		headers.put("Cookie", "x");
+		params.remove("name");
+		Assertions.assertEquals("id=1", request.getHeader("Cookie"));
+		Assertions.assertEquals("gear4j", request.getParameter("name"));
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.addHeader("ETag", "\"v1\"");
+		Map<String, String> responseHeaders = ServletUtils.getResponseHeaders(response);
+		response.addHeader("Cache-Control", "no-cache");
+		Assertions.assertEquals(Map.of("ETag", "\"v1\""), responseHeaders);
+	}
+}
@@ -0,0 +1,53 @@
+package club.gclmit.gear4j.core.json;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import club.gclmit.gear4j.core.Benchmarks;
+import club.gclmit.gear4j.core.json.JsonCodecTest.Result;
+import club.gclmit.gear4j.core.json.JsonCodecTest.Trace;
+
+/**
+ * JsonCodec 基准测试，对比 Jackson 与 fastjson 实现
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/2 11:00
+ * @since jdk11
+ */
+@Tag(Benchmarks.TAG)
+@DisplayName("JsonCodec 基准测试")
+public class JsonCodecBenchmark {
+
+	private static final int SMALL = 50_000;
+
+	private static final int LARGE = 2_000;
+
+	@Test
+	@DisplayName("序列化耗时")
+	void codec() throws Exception {
+		Trace trace = JsonCodecTest.trace();
+		Result<List<Trace>> result = JsonCodecTest.result();
+		Map<String, Object> dingtalk = JsonCodecTest.dingtalk();
+		String traceJson = JsonCodecs.get(JacksonJsonCodec.NAME).toJson(trace);
+		String resultJson = JsonCodecs.get(JacksonJsonCodec.NAME).toJson(result);
+		ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+		for (String name : new String[] {JacksonJsonCodec.NAME, FastjsonJsonCodec.NAME}) {
+			JsonCodec codec = JsonCodecs.get(name);
+			Benchmarks.run(name + " toJson trace", SMALL, SMALL, () -> codec.toJson(trace));
+			Benchmarks.run(name + " toJson result", LARGE, LARGE, () -> codec.toJson(result));
+			Benchmarks.run(name + " writeTo result", LARGE, LARGE, () -> {
+				out.reset();
+				codec.writeTo(result, out);
+			});
+			Benchmarks.run(name + " toJson dingtalk", SMALL, SMALL, () -> codec.toJson(dingtalk));
+			Benchmarks.run(name + " parse trace", SMALL, SMALL, () -> codec.parse(traceJson, Trace.class));
+			Benchmarks.run(name + " parseMap result", LARGE, LARGE, () -> codec.parseMap(resultJson));
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package club.gclmit.gear4j.core.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * JsonCodec 测试
+ * <p>
+ * 核心模块的测试看不到 logger 的 ApiTraceRecord 和 starter 的 ApiResult，这里用字段相同的 {@link Trace}、{@link Result} 代替
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/2 11:00
+ * @since jdk11
+ */
+@DisplayName("JsonCodec 测试")
+public class JsonCodecTest {
+
+	private final JsonCodec jackson = JsonCodecs.get(JacksonJsonCodec.NAME);
+
+	private final JsonCodec fastjson = JsonCodecs.get(FastjsonJsonCodec.NAME);
+
+	@Data
+	@NoArgsConstructor
+	public static class Trace {
+		private Long id;
+		private String clientIp;
+		private String uri;
+		private String contentType;
+		private String method;
+		private String sessionId;
+		private Long requestTime;
+		private int httpCode;
+		private Long consumingTime;
+		private Long responseTime;
+		private String requestBody;
+		private String responseBody;
+		private String requestHeader;
+		private String responseHeader;
+		private String userAgent;
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Result<T> {
+		private Integer code;
+		private String message;
+		private String timestamp;
+		private T data;
+	}
+
+	static Trace trace() {
+		Trace trace = new Trace();
+		trace.setId(1554000000000000001L);
+		trace.setClientIp("203.0.113.9");
+		trace.setUri("/api/v1/users/42");
+		trace.setContentType("application/json");
+		trace.setMethod("POST");
+		trace.setRequestTime(1659405600L);
+		trace.setHttpCode(200);
+		trace.setConsumingTime(12L);
+		trace.setResponseTime(1659405600L);
+		trace.setRequestBody("{\"name\":\"张三\",\"tags\":[\"a\",\"b\"]}");
+		trace.setResponseBody("{\"code\":200,\"message\":\"成功\"}");
+		trace.setRequestHeader("{\"host\":\"localhost\",\"accept\":\"*/*\"}");
+		trace.setResponseHeader("{\"content-type\":\"application/json\"}");
+		trace.setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 \"quoted\"\n");
+		return trace;
+	}
+
+	static Result<List<Trace>> result() {
+		List<Trace> data = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Trace trace = trace();
+			trace.setId(trace.getId() + i);
+			data.add(trace);
+		}
+		return new Result<>(200, "成功", "1659405600000", data);
+	}
+
+	/**
+	 * 与 DingtalkChannel.Markdown 发送的内容结构相同
+	 */
+	static Map<String, Object> dingtalk() {
+		Map<String, Object> at = new LinkedHashMap<>();
+		at.put("isAtAll", false);
+		at.put("atMobiles", List.of("13800000000", "13900000000"));
+		at.put("atUserIds", null);
+		Map<String, Object> markdown = new LinkedHashMap<>();
+		markdown.put("title", "告警");
+		markdown.put("text", "#### 接口异常 \n> /api/v1/users/42 耗时 3000ms\n> ![screenshot](https://example.com/a.png)");
+		Map<String, Object> object = new LinkedHashMap<>();
+		object.put("msgtype", "markdown");
+		object.put("at", at);
+		object.put("markdown", markdown);
+		return object;
+	}
+
+	@Test
+	@DisplayName("两种实现输出一致")
+	void consistent() throws Exception {
+		for (Object payload : new Object[] {trace(), result(), dingtalk()}) {
+			Assertions.assertEquals(jackson.parseMap(jackson.toJson(payload)), jackson.parseMap(fastjson.toJson(payload)));
+		}
+		// null 值不输出
+		for (JsonCodec codec : new JsonCodec[] {jackson, fastjson}) {
+			Assertions.assertFalse(codec.toJson(trace()).contains("sessionId"), codec.name());
+			Assertions.assertFalse(codec.toJson(dingtalk()).contains("atUserIds"), codec.name());
+		}
+		// 日期格式
+		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+		Map<String, Object> date = Map.of("time", format.parse("2022-08-02 10:00:00"));
+		Assertions.assertEquals("{\"time\":\"2022-08-02 10:00:00\"}", jackson.toJson(date));
+		Assertions.assertEquals("{\"time\":\"2022-08-02 10:00:00\"}", fastjson.toJson(date));
+	}
+
+	@Test
+	@DisplayName("序列化与反序列化")
+	void codec() {
+		Trace trace = trace();
+		for (JsonCodec codec : new JsonCodec[] {jackson, fastjson}) {
+			String json = codec.toJson(trace);
+			Assertions.assertEquals(trace, codec.parse(json, Trace.class), codec.name());
+			Assertions.assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), codec.toJsonBytes(trace), codec.name());
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			codec.writeTo(trace, out);
+			Assertions.assertEquals(json, out.toString(StandardCharsets.UTF_8), codec.name());
+			StringWriter writer = new StringWriter();
+			codec.writeTo(trace, writer);
+			Assertions.assertEquals(json, writer.toString(), codec.name());
+
+			List<Trace> list = codec.parseList(codec.toJson(List.of(trace, trace)), Trace.class);
+			Assertions.assertEquals(List.of(trace, trace), list, codec.name());
+
+			Map<String, Object> map = codec.parseMap("{\"errcode\":0,\"data\":{\"path\":\"/a.png\"},\"list\":[\"x\"]}");
+			Assertions.assertEquals(0, ((Number) map.get("errcode")).intValue(), codec.name());
+			Assertions.assertEquals("/a.png", ((Map<?, ?>) map.get("data")).get("path"), codec.name());
+			Assertions.assertEquals(List.of("x"), map.get("list"), codec.name());
+
+			Assertions.assertThrows(Gear4jException.class, () -> codec.parse("{\"id\":", Trace.class), codec.name());
+			Assertions.assertThrows(Gear4jException.class, () -> codec.parseMap("[1,2"), codec.name());
+		}
+	}
+
+	@Test
+	@DisplayName("按名称选择实现")
+	void registry() {
+		Assertions.assertSame(jackson, JsonCodecs.get("jackson"));
+		Assertions.assertSame(fastjson, JsonCodecs.get("fastjson"));
+		Assertions.assertEquals(System.getProperty(JsonCodecs.PROPERTY, JacksonJsonCodec.NAME),
+			JsonCodecs.getDefault().name());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> JsonCodecs.get("gson"));
+
+		JsonCodec previous = JsonCodecs.getDefault();
+		try {
+			JsonCodecs.setDefault(fastjson);
+			Assertions.assertSame(fastjson, JsonCodecs.getDefault());
+		} finally {
+			JsonCodecs.setDefault(previous);
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package club.gclmit.gear4j.core.lang;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+/**
+ * ErrorAggregator 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/26 11:02
+ * @since jdk11
+ */
+@DisplayName("ErrorAggregator 测试")
+public class ErrorAggregatorTest {
+
+	private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+	private Logger logger() {
+		Logger logger = (Logger) LoggerFactory.getLogger(ErrorAggregatorTest.class);
+		logger.setAdditive(false);
+		logger.detachAndStopAllAppenders();
+		appender.start();
+		logger.addAppender(appender);
+		return logger;
+	}
+
+	private List<String> messages() {
+		return appender.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.toList());
+	}
+
+	private long stacks() {
+		return appender.list.stream().filter(event -> event.getThrowableProxy() != null).count();
+	}
+
+	@Test
+	@DisplayName("重复异常只输出一次堆栈并按窗口汇总")
+	public void aggregate() {
+		try (ErrorAggregator aggregator = new ErrorAggregator(logger(), 60, ErrorAggregator.DEFAULT_FRAMES)) {
+			for (int i = 0; i < 1000; i++) {
+				aggregator.record("查询失败", fail("connection refused " + i));
+			}
+			aggregator.record("参数错误", new IllegalArgumentException("bad"));
+			aggregator.flush();
+
+			Assertions.assertEquals(2, stacks());
+			Assertions.assertTrue(messages().contains(
+				"异常在最近 60 秒内重复 999 次：java.lang.IllegalStateException: connection refused 999"));
+			Assertions.assertEquals(3, messages().size());
+		}
+	}
+
+	@Test
+	@DisplayName("窗口内未出现的指纹移除后重新输出堆栈")
+	public void retire() {
+		// 只取 fail 和 query 两帧，不同位置的调用指纹相同
+		try (ErrorAggregator aggregator = new ErrorAggregator(logger(), 60, 2)) {
+			query(aggregator, "first");
+			aggregator.flush();
+			// 没有重复，不输出汇总；下一个窗口没有出现则移除
+			aggregator.flush();
+			Assertions.assertEquals(List.of("查询失败"), messages());
+
+			query(aggregator, "second");
+			query(aggregator, "third");
+			aggregator.flush();
+			Assertions.assertEquals(2, stacks());
+			Assertions.assertEquals(List.of("查询失败", "查询失败",
+				"异常在最近 60 秒内重复 1 次：java.lang.IllegalStateException: third"), messages());
+		}
+	}
+
+	@Test
+	@DisplayName("并发记录时汇总不丢失次数")
+	public void concurrent() throws InterruptedException {
+		try (ErrorAggregator aggregator = new ErrorAggregator(logger(), 60, ErrorAggregator.DEFAULT_FRAMES)) {
+			int threads = 4;
+			int times = 20_000;
+			Thread[] workers = new Thread[threads];
+			for (int t = 0; t < threads; t++) {
+				workers[t] = new Thread(() -> {
+					for (int i = 0; i < times; i++) {
+						aggregator.record("查询失败", fail("busy"));
+					}
+				});
+				workers[t].start();
+			}
+			// 记录期间反复汇总，计数器会被清零或移除
+			while (Arrays.stream(workers).anyMatch(Thread::isAlive)) {
+				aggregator.flush();
+			}
+			for (Thread worker : workers) {
+				worker.join();
+			}
+			aggregator.flush();
+
+			long total = stacks();
+			for (String message : messages()) {
+				if (message.startsWith("异常在最近")) {
+					total += Long.parseLong(message.split(" ")[3]);
+				}
+			}
+			Assertions.assertEquals((long) threads * times, total);
+		}
+	}
+
+	@Test
+	@DisplayName("关闭后输出最后一次汇总")
+	public void close() {
+		ErrorAggregator aggregator = new ErrorAggregator(logger(), 60, ErrorAggregator.DEFAULT_FRAMES);
+		for (int i = 0; i < 2; i++) {
+			aggregator.record("查询失败", fail("closing"));
+		}
+		aggregator.close();
+		Assertions.assertEquals(2, messages().size());
+		aggregator.close();
+		Assertions.assertEquals(2, messages().size());
+	}
+
+	private static void query(ErrorAggregator aggregator, String message) {
+		aggregator.record("查询失败", fail(message));
+	}
+
+	private static IllegalStateException fail(String message) {
+		return new IllegalStateException(message);
+	}
+}
@@ -0,0 +1,80 @@
+package club.gclmit.gear4j.core.lang;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import club.gclmit.gear4j.core.Benchmarks;
+
+/**
+ * Log 基准测试，对比旧版基于 getStackTrace 的实现
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/20 10:12
+ * @since jdk11
+ */
+@Tag(Benchmarks.TAG)
+@DisplayName("Log 基准测试")
+public class LogBenchmark {
+
+	private static final int WARMUP = 20_000;
+
+	private static final int ROUNDS = 100_000;
+
+	@BeforeAll
+	public static void init() {
+		// INFO 开启、TRACE 关闭，且不挂载 appender，只测量 Log 本身的开销
+		Logger logger = (Logger) LoggerFactory.getLogger(LogBenchmark.class);
+		logger.setLevel(Level.INFO);
+		logger.setAdditive(false);
+	}
+
+	@Test
+	@DisplayName("关闭级别调用耗时")
+	public void disabled() throws Exception {
+		Benchmarks.run("legacy trace", WARMUP, ROUNDS, () -> LegacyLog.trace("disabled {} {}", "a", 1));
+		Benchmarks.run("log trace", WARMUP, ROUNDS, () -> Log.trace("disabled {} {}", "a", 1));
+	}
+
+	@Test
+	@DisplayName("开启级别调用耗时")
+	public void enabled() throws Exception {
+		Benchmarks.run("legacy info", WARMUP, ROUNDS, () -> LegacyLog.info("enabled {} {}", "a", 1));
+		Benchmarks.run("log info", WARMUP, ROUNDS, () -> Log.info("enabled {} {}", "a", 1));
+	}
+
+	/**
+	 * 旧版实现：每次调用抓取完整堆栈、查找 Logger 并格式化消息
+	 */
+	private static class LegacyLog {
+
+		private static org.slf4j.Logger log() {
+			StackTraceElement caller = null;
+			boolean isEachLogFlag = false;
+			for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+				if (element.getClassName().equals(LegacyLog.class.getName())) {
+					isEachLogFlag = true;
+				}
+				if (isEachLogFlag && !element.getClassName().equals(LegacyLog.class.getName())) {
+					caller = element;
+					break;
+				}
+			}
+			String name = caller == null ? LegacyLog.class.getName() : caller.getClassName();
+			return LoggerFactory.getLogger(name.substring(0, name.indexOf('$') < 0 ? name.length() : name.indexOf('$')));
+		}
+
+		static void trace(String format, Object... args) {
+			log().trace(String.format("%s", MessageFormatter.arrayFormat(format, args).getMessage()));
+		}
+
+		static void info(String format, Object... args) {
+			log().info(String.format("%s", MessageFormatter.arrayFormat(format, args).getMessage()));
+		}
+	}
+}
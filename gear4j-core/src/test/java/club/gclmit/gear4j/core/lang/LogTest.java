@@ -0,0 +1,39 @@
+package club.gclmit.gear4j.core.lang;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Log 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/20 10:12
+ * @since jdk11
+ */
+@DisplayName("Log 测试")
+public class LogTest {
+
+	@BeforeAll
+	public static void init() {
+		// INFO 开启、TRACE 关闭
+		Logger logger = (Logger) LoggerFactory.getLogger(LogTest.class);
+		logger.setLevel(Level.INFO);
+		logger.setAdditive(false);
+	}
+
+	@Test
+	@DisplayName("延迟参数在级别关闭时不计算")
+	public void lazy() {
+		int[] counter = {0};
+		Log.trace("trace {}", () -> ++counter[0]);
+		Assertions.assertEquals(0, counter[0]);
+		Log.info(LoggerProvider.GEAR4J, "info {}", () -> ++counter[0]);
+		Assertions.assertEquals(1, counter[0]);
+	}
+}
@@ -0,0 +1,49 @@
+package club.gclmit.gear4j.core.utils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import club.gclmit.gear4j.core.Benchmarks;
+import club.gclmit.gear4j.core.beans.ChaosConversionService;
+
+/**
+ * ConvertUtils 基准测试，对比 spring 默认转换
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/21 15:40
+ * @since jdk11
+ */
+@Tag(Benchmarks.TAG)
+@DisplayName("ConvertUtils 基准测试")
+public class ConvertUtilsBenchmark {
+
+	private static final int WARMUP = 50_000;
+
+	private static final int ROUNDS = 500_000;
+
+	@Test
+	@DisplayName("请求参数转换耗时")
+	public void convert() throws Exception {
+		ChaosConversionService conversionService = ChaosConversionService.getInstance();
+		Benchmarks.run("spring", WARMUP, ROUNDS, () -> {
+			conversionService.convert("20", Integer.class);
+			conversionService.convert("1658390400000", long.class);
+			conversionService.convert("true", Boolean.class);
+			conversionService.convert("DAYS", TimeUnit.class);
+			conversionService.convert("9.90", BigDecimal.class);
+			conversionService.convert("3.5", Double.class);
+		});
+		Benchmarks.run("convert", WARMUP, ROUNDS, () -> {
+			ConvertUtils.convert("20", Integer.class);
+			ConvertUtils.convert("1658390400000", long.class);
+			ConvertUtils.convert("true", Boolean.class);
+			ConvertUtils.convert("DAYS", TimeUnit.class);
+			ConvertUtils.convert("9.90", BigDecimal.class);
+			ConvertUtils.convert("3.5", Double.class);
+		});
+	}
+}
@@ -0,0 +1,53 @@
+package club.gclmit.gear4j.core.utils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.ConversionFailedException;
+
+import club.gclmit.gear4j.core.beans.ChaosConversionService;
+
+/**
+ * ConvertUtils 测试，快速路径与缓存转换器需要和 spring 默认转换结果一致
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/21 15:40
+ * @since jdk11
+ */
+@DisplayName("ConvertUtils 测试")
+public class ConvertUtilsTest {
+
+	private static final String[] SOURCES = {"1", "-20", "+7", "0x1F", "010", "2147483648", "", " ", " 12 ", "true",
+		"ON", "no", "0", "9.90", "1e3", "2022-07-21", " 2022-07-21", "7/21/22", "SECONDS", " DAYS", "abc"};
+
+	private static final Class<?>[] TARGETS = {Integer.class, int.class, Long.class, long.class, Boolean.class,
+		boolean.class, BigDecimal.class, LocalDate.class, TimeUnit.class, Double.class, String.class};
+
+	@Test
+	@DisplayName("与 spring 转换结果一致")
+	public void compatible() {
+		ChaosConversionService conversionService = ChaosConversionService.getInstance();
+		for (String source : SOURCES) {
+			for (Class<?> target : TARGETS) {
+				if (target == LocalDate.class && source.equals("2022-07-21")) {
+					// spring 默认只按本地化短格式解析，ISO 日期由快速路径额外支持
+					Assertions.assertEquals(LocalDate.of(2022, 7, 21), ConvertUtils.convert(source, target));
+					continue;
+				}
+				Object expected;
+				try {
+					expected = conversionService.convert(source, target);
+				} catch (ConversionFailedException e) {
+					Assertions.assertThrows(ConversionFailedException.class, () -> ConvertUtils.convert(source, target),
+						() -> "[" + source + "] -> " + target);
+					continue;
+				}
+				Assertions.assertEquals(expected, ConvertUtils.convert(source, target), () -> "[" + source + "] -> " + target);
+			}
+		}
+	}
+}
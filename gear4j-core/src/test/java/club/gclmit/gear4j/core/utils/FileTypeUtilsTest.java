@@ -204,13 +204,24 @@
 
 package club.gclmit.gear4j.core.utils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.util.ResourceUtils;
 
+import cn.hutool.core.io.FileTypeUtil;
+import cn.hutool.core.util.HexUtil;
+
 /**
  * <p>
  * FileUtils 测试工具类
@@ -240,4 +251,50 @@ public class FileTypeUtilsTest {
 		System.out.println("============================");
 	}
 
+	@Test
+	@DisplayName("与 hutool 的识别结果一致")
+	public void parity() throws IOException {
+		for (String name : new String[] {"test1.jpg", "test1-1.jpeg", "test1-2.png", "test1-3.pdf", "alipay.jpg"}) {
+			File file = new File(path, name);
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				Assertions.assertEquals(FileTypeUtil.getType(in, name), FileTypeUtils.getType(file), name);
+			}
+		}
+		String[][] cases = {{"504B0304", "a.docx"}, {"504B0304", "a.zip"}, {"504B0304", "a.txt"},
+			{"504B03040a0000000000", "a.xlsx"}, {"d0cf11e0a1b11ae100", "a.doc"}, {"d0cf11e0a1b11ae1f0", "a.xls"},
+			{"00000020667479706a", "a.mp4"}, {"52494646e27807005741", "a.wav"}, {"52494646000000", "a.webp"},
+			{"0102030405", "a.bin"}, {"0102030405", "noext"}};
+		for (String[] item : cases) {
+			byte[] header = HexUtil.decodeHex(item[0]);
+			Assertions.assertEquals(FileTypeUtil.getType(new ByteArrayInputStream(header), item[1]),
+				FileTypeUtils.getType(new ByteArrayInputStream(header), item[1]), item[0] + " " + item[1]);
+		}
+	}
+
+	@Test
+	@DisplayName("识别类型后流可以继续完整读取")
+	public void peek() throws IOException {
+		byte[] data = new byte[10 * 1024];
+		new Random(5).nextBytes(data);
+		byte[] header = "%PDF-1.4\n".getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(header, 0, data, 0, header.length);
+		InputStream in = FileTypeUtils.peekable(new ByteArrayInputStream(data) {
+			@Override
+			public boolean markSupported() {
+				return false;
+			}
+		});
+		Assertions.assertEquals("pdf", FileTypeUtils.getType(in, "upload"));
+		Assertions.assertEquals("application/pdf", MimeTypeUtils.getMimeType(in, "upload"));
+		Assertions.assertArrayEquals(data, in.readAllBytes());
+	}
+
+	@Test
+	@DisplayName("扩展名到 MIME 类型")
+	public void mimeType() {
+		Assertions.assertEquals("image/jpeg", MimeTypeUtils.getMimeType("JPG"));
+		Assertions.assertEquals("application/pdf", MimeTypeUtils.getMimeTypeByName("a.pdf"));
+		Assertions.assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE, MimeTypeUtils.getMimeType("no-such-ext"));
+		Assertions.assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE, MimeTypeUtils.getMimeType(""));
+	}
 }
@@ -0,0 +1,95 @@
+package club.gclmit.gear4j.core.utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import club.gclmit.gear4j.core.Benchmarks;
+
+/**
+ * FileUtils 基准测试，大文件去空白、按行读取与内存映射扫描
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/1 10:00
+ * @since jdk11
+ */
+@Tag(Benchmarks.TAG)
+@DisplayName("FileUtils 基准测试")
+public class FileUtilsBenchmark {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	@DisplayName("100MB 文件读取耗时")
+	void read() throws Exception {
+		// 原实现在 100MB 文件上需要约 5 倍文件大小的堆，超过测试 JVM 的 512MB，只在 16MB 文件上对照
+		Path small = write(dir.resolve("small.txt"), 16);
+		Benchmarks.run("legacy getContentTrim 16MB", 0, 1, () -> legacyContentTrim(small.toFile()));
+		Benchmarks.run("getContentTrim 16MB", 0, 1, () -> FileUtils.getContentTrim(small, StandardCharsets.UTF_8));
+
+		Path file = write(dir.resolve("large.txt"), 100);
+		Benchmarks.run("getContentTrim 100MB", 0, 1, () -> FileUtils.getContentTrim(file, StandardCharsets.UTF_8));
+		long[] count = new long[2];
+		Benchmarks.run("lines().count() 100MB", 0, 1, () -> {
+			try (Stream<String> lines = FileUtils.lines(file, StandardCharsets.UTF_8)) {
+				count[0] = lines.count();
+			}
+		});
+		Benchmarks.run("mapContent scan 100MB", 0, 1, () -> {
+			CharSequence chars = FileUtils.mapContent(file, StandardCharsets.US_ASCII);
+			for (int i = 0; i < chars.length(); i++) {
+				if (chars.charAt(i) == '\n') {
+					count[1]++;
+				}
+			}
+		});
+		Assertions.assertEquals(100 * 1024 * 1024 / 100, count[0]);
+		Assertions.assertEquals(count[0], count[1]);
+	}
+
+	/**
+	 * 生成指定大小（MB）的文本文件，每行 100 字节，约 1/8 为空格
+	 */
+	private static Path write(Path file, int megabytes) throws IOException {
+		Random random = new Random(megabytes);
+		char[] line = new char[100];
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < megabytes * 1024 * 1024 / line.length; i++) {
+				for (int j = 0; j < line.length - 1; j++) {
+					line[j] = random.nextInt(8) == 0 ? ' ' : (char) ('a' + random.nextInt(26));
+				}
+				line[line.length - 1] = '\n';
+				writer.write(line);
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * 原 getContent + replaceAll 实现，作为耗时对照
+	 */
+	private static String legacyContentTrim(File file) throws IOException {
+		StringBuilder str = new StringBuilder();
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				str.append(line);
+			}
+		}
+		return str.toString().replaceAll("\\s*", "");
+	}
+}
@@ -206,11 +206,21 @@ package club.gclmit.gear4j.core.utils;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.util.ResourceUtils;
 
 /**
@@ -246,4 +256,44 @@ public class FileUtilsTest {
 		System.out.println(FileUtils.getMimeType(path +"test1-2.png"));
 		System.out.println(FileUtils.getMimeType(path +"test1-3.pdf"));
 	}
+
+	@TempDir
+	Path dir;
+
+	@Test
+	@DisplayName("单次遍历去除空白字符")
+	void getContentTrim() throws IOException {
+		String content = " {\n\t\"名称\" : \"gear4j\",\r\n\u000B\"版本\":\f 1 }\n\n";
+		Path file = dir.resolve("trim.json");
+		Files.writeString(file, content, StandardCharsets.UTF_8);
+		Assertions.assertEquals(content.replaceAll("\\s*", ""), FileUtils.getContentTrim(file, StandardCharsets.UTF_8));
+		// 全部是空白的文件
+		Files.writeString(file, " \n\t\r\n ");
+		Assertions.assertEquals("", FileUtils.getContentTrim(file.toFile()));
+	}
+
+	@Test
+	@DisplayName("按行读取与内存映射")
+	void linesAndMap() throws IOException {
+		Path file = dir.resolve("lines.txt");
+		Files.writeString(file, "第一行\nsecond\r\nthird", StandardCharsets.UTF_8);
+		try (Stream<String> lines = FileUtils.lines(file, StandardCharsets.UTF_8)) {
+			Assertions.assertEquals(List.of("第一行", "second", "third"), lines.collect(Collectors.toList()));
+		}
+
+		CharSequence utf8 = FileUtils.mapContent(file, StandardCharsets.UTF_8);
+		Assertions.assertEquals("第一行\nsecond\r\nthird", utf8.toString());
+
+		Path ascii = dir.resolve("ascii.txt");
+		Files.writeString(ascii, "key=value\nother=1", StandardCharsets.US_ASCII);
+		CharSequence chars = FileUtils.mapContent(ascii, StandardCharsets.US_ASCII);
+		Assertions.assertEquals(17, chars.length());
+		Assertions.assertEquals('v', chars.charAt(4));
+		Assertions.assertEquals("value", chars.subSequence(4, 9).toString());
+		Assertions.assertTrue(Pattern.compile("other=(\\d)").matcher(chars).find());
+
+		MappedByteBuffer buffer = FileUtils.map(ascii);
+		Assertions.assertEquals(17, buffer.remaining());
+		Assertions.assertTrue(buffer.isReadOnly());
+	}
 }
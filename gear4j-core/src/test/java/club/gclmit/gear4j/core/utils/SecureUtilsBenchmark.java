@@ -0,0 +1,53 @@
+package club.gclmit.gear4j.core.utils;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import club.gclmit.gear4j.core.Benchmarks;
+import club.gclmit.gear4j.core.lang.DigestType;
+
+/**
+ * SecureUtils 基准测试，64MB 文件对比流式摘要与不同并行度的树形摘要
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/29 16:00
+ * @since jdk11
+ */
+@Tag(Benchmarks.TAG)
+@DisplayName("SecureUtils 基准测试")
+public class SecureUtilsBenchmark {
+
+	private static final int ROUNDS = 3;
+
+	@Test
+	@DisplayName("树形摘要耗时")
+	public void treeHash(@TempDir Path dir) throws Exception {
+		byte[] block = new byte[1024 * 1024];
+		new Random(3).nextBytes(block);
+		Path path = dir.resolve("large.bin");
+		try (OutputStream out = Files.newOutputStream(path)) {
+			for (int i = 0; i < 64; i++) {
+				out.write(block);
+			}
+		}
+
+		Benchmarks.run("md5 stream 64MB", 1, ROUNDS, () -> SecureUtils.digest(path, DigestType.MD5));
+		for (int parallelism : new int[] {1, 4, 16}) {
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				Benchmarks.run("md5 tree " + parallelism + " threads 64MB", 1, ROUNDS,
+					() -> SecureUtils.treeHash(path, DigestType.MD5, 1024 * 1024, pool));
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+}
@@ -204,14 +204,30 @@
 
 package club.gclmit.gear4j.core.utils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.KeyPair;
-
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
 
+import club.gclmit.gear4j.core.lang.DigestType;
+import club.gclmit.gear4j.core.lang.TreeHash;
 import cn.hutool.core.codec.Base64;
+import cn.hutool.core.util.HexUtil;
 import cn.hutool.crypto.SecureUtil;
 import cn.hutool.crypto.asymmetric.KeyType;
 import cn.hutool.crypto.asymmetric.RSA;
@@ -291,4 +307,84 @@ public class SecureUtilsTest {
 		}
 		System.out.println("***************** 私钥加密公钥解密结束 *****************");
 	}
+
+	@Test
+	@DisplayName("一次读取计算多个摘要")
+	public void digest(@TempDir Path dir) throws IOException {
+		// 跨过多个缓冲区
+		byte[] data = new byte[200 * 1024 + 3];
+		new Random(7).nextBytes(data);
+		Path path = dir.resolve("data.bin");
+		Files.write(path, data);
+		CRC32C crc = new CRC32C();
+		crc.update(data);
+
+		DigestType[] types = DigestType.values();
+		Map<DigestType, String> expected = Map.of(DigestType.MD5, SecureUtil.md5().digestHex(data),
+			DigestType.SHA1, SecureUtil.sha1().digestHex(data), DigestType.SHA256, SecureUtil.sha256().digestHex(data),
+			DigestType.CRC32C, String.format("%08x", crc.getValue()));
+		Assertions.assertEquals(expected, SecureUtils.digest(path, types));
+		Assertions.assertEquals(expected, SecureUtils.digest(path.toFile(), types));
+		Assertions.assertEquals(expected, SecureUtils.digest(new ByteArrayInputStream(data), types));
+		Assertions.assertEquals(expected, SecureUtils.digest(new MockMultipartFile("file", data), types));
+		Assertions.assertEquals(expected.get(DigestType.MD5), SecureUtils.md5(new MockMultipartFile("file", data)));
+		Assertions.assertEquals(expected.get(DigestType.SHA1), SecureUtils.sha1(new MockMultipartFile("file", data)));
+		Assertions.assertEquals(SecureUtil.md5().digestHex(new byte[0]),
+			SecureUtils.digest(new ByteArrayInputStream(new byte[0]), DigestType.MD5).get(DigestType.MD5));
+	}
+
+	@Test
+	@DisplayName("文件比较")
+	public void checkFile(@TempDir Path dir) throws IOException {
+		File a = Files.write(dir.resolve("a"), new byte[] {1, 2, 3}).toFile();
+		File b = Files.write(dir.resolve("b"), new byte[] {1, 2, 3}).toFile();
+		File c = Files.write(dir.resolve("c"), new byte[] {1, 2, 4}).toFile();
+		File d = Files.write(dir.resolve("d"), new byte[] {1, 2}).toFile();
+		Assertions.assertTrue(FileUtils.checkFile(a, b));
+		Assertions.assertFalse(FileUtils.checkFile(a, c));
+		Assertions.assertFalse(FileUtils.checkFile(a, d));
+	}
+
+	@Test
+	@DisplayName("树形摘要")
+	public void treeHash(@TempDir Path dir) throws Exception {
+		byte[] data = new byte[3 * 1024 + 100];
+		new Random(11).nextBytes(data);
+		Path path = Files.write(dir.resolve("data.bin"), data);
+
+		TreeHash hash = SecureUtils.treeHash(path, DigestType.SHA256, 1024, ForkJoinPool.commonPool());
+		Assertions.assertEquals(4, hash.getChunkDigests().size());
+		Assertions.assertEquals(data.length, hash.getLength());
+		for (int i = 0; i < 4; i++) {
+			byte[] chunk = Arrays.copyOfRange(data, i * 1024, Math.min(data.length, (i + 1) * 1024));
+			Assertions.assertEquals(SecureUtil.sha256().digestHex(chunk), hash.getChunkDigests().get(i));
+		}
+		// 4 块：root = node(node(leaf0, leaf1), node(leaf2, leaf3))
+		byte[][] leaves = new byte[4][];
+		for (int i = 0; i < 4; i++) {
+			leaves[i] = sha256(new byte[] {0}, HexUtil.decodeHex(hash.getChunkDigests().get(i)));
+		}
+		byte[] root = sha256(new byte[] {1}, sha256(new byte[] {1}, leaves[0], leaves[1]),
+			sha256(new byte[] {1}, leaves[2], leaves[3]));
+		Assertions.assertEquals(HexUtil.encodeHexStr(root), hash.getRoot());
+
+		// 结果与并行度无关
+		ForkJoinPool single = new ForkJoinPool(1);
+		Assertions.assertEquals(hash.getRoot(), SecureUtils.treeHash(path, DigestType.SHA256, 1024, single).getRoot());
+		single.shutdown();
+
+		// 空文件也有确定的根摘要
+		TreeHash empty = SecureUtils.treeHash(Files.write(dir.resolve("empty"), new byte[0]), DigestType.MD5);
+		Assertions.assertEquals(1, empty.getChunkDigests().size());
+		Assertions.assertEquals(SecureUtil.md5().digestHex(new byte[0]), empty.getChunkDigests().get(0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> SecureUtils.treeHash(path, DigestType.CRC32C));
+	}
+
+	private static byte[] sha256(byte[]... parts) throws Exception {
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		for (byte[] part : parts) {
+			digest.update(part);
+		}
+		return digest.digest();
+	}
 }
@@ -0,0 +1,113 @@
+package club.gclmit.gear4j.core.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import club.gclmit.gear4j.core.lang.ProcessExecutor;
+
+/**
+ * ShellUtils 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/31 11:30
+ * @since jdk11
+ */
+@DisplayName("ShellUtils 测试")
+@DisabledOnOs(OS.WINDOWS)
+public class ShellUtilsTest {
+
+	@Test
+	@DisplayName("输出超过管道缓冲区时不阻塞")
+	void largeOutput() {
+		// 约 1MB stdout + 1MB stderr，远大于 64KB 的管道缓冲区
+		String cmd = "i=0; while [ $i -lt 20000 ]; do echo \"line $i 0123456789012345678901234567890123456789\";"
+			+ " echo \"err $i 0123456789012345678901234567890123456789\" >&2; i=$((i+1)); done";
+		ProcessExecutor.Result result = ShellUtils.execAsync(cmd).join();
+		Assertions.assertTrue(result.isSuccess());
+		Assertions.assertEquals(20000, result.getStdout().split("\n").length);
+		Assertions.assertEquals(20000, result.getStderr().split("\n").length);
+
+		List<String> lines = ShellUtils.execForLines("echo a; echo b");
+		Assertions.assertEquals(List.of("a", "b"), lines);
+		Assertions.assertEquals("hello\n", ShellUtils.execForString("echo hello"));
+		Assertions.assertNull(ShellUtils.exec("exit 3"));
+	}
+
+	@Test
+	@DisplayName("没有回调时保留原始字节")
+	void rawOutput() throws IOException {
+		byte[] expected = {'a', '\r', '\n', 'b', 0, (byte) 0xff, '\n', 'c'};
+		String cmd = "printf 'a\\r\\nb\\000\\377\\nc'";
+		Assertions.assertArrayEquals(expected, ShellUtils.execAsync(cmd).join().getStdoutBytes());
+		Assertions.assertArrayEquals(expected, ShellUtils.exec(cmd).readAllBytes());
+		Assertions.assertEquals("x\r\ny", ShellUtils.execForString("printf 'x\\r\\ny'"));
+	}
+
+	@Test
+	@DisplayName("按行回调输出")
+	void lineCallback() {
+		List<String> out = Collections.synchronizedList(new ArrayList<>());
+		List<String> err = Collections.synchronizedList(new ArrayList<>());
+		ProcessExecutor.Result result = ShellUtils.execAsync("echo 1; echo 2 >&2; echo 3; exit 2", Duration.ZERO,
+			out::add, err::add).join();
+		Assertions.assertEquals(2, result.getExitCode());
+		Assertions.assertFalse(result.isSuccess());
+		Assertions.assertEquals(List.of("1", "3"), out);
+		Assertions.assertEquals(List.of("2"), err);
+		Assertions.assertEquals("", result.getStdout());
+	}
+
+	@Test
+	@DisplayName("超时后结束进程树")
+	void timeout() throws Exception {
+		List<String> out = Collections.synchronizedList(new ArrayList<>());
+		long start = System.nanoTime();
+		ProcessExecutor.Result result = ShellUtils.execAsync("sleep 30 & echo $!; wait", Duration.ofMillis(500),
+			out::add, null).get(10, TimeUnit.SECONDS);
+		Assertions.assertTrue(result.isTimedOut());
+		Assertions.assertEquals(-1, result.getExitCode());
+		Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 10000);
+
+		// 后台子进程被托管给 init 后才回收，等待最多 5 秒
+		long child = Long.parseLong(out.get(0));
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (ProcessHandle.of(child).map(ProcessHandle::isAlive).orElse(false) && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		Assertions.assertFalse(ProcessHandle.of(child).map(ProcessHandle::isAlive).orElse(false));
+	}
+
+	@Test
+	@DisplayName("限制同时运行的进程数")
+	void maxProcesses() {
+		ProcessExecutor executor = new ProcessExecutor(2, Duration.ofSeconds(10), StandardCharsets.UTF_8);
+		try {
+			List<CompletableFuture<ProcessExecutor.Result>> futures = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executor.execute(List.of("/bin/sh", "-c", "sleep 0.5")));
+			}
+			futures.forEach(future -> Assertions.assertTrue(future.join().isSuccess()));
+			// 4 个命令每次只运行 2 个，至少需要两轮
+			Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1000);
+
+			CompletableFuture<ProcessExecutor.Result> cancelled = executor.execute(List.of("/bin/sh", "-c", "sleep 30"));
+			Assertions.assertTrue(cancelled.cancel(true));
+			Assertions.assertTrue(executor.execute(List.of("/bin/sh", "-c", "echo ok")).join().isSuccess());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
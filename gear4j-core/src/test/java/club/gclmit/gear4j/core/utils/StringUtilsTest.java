@@ -0,0 +1,104 @@
+package club.gclmit.gear4j.core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import club.gclmit.gear4j.core.pojo.User;
+
+/**
+ * StringUtils 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/21 11:30
+ * @since jdk11
+ */
+@DisplayName("StringUtils 测试")
+public class StringUtilsTest {
+
+	@Test
+	@DisplayName("反射toString")
+	public void reflectToString() {
+		Assertions.assertEquals("null", StringUtils.toString(null));
+		Assertions.assertEquals("User{id=1111, name=null, role=1}", StringUtils.toString(new User("1111", "", 1)));
+	}
+
+	@Test
+	@DisplayName("反射toString长度与深度限制")
+	public void limit() {
+		Page page = new Page();
+		for (int i = 0; i < 10_000; i++) {
+			page.records.add(new User("id-" + i, "name-" + i, i));
+		}
+		page.nested.add(List.of(List.of(List.of("deep"))));
+
+		String result = StringUtils.toString(page, 256);
+		Assertions.assertEquals(256 + 3, result.length());
+		Assertions.assertTrue(result.startsWith("Page{records=[User{id='id-0', name='name-0', role=0}, User{id='id-1"));
+		Assertions.assertTrue(result.endsWith("..."));
+
+		page.records.clear();
+		Assertions.assertEquals("Page{records=null, nested=[[[...]]]}", StringUtils.toString(page));
+	}
+
+	@Test
+	@DisplayName("未重写 toString 的嵌套对象按字段展开")
+	public void nested() {
+		Node node = new Node("a");
+		node.next = node;
+		Assertions.assertEquals("Node{name=a, next=Node{name=a, next=Node{name=a, next=Node{...}}}}",
+			StringUtils.toString(node));
+
+		Node head = new Node("x".repeat(100));
+		head.next = new Node("y".repeat(100));
+		String result = StringUtils.toString(head, 120);
+		Assertions.assertEquals(120 + 3, result.length());
+		Assertions.assertTrue(result.endsWith(", next=Nod..."));
+	}
+
+	@Test
+	@DisplayName("重写了 toString 的嵌套对象调用其 toString")
+	public void customToString() {
+		Holder holder = new Holder();
+		Assertions.assertEquals("Holder{proxy=proxy, node=Node{name=a, next=null}}", StringUtils.toString(holder));
+		Assertions.assertEquals(1, holder.proxy.calls);
+		// 顶层对象始终按字段展开
+		Assertions.assertEquals("Proxy{target=target, calls=1}", StringUtils.toString(holder.proxy));
+	}
+
+	private static class Node {
+		private final String name;
+		private Node next;
+
+		Node(String name) {
+			this.name = name;
+		}
+	}
+
+	/**
+	 * 模拟框架代理，字段不应被反射读取
+	 */
+	private static class Proxy {
+		private final String target = "target";
+		private int calls;
+
+		@Override
+		public String toString() {
+			calls++;
+			return "proxy";
+		}
+	}
+
+	private static class Holder {
+		private final Proxy proxy = new Proxy();
+		private final Node node = new Node("a");
+	}
+
+	private static class Page {
+		private final List<User> records = new ArrayList<>();
+		private final List<Object> nested = new ArrayList<>();
+	}
+}
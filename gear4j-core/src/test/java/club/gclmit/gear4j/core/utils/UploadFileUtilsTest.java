@@ -0,0 +1,87 @@
+package club.gclmit.gear4j.core.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.lang.DigestType;
+import cn.hutool.core.util.HexUtil;
+
+/**
+ * UploadFileUtils 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/30 11:20
+ * @since jdk11
+ */
+@DisplayName("UploadFileUtils 测试")
+public class UploadFileUtilsTest {
+
+	@TempDir
+	Path dir;
+
+	private static byte[] file(String hexHead, int size) {
+		byte[] data = new byte[size];
+		new Random(size).nextBytes(data);
+		byte[] head = HexUtil.decodeHex(hexHead);
+		System.arraycopy(head, 0, data, 0, head.length);
+		return data;
+	}
+
+	@Test
+	@DisplayName("一次读取完成识别、保存和摘要")
+	public void save() throws IOException {
+		// 超过首块大小，走 transferFrom
+		byte[] data = file("ffd8ffe0", 300 * 1024 + 5);
+		MockMultipartFile upload = new MockMultipartFile("file", "photo.png", "image/png", data);
+		UploadFileUtils.SavedFile saved = UploadFileUtils.save(upload, dir.toString(),
+			UploadFileUtils.DEFAULT_ALLOWED_EXTENSIONS, true, DigestType.MD5, DigestType.SHA1);
+
+		Assertions.assertEquals("jpg", saved.getSuffix());
+		Assertions.assertEquals(data.length, saved.getSize());
+		Assertions.assertArrayEquals(data, Files.readAllBytes(saved.getFile().toPath()));
+		String name = saved.getFile().getName();
+		Assertions.assertEquals(name.substring(0, 2), saved.getFile().getParentFile().getName());
+		Assertions.assertEquals(SecureUtils.digest(saved.getFile(), DigestType.MD5, DigestType.SHA1),
+			saved.getDigests());
+	}
+
+	@Test
+	@DisplayName("小文件和 List 白名单")
+	public void small() throws IOException {
+		byte[] data = file("255044462d312e34", 100);
+		// 白名单不区分大小写，可以包含 null
+		File file = UploadFileUtils.toFile(new MockMultipartFile("file", "a.pdf", null, data), dir.toString(),
+			Arrays.asList("PDF", null));
+		Assertions.assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+		// toFile 不分目录
+		Assertions.assertEquals(dir.toFile(), file.getParentFile());
+		Map<DigestType, String> digests = UploadFileUtils.save(new MockMultipartFile("file", "a.pdf", null, data),
+			dir.toString(), Set.of("pdf")).getDigests();
+		Assertions.assertTrue(digests.isEmpty());
+	}
+
+	@Test
+	@DisplayName("不允许的类型在写入前拒绝")
+	public void reject() throws IOException {
+		byte[] data = file("4d5a9000030000000400", 1024);
+		MockMultipartFile upload = new MockMultipartFile("file", "setup.jpg", null, data);
+		Assertions.assertThrows(Gear4jException.class, () -> UploadFileUtils.toFile(upload, dir.toString()));
+		try (Stream<Path> files = Files.list(dir)) {
+			Assertions.assertEquals(0, files.count());
+		}
+	}
+}
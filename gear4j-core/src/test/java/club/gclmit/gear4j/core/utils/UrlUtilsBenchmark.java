@@ -0,0 +1,57 @@
+package club.gclmit.gear4j.core.utils;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import club.gclmit.gear4j.core.Benchmarks;
+import club.gclmit.gear4j.core.lang.UrlCodec;
+
+/**
+ * UrlUtils 基准测试，对比原编码检测与 JDK 的 URLEncoder、URLDecoder
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/1 16:00
+ * @since jdk11
+ */
+@Tag(Benchmarks.TAG)
+@DisplayName("UrlUtils 基准测试")
+public class UrlUtilsBenchmark {
+
+	private static final int SHORT = 200_000;
+
+	private static final int LONG = 200;
+
+	@Test
+	@DisplayName("编解码耗时")
+	void codec() throws Exception {
+		StringJoiner joiner = new StringJoiner(",");
+		long id = 1_500_000_000_000_000_000L;
+		while (joiner.length() < 100 * 1024) {
+			joiner.add(String.valueOf(id++));
+		}
+		String shortIds = "1550000000000000001,1550000000000000002";
+		String longIds = joiner.toString();
+		String shortEncoded = URLEncoder.encode(shortIds, StandardCharsets.UTF_8);
+		String longEncoded = URLEncoder.encode(longIds, StandardCharsets.UTF_8);
+
+		Benchmarks.run("legacy hasUrlEncoded short", SHORT, SHORT, () -> UrlUtilsTest.legacyHasUrlEncoded(shortEncoded));
+		Benchmarks.run("hasUrlEncoded short", SHORT, SHORT, () -> UrlUtils.hasUrlEncoded(shortEncoded));
+		// 原实现每个字符重建 BitSet，100KB 只执行 20 次
+		Benchmarks.run("legacy hasUrlEncoded 100KB", 20, 20, () -> UrlUtilsTest.legacyHasUrlEncoded(longEncoded));
+		Benchmarks.run("hasUrlEncoded 100KB", LONG, LONG, () -> UrlUtils.hasUrlEncoded(longEncoded));
+		Benchmarks.run("URLEncoder short", SHORT, SHORT, () -> URLEncoder.encode(shortIds, StandardCharsets.UTF_8));
+		Benchmarks.run("UrlCodec.encode short", SHORT, SHORT, () -> UrlCodec.encode(shortIds));
+		Benchmarks.run("URLEncoder 100KB", LONG, LONG, () -> URLEncoder.encode(longIds, StandardCharsets.UTF_8));
+		Benchmarks.run("UrlCodec.encode 100KB", LONG, LONG, () -> UrlCodec.encode(longIds));
+		Benchmarks.run("URLDecoder short", SHORT, SHORT, () -> URLDecoder.decode(shortEncoded, StandardCharsets.UTF_8));
+		Benchmarks.run("UrlCodec.decode short", SHORT, SHORT, () -> UrlCodec.decode(shortEncoded));
+		Benchmarks.run("URLDecoder 100KB", LONG, LONG, () -> URLDecoder.decode(longEncoded, StandardCharsets.UTF_8));
+		Benchmarks.run("UrlCodec.decode 100KB", LONG, LONG, () -> UrlCodec.decode(longEncoded));
+	}
+}
@@ -204,8 +204,18 @@
 
 package club.gclmit.gear4j.core.utils;
 
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import club.gclmit.gear4j.core.lang.UrlCodec;
+
 /**
  * UrlUtils 测试工具类
  *
@@ -220,4 +230,79 @@ public class UrlUtilsTest {
 		System.out.println(UrlUtils.hasUrlEncoded("13%2C14%2C15"));
 		System.out.println(UrlUtils.hasUrlEncoded("13,14,15"));
 	}
+
+	@Test
+	@DisplayName("编码检测与原实现一致")
+	void hasUrlEncoded() {
+		String[] inputs = {"", "13%2C14%2C15", "13,14,15", "a+b", "%2c", "%2", "abc%", "%E4%B8%AD", "中文", "a b",
+			"-_.*", "%%41"};
+		for (String input : inputs) {
+			Assertions.assertEquals(legacyHasUrlEncoded(input), UrlUtils.hasUrlEncoded(input), input);
+		}
+	}
+
+	@Test
+	@DisplayName("编解码与 URLEncoder、URLDecoder 一致")
+	void codec() {
+		String[] inputs = {"", "abc-_.*", "a b+c", "13,14,15", "中文 & emoji \uD83D\uDE00", "~!@#$%^&()=[]{}|\\:;'\"<>?/",
+			"é\u0080\u07FF\u0800\uFFFF"};
+		for (Charset charset : new Charset[] {StandardCharsets.UTF_8, Charset.forName("GBK")}) {
+			for (String input : inputs) {
+				String encoded = URLEncoder.encode(input, charset);
+				Assertions.assertEquals(encoded, UrlCodec.encode(input, charset), input);
+				Assertions.assertEquals(URLDecoder.decode(encoded, charset), UrlCodec.decode(encoded, charset));
+				Assertions.assertTrue(UrlCodec.isEncoded(encoded), encoded);
+			}
+		}
+		for (String input : inputs) {
+			Assertions.assertEquals(input, UrlCodec.decode(UrlCodec.encode(input)), input);
+		}
+		// 小写十六进制可以解码，格式不正确的 % 原样保留
+		Assertions.assertEquals(",", UrlCodec.decode("%2c"));
+		Assertions.assertEquals("100%", UrlCodec.decode("100%"));
+		Assertions.assertEquals("%zz 1", UrlCodec.decode("%zz+1"));
+		// 孤立的代理字符与 String#getBytes 一样替换为 ?
+		Assertions.assertEquals("%3F", UrlCodec.encode("\uD83D"));
+
+		// 不需要处理时返回原字符串
+		String plain = "abcDEF123";
+		Assertions.assertSame(plain, UrlCodec.encode(plain));
+		Assertions.assertSame(plain, UrlCodec.decode(plain));
+
+		// 复用缓冲区
+		StringBuilder buffer = new StringBuilder();
+		UrlCodec.encode("a b", StandardCharsets.UTF_8, buffer).append('&');
+		UrlCodec.encode("中", StandardCharsets.UTF_8, buffer);
+		Assertions.assertEquals("a+b&%E4%B8%AD", buffer.toString());
+		buffer.setLength(0);
+		Assertions.assertEquals("a b中", UrlCodec.decode("a+b%E4%B8%AD", StandardCharsets.UTF_8, buffer).toString());
+	}
+
+	/**
+	 * 原 hasUrlEncoded 实现，每个字符都重新构建一次 BitSet，作为结果与耗时对照
+	 */
+	static boolean legacyHasUrlEncoded(String str) {
+		boolean needEncode = false;
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			BitSet dontNeedEncoding = UrlUtils.getDontNeedEncoding();
+			if (dontNeedEncoding.get((int) c)) {
+				continue;
+			}
+			if (c == '%' && (i + 2) < str.length()) {
+				char c1 = str.charAt(++i);
+				char c2 = str.charAt(++i);
+				if (isDigit16Char(c1) && isDigit16Char(c2)) {
+					continue;
+				}
+			}
+			needEncode = true;
+			break;
+		}
+		return !needEncode;
+	}
+
+	private static boolean isDigit16Char(char c) {
+		return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F');
+	}
 }
@@ -0,0 +1,257 @@
+package club.gclmit.gear4j.core.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.lang.ParallelZipWriter;
+
+/**
+ * ZipUtils 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/30 16:10
+ * @since jdk11
+ */
+@DisplayName("ZipUtils 测试")
+public class ZipUtilsTest {
+
+	@TempDir
+	Path dir;
+
+	private static byte[] data(int size) {
+		byte[] data = new byte[size];
+		Random random = new Random(size);
+		for (int i = 0; i < size; i++) {
+			// 一半随机一半重复，兼顾可压缩性
+			data[i] = (byte) (i % 2 == 0 ? random.nextInt() : 'a');
+		}
+		return data;
+	}
+
+	@Test
+	@DisplayName("并行压缩按添加顺序输出")
+	void parallelWriter() throws IOException {
+		Path zip = dir.resolve("test.zip");
+		List<byte[]> contents = new ArrayList<>();
+		// 阈值 64KB，较大的条目会转存到临时文件
+		try (ParallelZipWriter writer = new ParallelZipWriter(Files.newOutputStream(zip), 4,
+			Deflater.DEFAULT_COMPRESSION, 64 * 1024)) {
+			for (int i = 0; i < 20; i++) {
+				byte[] content = data(i * 17 * 1024);
+				contents.add(content);
+				ZipEntry entry = new ZipEntry("目录/文件-" + i + ".bin");
+				entry.setMethod(i % 3 == 0 ? ZipEntry.STORED : ZipEntry.DEFLATED);
+				writer.add(entry, () -> new ByteArrayInputStream(content));
+			}
+			writer.add("空目录/", null);
+		}
+
+		try (ZipFile file = new ZipFile(zip.toFile())) {
+			List<? extends ZipEntry> entries = Collections.list(file.entries());
+			Assertions.assertEquals(21, entries.size());
+			for (int i = 0; i < 20; i++) {
+				ZipEntry entry = entries.get(i);
+				Assertions.assertEquals("目录/文件-" + i + ".bin", entry.getName());
+				Assertions.assertEquals(i % 3 == 0 ? ZipEntry.STORED : ZipEntry.DEFLATED, entry.getMethod());
+				Assertions.assertArrayEquals(contents.get(i), file.getInputStream(entry).readAllBytes());
+			}
+			Assertions.assertTrue(entries.get(20).isDirectory());
+		}
+	}
+
+	@Test
+	@DisplayName("条目内容按需打开")
+	void lazySupplier() throws IOException {
+		AtomicInteger opened = new AtomicInteger();
+		AtomicInteger maxOpen = new AtomicInteger();
+		AtomicInteger open = new AtomicInteger();
+		try (ParallelZipWriter writer = new ParallelZipWriter(OutputStream.nullOutputStream(), 2,
+			Deflater.BEST_SPEED, 1024 * 1024)) {
+			for (int i = 0; i < 50; i++) {
+				writer.add("file-" + i, () -> {
+					opened.incrementAndGet();
+					maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+					return new ByteArrayInputStream(data(4096)) {
+						@Override
+						public void close() {
+							open.decrementAndGet();
+						}
+					};
+				});
+			}
+		}
+		Assertions.assertEquals(50, opened.get());
+		Assertions.assertEquals(0, open.get());
+		Assertions.assertTrue(maxOpen.get() <= 2);
+	}
+
+	@Test
+	@DisplayName("条目数超过 65535 时使用 Zip64")
+	void zip64() throws IOException {
+		Path zip = dir.resolve("zip64.zip");
+		int count = 70000;
+		try (ParallelZipWriter writer = ZipUtils.parallelWriter(Files.newOutputStream(zip))) {
+			for (int i = 0; i < count; i++) {
+				ZipEntry entry = new ZipEntry("e" + i);
+				entry.setMethod(ZipEntry.STORED);
+				String content = String.valueOf(i);
+				writer.add(entry, () -> new ByteArrayInputStream(content.getBytes()));
+			}
+		}
+		try (ZipFile file = new ZipFile(zip.toFile())) {
+			Assertions.assertEquals(count, file.size());
+			Assertions.assertEquals("69999", new String(file.getInputStream(file.getEntry("e69999")).readAllBytes()));
+		}
+	}
+
+	@Test
+	@DisplayName("压缩目录")
+	void parallelZip() throws IOException {
+		Path source = Files.createDirectories(dir.resolve("source/sub"));
+		Files.write(source.resolve("a.txt"), data(1000));
+		Path zip = dir.resolve("dir.zip");
+		ZipUtils.parallelZip(source.getParent().toFile(), Files.newOutputStream(zip));
+		try (ZipFile file = new ZipFile(zip.toFile())) {
+			Assertions.assertArrayEquals(data(1000), file.getInputStream(file.getEntry("sub/a.txt")).readAllBytes());
+			Assertions.assertTrue(file.getEntry("sub/").isDirectory());
+		}
+	}
+
+	@Test
+	@DisplayName("条目读取失败时抛出异常并关闭输出流")
+	void failure() throws IOException {
+		AtomicBoolean closed = new AtomicBoolean();
+		OutputStream out = new FilterOutputStream(OutputStream.nullOutputStream()) {
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		};
+		CountDownLatch added = new CountDownLatch(1);
+		ParallelZipWriter writer = new ParallelZipWriter(out);
+		writer.add("broken", () -> {
+			await(added);
+			throw new IOException("读取失败");
+		});
+		added.countDown();
+		Assertions.assertThrows(IOException.class, writer::close);
+		Assertions.assertTrue(closed.get());
+
+		// 失败由下一次 add 抛出时，close 仍然关闭输出流
+		closed.set(false);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ParallelZipWriter failed = new ParallelZipWriter(out, executor, 1, Deflater.DEFAULT_COMPRESSION,
+				ParallelZipWriter.DEFAULT_SPILL_THRESHOLD);
+			CountDownLatch first = new CountDownLatch(1);
+			failed.add("broken", () -> {
+				await(first);
+				throw new IOException("读取失败");
+			});
+			first.countDown();
+			Assertions.assertThrows(IOException.class, () -> failed.add("a.txt", () -> new ByteArrayInputStream(data(10))));
+			Assertions.assertThrows(IOException.class, () -> failed.add("b.txt", () -> new ByteArrayInputStream(data(10))));
+			failed.close();
+			Assertions.assertTrue(closed.get());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Assertions.assertThrows(Gear4jException.class,
+			() -> ZipUtils.parallelZip(dir.resolve("missing").toFile(), OutputStream.nullOutputStream()));
+	}
+
+	@Test
+	@DisplayName("出错后完成的条目删除临时文件")
+	void discardSpill() throws IOException, InterruptedException {
+		Set<Path> before = spills();
+		CountDownLatch spilled = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// 阈值 1 字节，条目内容全部转存到临时文件
+			ParallelZipWriter writer = new ParallelZipWriter(OutputStream.nullOutputStream(), executor, 2,
+				Deflater.NO_COMPRESSION, 1);
+			writer.add("broken", () -> {
+				await(spilled);
+				throw new IOException("读取失败");
+			});
+			writer.add("slow.bin", () -> new InputStream() {
+				private int count;
+
+				@Override
+				public int read() {
+					if (count == 1024) {
+						spilled.countDown();
+						// 忽略中断，在写入器丢弃之后才完成
+						awaitUninterruptibly(release);
+						return -1;
+					}
+					return count++ & 0xff;
+				}
+			});
+			Assertions.assertThrows(IOException.class, writer::close);
+			release.countDown();
+			executor.shutdown();
+			Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+			Assertions.assertEquals(before, spills());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Set<Path> spills() throws IOException {
+		try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+			return files.filter(file -> file.getFileName().toString().startsWith("gear4j-zip-"))
+				.collect(Collectors.toSet());
+		}
+	}
+
+	private static void await(CountDownLatch latch) throws IOException {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		while (true) {
+			try {
+				latch.await();
+				return;
+			} catch (InterruptedException ignored) {
+				// 模拟不响应中断的数据源
+			}
+		}
+	}
+}
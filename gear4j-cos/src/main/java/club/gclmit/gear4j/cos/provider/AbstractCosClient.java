@@ -246,7 +246,7 @@ public abstract class AbstractCosClient implements CosClient {
 	 * @return {@link FileInfo} 文件信息
 	 */
 	public FileInfo buildFileInfo(File file) {
-		String contentType = FileUtils.getMimeType(file.getAbsolutePath());
+		String contentType = MimeTypeUtils.getMimeTypeByName(file.getName());
 		String key = buildKey(cosProvider.getPrefix(), FileUtils.getSuffix(file));
 		return FileInfo.builder().ossKey(key).ossType(cosProvider.getProvider()).name(file.getName()).contentType(contentType)
 			.size(file.length()).md5(SecureUtils.md5(file)).sha1(SecureUtils.sha1(file)).build();
@@ -141,6 +141,7 @@
 package club.gclmit.gear4j.cos.provider.impl;
 
 import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -152,12 +153,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 
-import com.alibaba.fastjson.JSONObject;
 import com.ejlchina.okhttps.HttpResult;
-import com.ejlchina.okhttps.OkHttps;
 
 import club.gclmit.gear4j.core.exception.Gear4jException;
 import club.gclmit.gear4j.core.http.HttpClient;
+import club.gclmit.gear4j.core.http.HttpClientProfile;
+import club.gclmit.gear4j.core.http.HttpClients;
+import club.gclmit.gear4j.core.json.JsonCodecs;
 import club.gclmit.gear4j.core.utils.IoUtils;
 import club.gclmit.gear4j.core.utils.StringUtils;
 import club.gclmit.gear4j.cos.domain.CosProvider;
@@ -176,6 +178,16 @@ public class GoFastdfsCosClient extends AbstractCosClient implements CosClient {
 
     private static final Logger log = LoggerFactory.getLogger(GoFastdfsCosClient.class);
 
+    /**
+     * HTTP 客户端配置档，上传大文件需要更长的读写超时
+     */
+    public static final String HTTP_PROFILE = "gofastdfs";
+
+    static {
+        HttpClients.registerIfAbsent(HttpClientProfile.builder().name(HTTP_PROFILE).readTimeout(Duration.ofMinutes(2))
+            .writeTimeout(Duration.ofMinutes(2)).build());
+    }
+
     private final String serverUrl;
 
     /**
@@ -210,7 +222,7 @@ public class GoFastdfsCosClient extends AbstractCosClient implements CosClient {
     public void delete(String key) {
         Assert.hasLength(key, "[FastDFS]删除文件的key不能为空");
         String url = serverUrl + "delete?path=" + key;
-        String result = OkHttps.async(url).addHeader(HttpClient.header()).get().getResult().getBody().toString();
+        String result = HttpClients.get(HTTP_PROFILE).async(url).addHeader(HttpClient.header()).get().getResult().getBody().toString();
         log.info("当前删除状态:[{}]", result);
     }
 
@@ -239,16 +251,16 @@ public class GoFastdfsCosClient extends AbstractCosClient implements CosClient {
 
             String fileName = fileInfo.getOssKey().replace(dateFormat + "/", "");
 
-            HttpResult result = OkHttps.async(uploadUrl).addHeader(HttpClient.header()).addBodyPara(params)
+            HttpResult result = HttpClients.get(HTTP_PROFILE).async(uploadUrl).addHeader(HttpClient.header()).addBodyPara(params)
                 .addFilePara("file", fileInfo.getContentType(), fileName, IoUtils.readBytes(inputStream)).post()
                 .getResult();
             if (result.isSuccessful()) {
                 String body = StringUtils.trimAll(result.getBody().cache().toString());
-                JSONObject mapper = JSONObject.parseObject(body);
-                if (mapper.containsKey("data")) {
-                    mapper = mapper.getJSONObject("data");
-                    url = mapper.getString("domain") + mapper.getString("path");
-                    fileInfo.setOssKey(mapper.getString("path"));
+                Object data = JsonCodecs.getDefault().parseMap(body).get("data");
+                if (data instanceof Map) {
+                    Map<?, ?> mapper = (Map<?, ?>) data;
+                    url = StringUtils.format("{}{}", mapper.get("domain"), mapper.get("path"));
+                    fileInfo.setOssKey(String.valueOf(mapper.get("path")));
                 }
             }
 
@@ -1,13 +1,16 @@
 package club.gclmit.gear4j.extra.notify.dingtalk;
 
 import java.net.URLEncoder;
+import java.time.Duration;
 
 import org.springframework.http.HttpStatus;
 
-import com.alibaba.fastjson.JSONObject;
 import com.ejlchina.okhttps.HttpResult;
 import com.ejlchina.okhttps.OkHttps;
 
+import club.gclmit.gear4j.core.http.HttpClientProfile;
+import club.gclmit.gear4j.core.http.HttpClients;
+import club.gclmit.gear4j.core.json.JsonCodecs;
 import club.gclmit.gear4j.core.utils.SecureUtils;
 import club.gclmit.gear4j.core.utils.StringUtils;
 import cn.hutool.core.util.CharsetUtil;
@@ -24,6 +27,16 @@ public class DingtalkBot {
     public static final String SERVER_API = "https://oapi.dingtalk.com/robot/send?access_token=%s&timestamp=%s&sign=%s";
     public static final String SERVER_HOST = "https://oapi.dingtalk.com/robot/send?access_token=";
 
+    /**
+     * HTTP 客户端配置档，webhook 调用频率低，只保留少量连接
+     */
+    public static final String HTTP_PROFILE = "dingtalk";
+
+    static {
+        HttpClients.registerIfAbsent(HttpClientProfile.builder().name(HTTP_PROFILE).maxIdleConnections(2)
+            .maxRequestsPerHost(2).connectTimeout(Duration.ofSeconds(5)).build());
+    }
+
     private String webhook;
     private String secret;
 
@@ -76,11 +89,13 @@ public class DingtalkBot {
         long millis = System.currentTimeMillis();
         String accessToken = webhook.replace(SERVER_HOST, "");
         String url = String.format(SERVER_API, accessToken, millis, getSign(millis, secret));
-        HttpResult result = OkHttps.async(url).setBodyPara(content).bodyType(OkHttps.JSON).post().getResult();
+        HttpResult result =
+            HttpClients.get(HTTP_PROFILE).async(url).setBodyPara(content).bodyType(OkHttps.JSON).post().getResult();
         String body = result.getBody().toString();
         System.out.println(StringUtils.format("钉钉消息发送({}): -->{}", result.getStatus(), body));
         if (HttpStatus.OK.value() == result.getStatus()) {
-            return 0 == JSONObject.parseObject(body).getInteger("errcode");
+            Object errcode = JsonCodecs.getDefault().parseMap(body).get("errcode");
+            return errcode instanceof Number && ((Number) errcode).intValue() == 0;
         }
         return false;
     }
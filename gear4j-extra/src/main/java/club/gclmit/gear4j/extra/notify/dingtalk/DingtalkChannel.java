@@ -1,8 +1,10 @@
 package club.gclmit.gear4j.extra.notify.dingtalk;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import com.alibaba.fastjson.JSONObject;
+import club.gclmit.gear4j.core.json.JsonCodecs;
 
 /**
  * 封装钉钉消息通道
@@ -136,7 +138,7 @@ public class DingtalkChannel {
         }
 
         public boolean send() {
-            JSONObject actionCard = new JSONObject();
+            Map<String, Object> actionCard = new LinkedHashMap<>();
             actionCard.put("title", title);
             actionCard.put("text", text);
             actionCard.put("btnOrientation", btnOrientation);
@@ -144,11 +146,11 @@ public class DingtalkChannel {
             actionCard.put("singleURL", singleUrl);
             actionCard.put("btns", buttons);
 
-            JSONObject object = new JSONObject();
+            Map<String, Object> object = new LinkedHashMap<>();
             object.put("msgtype", "actionCard");
             object.put("actionCard", actionCard);
 
-            String content = object.toJSONString();
+            String content = JsonCodecs.getDefault().toJson(object);
             return dingtalkBot.send(content);
         }
     }
@@ -213,15 +215,15 @@ public class DingtalkChannel {
         }
 
         public boolean send() {
-            JSONObject link = new JSONObject();
+            Map<String, Object> link = new LinkedHashMap<>();
             link.put("text", text);
             link.put("title", title);
             link.put("picUrl", picUrl);
             link.put("messageUrl", messageUrl);
-            JSONObject object = new JSONObject();
+            Map<String, Object> object = new LinkedHashMap<>();
             object.put("msgtype", "link");
             object.put("link", link);
-            String content = object.toJSONString();
+            String content = JsonCodecs.getDefault().toJson(object);
             return dingtalkBot.send(content);
         }
     }
@@ -273,20 +275,20 @@ public class DingtalkChannel {
         }
 
         public boolean send() {
-            JSONObject at = new JSONObject();
+            Map<String, Object> at = new LinkedHashMap<>();
             at.put("isAtAll", atAll);
             at.put("atMobiles", mobiles);
             at.put("atUserIds", userIds);
 
-            JSONObject markdown = new JSONObject();
+            Map<String, Object> markdown = new LinkedHashMap<>();
             markdown.put("title", title);
             markdown.put("text", text);
 
-            JSONObject object = new JSONObject();
+            Map<String, Object> object = new LinkedHashMap<>();
             object.put("msgtype", "markdown");
             object.put("at", at);
             object.put("markdown", markdown);
-            String content = object.toJSONString();
+            String content = JsonCodecs.getDefault().toJson(object);
             return dingtalkBot.send(content);
         }
     }
@@ -328,18 +330,18 @@ public class DingtalkChannel {
         }
 
         public boolean send() {
-            JSONObject at = new JSONObject();
+            Map<String, Object> at = new LinkedHashMap<>();
             at.put("isAtAll", atAll);
             at.put("atMobiles", mobiles);
             at.put("atUserIds", userIds);
-            JSONObject text = new JSONObject();
+            Map<String, Object> text = new LinkedHashMap<>();
             text.put("content", content);
 
-            JSONObject object = new JSONObject();
+            Map<String, Object> object = new LinkedHashMap<>();
             object.put("msgtype", "text");
             object.put("at", at);
             object.put("text", text);
-            String content = object.toJSONString();
+            String content = JsonCodecs.getDefault().toJson(object);
             return dingtalkBot.send(content);
         }
     }
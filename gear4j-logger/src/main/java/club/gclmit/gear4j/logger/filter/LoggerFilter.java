@@ -221,8 +221,7 @@ import org.springframework.core.Ordered;
 import org.springframework.web.context.support.WebApplicationContextUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.alibaba.fastjson.JSONObject;
-
+import club.gclmit.gear4j.core.http.servlet.HeaderJsonWriter;
 import club.gclmit.gear4j.core.http.servlet.HttpCacheRequestWrapper;
 import club.gclmit.gear4j.core.http.servlet.HttpCacheResponseWrapper;
 import club.gclmit.gear4j.core.lang.Builder;
@@ -249,6 +248,8 @@ public class LoggerFilter extends OncePerRequestFilter implements Ordered {
 	@Autowired
 	private LoggerProperties config;
 
+	private volatile HeaderJsonWriter headerWriter;
+
 	/**
 	 * 获取Bean对象
 	 *
@@ -297,8 +298,8 @@ public class LoggerFilter extends OncePerRequestFilter implements Ordered {
 				.val(ApiTraceRecord::setRequestTime, requestTime)
 				.val(ApiTraceRecord::setResponseTime, responseTime)
 				.val(ApiTraceRecord::setConsumingTime, time)
-				.val(ApiTraceRecord::setResponseHeader, JSONObject.toJSONString(ServletUtils.getResponseHeaders(response)))
-				.val(ApiTraceRecord::setRequestHeader, JSONObject.toJSONString(ServletUtils.getRequestHeaders(request)))
+				.val(ApiTraceRecord::setResponseHeader, headerWriter().responseHeaders(response))
+				.val(ApiTraceRecord::setRequestHeader, headerWriter().requestHeaders(request))
 				.val(ApiTraceRecord::setRequestBody, ServletUtils.getRequestBody(httpCacheRequestWrapper))
 				.val(ApiTraceRecord::setResponseBody, ServletUtils.getResponseBody(responseWrapper))
 				.build();
@@ -316,6 +317,19 @@ public class LoggerFilter extends OncePerRequestFilter implements Ordered {
 		}
 	}
 
+	/**
+	 * 按配置的黑白名单创建，配置在启动后不再变化，并发创建的结果相同
+	 */
+	private HeaderJsonWriter headerWriter() {
+		HeaderJsonWriter writer = headerWriter;
+		if (writer == null) {
+			writer = new HeaderJsonWriter(Arrays.asList(config.getHeaderAllowlist()),
+				Arrays.asList(config.getHeaderDenylist()));
+			headerWriter = writer;
+		}
+		return writer;
+	}
+
 	/**
 	 * 效验当前请求是否需要忽略
 	 *
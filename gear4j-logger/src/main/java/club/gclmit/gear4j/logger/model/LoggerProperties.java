@@ -206,6 +206,8 @@ package club.gclmit.gear4j.logger.model;
 
 import java.util.Arrays;
 
+import club.gclmit.gear4j.core.http.servlet.HeaderJsonWriter;
+
 /**
  * <p>
  * 日志配置工具类
@@ -233,6 +235,15 @@ public class LoggerProperties {
 	 */
 	private Boolean save = false;
 
+	/**
+	 * 需要记录的请求头、响应头，为空时记录全部
+	 */
+	private String[] headerAllowlist = {};
+
+	/**
+	 * 不记录的请求头、响应头，优先于 headerAllowlist
+	 */
+	private String[] headerDenylist = HeaderJsonWriter.DEFAULT_DENYLIST.toArray(new String[0]);
 
 	public String getPrefix() {
 		return prefix;
@@ -258,12 +269,30 @@ public class LoggerProperties {
 		this.save = save;
 	}
 
+	public String[] getHeaderAllowlist() {
+		return headerAllowlist;
+	}
+
+	public void setHeaderAllowlist(String[] headerAllowlist) {
+		this.headerAllowlist = headerAllowlist;
+	}
+
+	public String[] getHeaderDenylist() {
+		return headerDenylist;
+	}
+
+	public void setHeaderDenylist(String[] headerDenylist) {
+		this.headerDenylist = headerDenylist;
+	}
+
 	@Override
 	public String toString() {
 		return "ChaosLoggerProperties{" +
 			"prefix='" + prefix + '\'' +
 			", ignoreUrls=" + Arrays.toString(ignoreUrls) +
 			", save=" + save +
+			", headerAllowlist=" + Arrays.toString(headerAllowlist) +
+			", headerDenylist=" + Arrays.toString(headerDenylist) +
 			'}';
 	}
 }
@@ -23,6 +23,11 @@ import java.util.concurrent.TimeUnit;
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
 
+	/**
+	 * 限流拒绝不需要堆栈，预先创建后重复抛出
+	 */
+	private static final Gear4jException RATE_LIMITED = Gear4jException.fastFail("当前请求频繁，请稍后重试！");
+
 	@Lazy
 	@Resource
 	private RedisCache redisCache;
@@ -55,7 +60,7 @@ public class RateLimitInterceptor implements HandlerInterceptor {
                     long redisTime = redisCache.getExpire(key);
                     // 流量溢出
                     if (redisSize >= size) {
-                        throw new Gear4jException("当前请求频繁，请稍后重试！");
+                        throw RATE_LIMITED;
                     }
                     // 更新缓存
                     redisCache.cacheValue(key, redisSize + 1, redisTime, TimeUnit.SECONDS);
@@ -36,4 +36,24 @@ public class Gear4jSafeException extends Gear4jException {
     public Gear4jSafeException(Throwable cause, String messageTemplate, Object... params) {
         super(CharSequenceUtil.format(messageTemplate, params), cause);
     }
+
+    /**
+     * 快速失败异常，见 {@link Gear4jException#isFastFail()}
+     *
+     * @param message  异常信息
+     * @param fastFail 是否快速失败
+     */
+    protected Gear4jSafeException(String message, boolean fastFail) {
+        super(message, fastFail);
+    }
+
+    /**
+     * 创建快速失败异常
+     *
+     * @param message 异常信息
+     * @return {@link Gear4jSafeException}
+     */
+    public static Gear4jSafeException fastFail(String message) {
+        return new Gear4jSafeException(message, true);
+    }
 }
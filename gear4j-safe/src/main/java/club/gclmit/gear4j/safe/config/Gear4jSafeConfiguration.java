@@ -9,8 +9,7 @@ import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import com.alibaba.fastjson.JSONObject;
-
+import club.gclmit.gear4j.core.json.JsonCodecs;
 import club.gclmit.gear4j.safe.core.SafeFilter;
 
 /**
@@ -36,7 +35,7 @@ public class Gear4jSafeConfiguration {
         registration.setUrlPatterns(properties.getUrlPatterns());
         registration.setName("safeFilter");
         registration.setOrder(9999);
-        registration.addInitParameter(Gear4jSafeProperties.CONFIG_NAME, JSONObject.toJSONString(properties));
+        registration.addInitParameter(Gear4jSafeProperties.CONFIG_NAME, JsonCodecs.getDefault().toJson(properties));
         return registration;
     }
 }
@@ -176,4 +176,20 @@ public class Gear4jSafeProperties {
      */
     private List<String> excludes = new ArrayList<>();
 
+    /**
+     * 按 JSON / 表单结构流式检查 Request Body，只检查字符串值，默认开启
+     */
+    private boolean streamingInspect = true;
+
+    /**
+     * 需要检查的 Request Body（JSON、文本、XML）最大检查字节数，超过直接拒绝，小于等于 0 表示不限制，默认 10MB；
+     * 表单检查容器解析出的参数，二进制等其他类型不读取、不限制
+     */
+    private long maxInspectSize = 10 * 1024 * 1024;
+
+    /**
+     * 检查结果缓存条数，相同的值只检查一次，小于等于 0 表示关闭缓存，默认 4096
+     */
+    private int verdictCacheSize = 4096;
+
 }
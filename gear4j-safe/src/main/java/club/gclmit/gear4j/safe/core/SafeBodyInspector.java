@@ -0,0 +1,189 @@
+package club.gclmit.gear4j.safe.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+import javax.servlet.ServletRequest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+
+import club.gclmit.gear4j.core.http.servlet.RequestBodyHolder;
+import club.gclmit.gear4j.core.http.servlet.RequestBodyTooLargeException;
+import club.gclmit.gear4j.safe.Gear4jSafeException;
+
+/**
+ * Request Body 安全检查
+ * <p>
+ * 流式模式下 {@code application/json} 与 {@code application/x-www-form-urlencoded} 按 token 增量解析，只对字符串值执行注入规则，
+ * 发现第一个违规值立即失败，不会把整个 body 解码成一个字符串。text/* 与 XML 以及 JSON 解析失败时退回到整体检查，
+ * 二进制等其他类型不读取、不检查，见 {@link #isInspected(String)}。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/22 14:05
+ * @since jdk11
+ */
+public class SafeBodyInspector {
+
+	public static final String OVERSIZE_MESSAGE = "请求体超过安全检查上限，拒绝访问!";
+
+	private static final String FORM = "application/x-www-form-urlencoded";
+
+	private static final Gear4jSafeException OVERSIZE_EXCEPTION = Gear4jSafeException.fastFail(OVERSIZE_MESSAGE);
+
+	/**
+	 * 尽量与 fastjson 的宽松语法保持一致，避免业务能解析而检查被绕过
+	 */
+	private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+		.enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+		.enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+		.enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+		.enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+		.enable(JsonReadFeature.ALLOW_BACKSLASH_ESCAPING_ANY_CHARACTER)
+		.enable(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS)
+		.enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+		.build();
+
+	private final long maxInspectSize;
+
+	private final boolean streaming;
+
+	/**
+	 * @param maxInspectSize 最大检查字节数，超过直接拒绝，小于等于 0 表示不限制
+	 * @param streaming      是否按 JSON / 表单结构流式检查
+	 */
+	public SafeBodyInspector(long maxInspectSize, boolean streaming) {
+		this.maxInspectSize = maxInspectSize;
+		this.streaming = streaming;
+	}
+
+	/**
+	 * 是否为会检查 body 的文本类型：JSON、表单、text/* 与 XML
+	 *
+	 * @param contentType 请求 Content-Type
+	 * @return 需要检查返回 true
+	 */
+	public static boolean isInspected(String contentType) {
+		if (contentType == null) {
+			return false;
+		}
+		String type = contentType.toLowerCase(Locale.ROOT);
+		return type.contains("json") || type.startsWith(FORM) || type.startsWith("text/") || type.contains("xml");
+	}
+
+	/**
+	 * 是否为表单，表单参数由容器解析
+	 *
+	 * @param contentType 请求 Content-Type
+	 * @return 表单返回 true
+	 */
+	public static boolean isForm(String contentType) {
+		return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(FORM);
+	}
+
+	/**
+	 * 按检查上限读取 body：Content-Length 超过上限时不读取，读取过程中超过上限时立即停止，拒绝前不会把整个 body 读入内存
+	 *
+	 * @param request 请求
+	 * @return {@link RequestBodyHolder}
+	 * @throws IOException 读取异常
+	 */
+	public RequestBodyHolder read(ServletRequest request) throws IOException {
+		try {
+			return RequestBodyHolder.of(request, maxInspectSize);
+		} catch (RequestBodyTooLargeException e) {
+			throw OVERSIZE_EXCEPTION;
+		}
+	}
+
+	/**
+	 * 检查 body，违规时抛出 {@link Gear4jSafeException}
+	 *
+	 * @param body        请求体
+	 * @param contentType 请求 Content-Type
+	 * @throws IOException 读取异常
+	 */
+	public void inspect(RequestBodyHolder body, String contentType) throws IOException {
+		if (body.length() == 0) {
+			return;
+		}
+		// 其他组件不限制大小先读取的 body 在这里拒绝
+		if (maxInspectSize > 0 && body.length() > maxInspectSize) {
+			throw OVERSIZE_EXCEPTION;
+		}
+		String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+		if (streaming && type.contains("json")) {
+			inspectJson(body);
+		} else if (streaming && type.startsWith(FORM)) {
+			inspectForm(body);
+		} else {
+			check(body.asString());
+		}
+	}
+
+	private void inspectJson(RequestBodyHolder body) throws IOException {
+		try (JsonParser parser = JSON_FACTORY.createParser(reader(body))) {
+			JsonToken token;
+			while ((token = parser.nextToken()) != null) {
+				if (token == JsonToken.VALUE_STRING) {
+					check(parser.getText());
+				}
+			}
+		} catch (JsonProcessingException e) {
+			// 非法 JSON 无法按结构检查，整体检查一遍
+			check(body.asString());
+		}
+	}
+
+	private void inspectForm(RequestBodyHolder body) throws IOException {
+		Charset charset = body.getCharset();
+		StringBuilder value = new StringBuilder();
+		boolean inValue = false;
+		try (Reader reader = reader(body)) {
+			int c;
+			while ((c = reader.read()) != -1) {
+				if (c == '&') {
+					if (inValue) {
+						check(decode(value, charset));
+					}
+					value.setLength(0);
+					inValue = false;
+				} else if (inValue) {
+					value.append((char) c);
+				} else if (c == '=') {
+					inValue = true;
+				}
+			}
+		}
+		if (inValue) {
+			check(decode(value, charset));
+		}
+	}
+
+	private static Reader reader(RequestBodyHolder body) {
+		return new BufferedReader(new InputStreamReader(body.newInputStream(), body.getCharset()));
+	}
+
+	private static String decode(StringBuilder value, Charset charset) {
+		String raw = value.toString();
+		try {
+			return URLDecoder.decode(raw, charset);
+		} catch (IllegalArgumentException e) {
+			return raw;
+		}
+	}
+
+	private static void check(String text) {
+		if (SafeRules.isInjection(text)) {
+			throw SafeRules.INJECTION_EXCEPTION;
+		}
+	}
+}
@@ -146,8 +146,8 @@ import java.util.List;
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 
-import com.alibaba.fastjson.JSONObject;
-
+import club.gclmit.gear4j.core.json.JsonCodecs;
+import club.gclmit.gear4j.core.utils.ServletUtils;
 import club.gclmit.gear4j.core.utils.UrlUtils;
 import club.gclmit.gear4j.safe.config.Gear4jSafeProperties;
 import cn.hutool.core.collection.CollUtil;
@@ -161,10 +161,15 @@ public class SafeFilter implements Filter {
 
     private Gear4jSafeProperties properties;
 
+    private SafeBodyInspector bodyInspector;
+
     @Override
     public void init(FilterConfig filterConfig) {
         String config = filterConfig.getInitParameter(Gear4jSafeProperties.CONFIG_NAME);
-        properties = JSONObject.parseObject(config, Gear4jSafeProperties.class);
+        properties = JsonCodecs.getDefault().parse(config, Gear4jSafeProperties.class);
+        bodyInspector = new SafeBodyInspector(properties.getMaxInspectSize(), properties.isStreamingInspect());
+        int cacheSize = properties.getVerdictCacheSize();
+        SafeRules.setVerdictCache(cacheSize > 0 ? new SafeVerdictCache(cacheSize) : null);
     }
 
     @Override
@@ -175,7 +180,11 @@ public class SafeFilter implements Filter {
         if (isExcludeUrl(request.getServletPath())) {
             chain.doFilter(servletRequest, servletResponse);
         } else {
-            SafeHttpServletRequestWrapper xssRequest = new SafeHttpServletRequestWrapper(request);
+            SafeHttpServletRequestWrapper xssRequest = new SafeHttpServletRequestWrapper(request, bodyInspector);
+            if (!ServletUtils.isFileUpload(request)) {
+                // 进入后续过滤器之前检查表单参数或 body，违规时在响应提交之前拒绝
+                xssRequest.checkRequest();
+            }
             chain.doFilter(xssRequest, servletResponse);
         }
     }
@@ -140,9 +140,11 @@
 
 package club.gclmit.gear4j.safe.core;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
@@ -150,12 +152,10 @@ import javax.servlet.http.HttpServletRequestWrapper;
 
 import org.springframework.web.servlet.HandlerMapping;
 
-import com.alibaba.fastjson.JSONObject;
-
+import club.gclmit.gear4j.core.http.servlet.RequestBodyHolder;
+import club.gclmit.gear4j.core.json.JsonCodecs;
 import club.gclmit.gear4j.core.utils.ArrayUtils;
-import club.gclmit.gear4j.core.utils.IoUtils;
-import club.gclmit.gear4j.safe.Gear4jSafeException;
-import cn.hutool.core.util.CharsetUtil;
+import club.gclmit.gear4j.safe.config.Gear4jSafeProperties;
 
 /**
  * safe Request
@@ -164,6 +164,26 @@ import cn.hutool.core.util.CharsetUtil;
  */
 public class SafeHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
+    private static final SafeBodyInspector DEFAULT_BODY_INSPECTOR =
+        new SafeBodyInspector(new Gear4jSafeProperties().getMaxInspectSize(), true);
+
+    private final SafeBodyInspector bodyInspector;
+
+    /**
+     * body 是否已经校验
+     */
+    private boolean bodyChecked;
+
+    /**
+     * 本次请求中已经校验通过的值，同一个 header / 参数被多次读取时只校验一次
+     */
+    private Set<String> checkedValues;
+
+    /**
+     * 已经校验通过的路径变量
+     */
+    private Object checkedUriVariables;
+
     /**
      * Constructs a request object wrapping the given request.
      *
@@ -171,7 +191,19 @@ public class SafeHttpServletRequestWrapper extends HttpServletRequestWrapper {
      * @throws IllegalArgumentException if the request is null
      */
     public SafeHttpServletRequestWrapper(HttpServletRequest request) {
+        this(request, DEFAULT_BODY_INSPECTOR);
+    }
+
+    /**
+     * Constructs a request object wrapping the given request.
+     *
+     * @param request       The request to wrap
+     * @param bodyInspector body 检查器
+     * @throws IllegalArgumentException if the request is null
+     */
+    public SafeHttpServletRequestWrapper(HttpServletRequest request, SafeBodyInspector bodyInspector) {
         super(request);
+        this.bodyInspector = bodyInspector;
     }
 
     /**
@@ -206,11 +238,11 @@ public class SafeHttpServletRequestWrapper extends HttpServletRequestWrapper {
     public String[] getParameterValues(String name) {
         String[] values = super.getParameterValues(name);
         if (ArrayUtils.isNotEmpty(values)) {
-            if (SafeRules.isInjection(List.of(values))) {
-                throw new Gear4jSafeException("您所访问的页面请求中有违反安全规则元素存在，拒绝访问!");
+            for (String value : values) {
+                validaHandler(value);
             }
         }
-        return super.getParameterValues(name);
+        return values;
     }
 
     /**
@@ -220,30 +252,84 @@ public class SafeHttpServletRequestWrapper extends HttpServletRequestWrapper {
     public Object getAttribute(String name) {
         if (HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE.equals(name)) {
             Object attribute = super.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
-            if (Objects.isNull(attribute)) {
+            if (Objects.isNull(attribute) || attribute == checkedUriVariables) {
                 return attribute;
             }
-            String result = JSONObject.toJSONString(attribute);
+            String result = JsonCodecs.getDefault().toJson(attribute);
             if (SafeRules.isInjection(result)) {
-                throw new Gear4jSafeException("您所访问的页面请求中有违反安全规则元素存在，拒绝访问!");
+                throw SafeRules.INJECTION_EXCEPTION;
             }
+            checkedUriVariables = attribute;
+            return attribute;
         }
         return super.getAttribute(name);
     }
 
+    /**
+     * 需要检查的 body 与其他 gear4j 过滤器共享同一份 {@link RequestBodyHolder}，只校验一次；
+     * 二进制等不检查的类型直接返回原始输入流，不读入内存
+     */
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        String result = IoUtils.read(super.getInputStream(), CharsetUtil.CHARSET_UTF_8);
-        if (SafeRules.isInjection(result)) {
-            throw new Gear4jSafeException("您所访问的页面请求中有违反安全规则元素存在，拒绝访问!");
+        if (!SafeBodyInspector.isInspected(getContentType())) {
+            return super.getInputStream();
+        }
+        return checkBody().newServletInputStream();
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (!SafeBodyInspector.isInspected(getContentType())) {
+            return super.getReader();
+        }
+        return checkBody().newReader();
+    }
+
+    /**
+     * 进入后续过滤器之前检查请求：表单检查容器解析出的参数，不读取输入流，否则容器不再解析表单参数；
+     * 其他需要检查的类型读取并检查 body
+     *
+     * @throws IOException 读取异常
+     */
+    void checkRequest() throws IOException {
+        String contentType = getContentType();
+        if (SafeBodyInspector.isForm(contentType)) {
+            for (String[] values : getRequest().getParameterMap().values()) {
+                for (String value : values) {
+                    validaHandler(value);
+                }
+            }
+        } else if (SafeBodyInspector.isInspected(contentType)) {
+            checkBody();
+        }
+    }
+
+    /**
+     * 读取并检查 body，只检查一次
+     *
+     * @return {@link RequestBodyHolder}
+     * @throws IOException 读取异常
+     */
+    RequestBodyHolder checkBody() throws IOException {
+        RequestBodyHolder body = bodyInspector.read(getRequest());
+        if (!bodyChecked) {
+            bodyInspector.inspect(body, getContentType());
+            bodyChecked = true;
         }
-        return super.getInputStream();
+        return body;
     }
 
     private String validaHandler(String text) {
+        if (text == null || text.isEmpty() || (checkedValues != null && checkedValues.contains(text))) {
+            return text;
+        }
         if (SafeRules.isInjection(text)) {
-            throw new Gear4jSafeException("您所访问的页面请求中有违反安全规则元素存在，拒绝访问!");
+            throw SafeRules.INJECTION_EXCEPTION;
+        }
+        if (checkedValues == null) {
+            checkedValues = new HashSet<>();
         }
+        checkedValues.add(text);
         return text;
     }
 }
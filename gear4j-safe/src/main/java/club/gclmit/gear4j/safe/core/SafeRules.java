@@ -2,6 +2,7 @@ package club.gclmit.gear4j.safe.core;
 
 import java.util.Collection;
 
+import club.gclmit.gear4j.safe.Gear4jSafeException;
 import club.gclmit.gear4j.safe.handler.SqlHandler;
 import club.gclmit.gear4j.safe.handler.XssHandler;
 
@@ -14,6 +15,30 @@ import club.gclmit.gear4j.safe.handler.XssHandler;
  */
 public class SafeRules {
 
+    /**
+     * 命中安全规则时的提示
+     */
+    public static final String INJECTION_MESSAGE = "您所访问的页面请求中有违反安全规则元素存在，拒绝访问!";
+
+    /**
+     * 命中安全规则时抛出的异常，不携带堆栈，预先创建后重复使用
+     */
+    public static final Gear4jSafeException INJECTION_EXCEPTION = Gear4jSafeException.fastFail(INJECTION_MESSAGE);
+
+    /**
+     * 全局检查结果缓存，为 null 时不缓存
+     */
+    private static volatile SafeVerdictCache verdictCache = new SafeVerdictCache(SafeVerdictCache.DEFAULT_CAPACITY);
+
+    /**
+     * 设置全局检查结果缓存
+     *
+     * @param cache 缓存，为 null 时关闭缓存
+     */
+    public static void setVerdictCache(SafeVerdictCache cache) {
+        verdictCache = cache;
+    }
+
     /**
      * 判断是不是注入xss和sql
      *
@@ -21,7 +46,20 @@ public class SafeRules {
      * @return {@link boolean} true
      */
     public static boolean isInjection(String text) {
-        return isXssInjection(text) || isSqlInjection(text);
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        SafeVerdictCache cache = verdictCache;
+        if (cache == null) {
+            return isXssInjection(text) || isSqlInjection(text);
+        }
+        Boolean cached = cache.get(text);
+        if (cached != null) {
+            return cached;
+        }
+        boolean injection = isXssInjection(text) || isSqlInjection(text);
+        cache.put(text, injection);
+        return injection;
     }
 
     /**
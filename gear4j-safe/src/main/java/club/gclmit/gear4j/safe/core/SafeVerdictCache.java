@@ -0,0 +1,138 @@
+package club.gclmit.gear4j.safe.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 安全规则检查结果缓存
+ * <p>
+ * 以值的 64 位哈希为键的有界 LRU，命中后再比较原值排除哈希碰撞。按哈希分段加锁，每段是一个访问顺序的
+ * {@link LinkedHashMap}，超过容量时淘汰最久未使用的值。常见的 User-Agent、Accept 等请求头只需检查一次。
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/7/25 10:12
+ * @since jdk11
+ */
+public class SafeVerdictCache {
+
+	/**
+	 * 默认缓存条数
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	/**
+	 * 超过该长度的值不缓存，避免缓存长期持有大字符串
+	 */
+	public static final int MAX_VALUE_LENGTH = 512;
+
+	private static final int SEGMENTS = 16;
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final Segment[] segments;
+
+	/**
+	 * @param capacity 最大缓存条数
+	 */
+	public SafeVerdictCache(int capacity) {
+		int segmentCapacity = Math.max(1, capacity / SEGMENTS);
+		this.segments = new Segment[SEGMENTS];
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment(segmentCapacity);
+		}
+	}
+
+	/**
+	 * 获取缓存的检查结果
+	 *
+	 * @param value 值
+	 * @return 未命中时返回 null
+	 */
+	public Boolean get(String value) {
+		if (value.length() > MAX_VALUE_LENGTH) {
+			return null;
+		}
+		return get(value, hash(value));
+	}
+
+	Boolean get(String value, long hash) {
+		Segment segment = segment(hash);
+		Verdict verdict;
+		synchronized (segment) {
+			verdict = segment.get(hash);
+		}
+		// 缓存保存原值（不超过 MAX_VALUE_LENGTH），哈希碰撞时按未命中处理，恶意值不会复用其他值的通过结果
+		return verdict != null && verdict.value.equals(value) ? verdict.injection : null;
+	}
+
+	/**
+	 * 缓存检查结果
+	 *
+	 * @param value     值
+	 * @param injection 是否注入
+	 */
+	public void put(String value, boolean injection) {
+		if (value.length() > MAX_VALUE_LENGTH) {
+			return;
+		}
+		put(value, hash(value), injection);
+	}
+
+	void put(String value, long hash, boolean injection) {
+		Segment segment = segment(hash);
+		synchronized (segment) {
+			segment.put(hash, new Verdict(value, injection));
+		}
+	}
+
+	private Segment segment(long hash) {
+		return segments[(int) (hash >>> 60) & (SEGMENTS - 1)];
+	}
+
+	/**
+	 * FNV-1a 64 位哈希，再做一次 murmur3 fmix64 打散高位
+	 */
+	static long hash(String value) {
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < value.length(); i++) {
+			hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	private static class Verdict {
+
+		private final String value;
+
+		private final boolean injection;
+
+		Verdict(String value, boolean injection) {
+			this.value = value;
+			this.injection = injection;
+		}
+	}
+
+	private static class Segment extends LinkedHashMap<Long, Verdict> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Verdict> eldest) {
+			return size() > capacity;
+		}
+	}
+}
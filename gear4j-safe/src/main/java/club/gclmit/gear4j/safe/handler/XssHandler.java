@@ -190,7 +190,7 @@ public class XssHandler {
         }
         String result = clean(text);
         if (!result.equals(text)) {
-            Log.info(LoggerProvider.GEAR4J, "XssInjection提醒你参数存在非法字符，请确认：[{}]", StringUtils.trimAll(text));
+            Log.info(LoggerProvider.GEAR4J, "XssInjection提醒你参数存在非法字符，请确认：[{}]", () -> StringUtils.trimAll(text));
             return true;
         }
         return false;
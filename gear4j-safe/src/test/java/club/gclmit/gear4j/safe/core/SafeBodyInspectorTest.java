@@ -0,0 +1,260 @@
+package club.gclmit.gear4j.safe.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import club.gclmit.gear4j.core.http.servlet.RequestBodyHolder;
+import club.gclmit.gear4j.core.json.JsonCodecs;
+import club.gclmit.gear4j.safe.Gear4jSafeException;
+import club.gclmit.gear4j.safe.config.Gear4jSafeProperties;
+
+/**
+ * SafeBodyInspector 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/3 14:00
+ * @since jdk11
+ */
+@DisplayName("SafeBodyInspector 测试")
+public class SafeBodyInspectorTest {
+
+	private static final String XSS = "<script>alert(1)</script>";
+
+	private final SafeBodyInspector inspector = new SafeBodyInspector(1024, true);
+
+	private final AtomicInteger opened = new AtomicInteger();
+
+	private MockHttpServletRequest request(String contentType, String body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api") {
+			@Override
+			public ServletInputStream getInputStream() {
+				opened.incrementAndGet();
+				return super.getInputStream();
+			}
+		};
+		request.setContentType(contentType);
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+
+	private void inspect(String contentType, String body) throws IOException {
+		MockHttpServletRequest request = request(contentType, body);
+		inspector.inspect(inspector.read(request), contentType);
+	}
+
+	private void assertRejected(String message, String contentType, String body) {
+		Gear4jSafeException e = Assertions.assertThrows(Gear4jSafeException.class, () -> inspect(contentType, body),
+			body);
+		Assertions.assertEquals(message, e.getMessage());
+	}
+
+	@Test
+	@DisplayName("JSON 逐个检查字符串值")
+	public void json() throws IOException {
+		String type = "application/json;charset=UTF-8";
+		inspect(type, "{\"name\":\"gclm\",\"tags\":[\"a\",\"b\"],\"age\":18,\"nested\":{\"ok\":true}}");
+		assertRejected(SafeRules.INJECTION_MESSAGE, type, "{\"name\":\"gclm\",\"tags\":[\"a\",\"" + XSS + "\"]}");
+		// 转义后的值按解码后的内容检查
+		assertRejected(SafeRules.INJECTION_MESSAGE, type, "{\"name\":\"\\u003cscript\\u003ealert(1)\\u003c/script\\u003e\"}");
+		// 宽松语法：单引号、注释、末尾逗号
+		inspect(type, "{name:'gclm', /* comment */ tags:['a',],}");
+		assertRejected(SafeRules.INJECTION_MESSAGE, type, "{name:'" + XSS + "'}");
+	}
+
+	@Test
+	@DisplayName("JSON 解析失败时整体检查")
+	public void malformedJson() throws IOException {
+		String type = "application/json";
+		inspect(type, "{a b \"hello\"}");
+		assertRejected(SafeRules.INJECTION_MESSAGE, type, "{a b \"" + XSS + "\"}");
+	}
+
+	@Test
+	@DisplayName("表单按 & 和 = 拆分并解码后检查值")
+	public void form() throws IOException {
+		String type = "application/x-www-form-urlencoded";
+		inspect(type, "name=gclm&desc=hello+world&empty=&flag");
+		// 编码后的值解码后再检查
+		assertRejected(SafeRules.INJECTION_MESSAGE, type, "name=gclm&desc=%3Cscript%3Ealert(1)%3C%2Fscript%3E");
+		// 最后一个值没有 & 结尾
+		assertRejected(SafeRules.INJECTION_MESSAGE, type, "desc=" + XSS);
+		// 编码的 & 和 = 属于值本身
+		inspect(type, "desc=a%26b%3Dc");
+		// 格式不正确的 % 按原值检查
+		inspect(type, "desc=100%");
+	}
+
+	@Test
+	@DisplayName("其他类型和非流式模式整体检查")
+	public void plain() throws IOException {
+		inspect("text/plain", "hello world");
+		assertRejected(SafeRules.INJECTION_MESSAGE, "text/plain", "hello " + XSS);
+		SafeBodyInspector whole = new SafeBodyInspector(1024, false);
+		MockHttpServletRequest request = request("application/json", "{\"desc\":\"" + XSS + "\"}");
+		Assertions.assertThrows(Gear4jSafeException.class, () -> whole.inspect(whole.read(request), "application/json"));
+	}
+
+	@Test
+	@DisplayName("超过检查上限时读取前拒绝")
+	public void oversize() throws IOException {
+		StringBuilder body = new StringBuilder("{\"data\":\"");
+		while (body.length() < 2048) {
+			body.append("abcdefgh");
+		}
+		body.append("\"}");
+		// Content-Length 超过上限，不打开输入流
+		assertRejected(SafeBodyInspector.OVERSIZE_MESSAGE, "application/json", body.toString());
+		Assertions.assertEquals(0, opened.get());
+
+		// 其他组件已经不限大小读取过的 body
+		MockHttpServletRequest request = request("application/json", body.toString());
+		RequestBodyHolder holder = RequestBodyHolder.of(request);
+		Gear4jSafeException e = Assertions.assertThrows(Gear4jSafeException.class,
+			() -> inspector.inspect(holder, "application/json"));
+		Assertions.assertEquals(SafeBodyInspector.OVERSIZE_MESSAGE, e.getMessage());
+
+		// 不限制大小
+		SafeBodyInspector unlimited = new SafeBodyInspector(0, true);
+		unlimited.inspect(unlimited.read(request("application/json", body.toString())), "application/json");
+	}
+
+	private static SafeFilter filter(long maxInspectSize) {
+		Gear4jSafeProperties properties = new Gear4jSafeProperties();
+		properties.setMaxInspectSize(maxInspectSize);
+		MockFilterConfig config = new MockFilterConfig();
+		config.addInitParameter(Gear4jSafeProperties.CONFIG_NAME, JsonCodecs.getDefault().toJson(properties));
+		SafeFilter filter = new SafeFilter();
+		filter.init(config);
+		return filter;
+	}
+
+	@Test
+	@DisplayName("过滤器在调用后续链之前拒绝")
+	public void filter() throws ServletException, IOException {
+		SafeFilter filter = filter(64);
+
+		MockFilterChain chain = new MockFilterChain();
+		Assertions.assertThrows(Gear4jSafeException.class, () -> filter.doFilter(
+			request("application/json", "{\"desc\":\"" + XSS + "\"}"), new MockHttpServletResponse(), chain));
+		Assertions.assertNull(chain.getRequest());
+		Assertions.assertThrows(Gear4jSafeException.class, () -> filter.doFilter(
+			request("application/json", "{\"desc\":\"" + "x".repeat(100) + "\"}"), new MockHttpServletResponse(), chain));
+		Assertions.assertNull(chain.getRequest());
+
+		filter.doFilter(request("application/json", "{\"desc\":\"ok\"}"), new MockHttpServletResponse(), chain);
+		Assertions.assertNotNull(chain.getRequest());
+	}
+
+	@Test
+	@DisplayName("表单检查容器解析的参数，不读取输入流")
+	public void formFilter() throws ServletException, IOException {
+		SafeFilter filter = filter(64);
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(new FormRequest("name=gclm&desc=hello+world&tag=a&tag=b"), new MockHttpServletResponse(), chain);
+		HttpServletRequest request = (HttpServletRequest) chain.getRequest();
+		Assertions.assertEquals("gclm", request.getParameter("name"));
+		Assertions.assertEquals("hello world", request.getParameter("desc"));
+		Assertions.assertArrayEquals(new String[] {"a", "b"}, request.getParameterValues("tag"));
+		Assertions.assertEquals(3, request.getParameterMap().size());
+
+		// 超过检查上限的表单同样由容器解析
+		filter.doFilter(new FormRequest("desc=" + "x".repeat(100)), new MockHttpServletResponse(), chain = new MockFilterChain());
+		Assertions.assertEquals("x".repeat(100), chain.getRequest().getParameter("desc"));
+
+		FormRequest injection = new FormRequest("name=gclm&desc=" + URLEncoder.encode(XSS, StandardCharsets.UTF_8));
+		Assertions.assertThrows(Gear4jSafeException.class,
+			() -> filter.doFilter(injection, new MockHttpServletResponse(), new MockFilterChain()));
+	}
+
+	@Test
+	@DisplayName("二进制 body 不读取、不限制大小")
+	public void binary() throws ServletException, IOException {
+		SafeFilter filter = filter(64);
+		MockFilterChain chain = new MockFilterChain();
+		String body = "x".repeat(100) + XSS;
+		filter.doFilter(request("application/octet-stream", body), new MockHttpServletResponse(), chain);
+		Assertions.assertEquals(0, opened.get());
+		byte[] read = chain.getRequest().getInputStream().readAllBytes();
+		Assertions.assertEquals(body, new String(read, StandardCharsets.UTF_8));
+		Assertions.assertEquals(1, opened.get());
+	}
+
+	/**
+	 * 与 Tomcat 一致：首次获取参数时解析表单，输入流已经被读取过时不再解析
+	 */
+	private static class FormRequest extends MockHttpServletRequest {
+
+		private boolean streamUsed;
+
+		private boolean parsed;
+
+		FormRequest(String body) {
+			super("POST", "/api");
+			setContentType("application/x-www-form-urlencoded");
+			setContent(body.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			streamUsed = true;
+			return super.getInputStream();
+		}
+
+		@Override
+		public BufferedReader getReader() throws UnsupportedEncodingException {
+			streamUsed = true;
+			return super.getReader();
+		}
+
+		@Override
+		public String getParameter(String name) {
+			parse();
+			return super.getParameter(name);
+		}
+
+		@Override
+		public String[] getParameterValues(String name) {
+			parse();
+			return super.getParameterValues(name);
+		}
+
+		@Override
+		public Map<String, String[]> getParameterMap() {
+			parse();
+			return super.getParameterMap();
+		}
+
+		private void parse() {
+			if (parsed) {
+				return;
+			}
+			parsed = true;
+			if (streamUsed) {
+				return;
+			}
+			for (String pair : new String(getContentAsByteArray(), StandardCharsets.UTF_8).split("&")) {
+				int eq = pair.indexOf('=');
+				addParameter(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+					URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+			}
+		}
+	}
+}
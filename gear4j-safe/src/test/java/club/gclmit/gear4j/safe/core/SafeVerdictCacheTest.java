@@ -0,0 +1,118 @@
+package club.gclmit.gear4j.safe.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import club.gclmit.gear4j.safe.Gear4jSafeException;
+
+/**
+ * SafeVerdictCache 测试
+ *
+ * @author <a href="https://blog.gclmit.club">gclm</a>
+ * @since 2022/8/3 15:00
+ * @since jdk11
+ */
+@DisplayName("SafeVerdictCache 测试")
+public class SafeVerdictCacheTest {
+
+	private static final String XSS = "<script>alert(1)</script>";
+
+	@AfterEach
+	public void reset() {
+		SafeRules.setVerdictCache(new SafeVerdictCache(SafeVerdictCache.DEFAULT_CAPACITY));
+	}
+
+	/**
+	 * 落在同一段的 count 个不同的值
+	 */
+	private static List<String> sameSegment(int count) {
+		List<String> values = new ArrayList<>();
+		long segment = SafeVerdictCache.hash("value-0") >>> 60;
+		for (int i = 0; values.size() < count; i++) {
+			String value = "value-" + i;
+			if (SafeVerdictCache.hash(value) >>> 60 == segment) {
+				values.add(value);
+			}
+		}
+		return values;
+	}
+
+	@Test
+	@DisplayName("每段按 LRU 淘汰")
+	public void eviction() {
+		// 16 段，每段 2 条
+		SafeVerdictCache cache = new SafeVerdictCache(32);
+		List<String> values = sameSegment(3);
+		String other = "other";
+		while (SafeVerdictCache.hash(other) >>> 60 == SafeVerdictCache.hash(values.get(0)) >>> 60) {
+			other += "-";
+		}
+		cache.put(other, false);
+		cache.put(values.get(0), false);
+		cache.put(values.get(1), true);
+		// 访问后 values[0] 变为最近使用，写入第 3 个值淘汰 values[1]
+		Assertions.assertEquals(Boolean.FALSE, cache.get(values.get(0)));
+		cache.put(values.get(2), false);
+		Assertions.assertEquals(Boolean.FALSE, cache.get(values.get(0)));
+		Assertions.assertNull(cache.get(values.get(1)));
+		Assertions.assertEquals(Boolean.FALSE, cache.get(values.get(2)));
+		// 其他段不受影响
+		Assertions.assertEquals(Boolean.FALSE, cache.get(other));
+	}
+
+	@Test
+	@DisplayName("超长的值不缓存")
+	public void maxValueLength() {
+		SafeVerdictCache cache = new SafeVerdictCache(64);
+		String limit = "a".repeat(SafeVerdictCache.MAX_VALUE_LENGTH);
+		String longer = limit + "a";
+		cache.put(limit, false);
+		cache.put(longer, false);
+		Assertions.assertEquals(Boolean.FALSE, cache.get(limit));
+		Assertions.assertNull(cache.get(longer));
+
+		// 不缓存时照常检查
+		SafeRules.setVerdictCache(cache);
+		String injection = longer + XSS;
+		Assertions.assertTrue(SafeRules.isInjection(injection));
+		Assertions.assertNull(cache.get(injection));
+		Assertions.assertTrue(SafeRules.isInjection(injection));
+	}
+
+	@Test
+	@DisplayName("哈希碰撞时不复用其他值的结果")
+	public void collision() {
+		SafeVerdictCache cache = new SafeVerdictCache(64);
+		cache.put("clean", 42L, false);
+		Assertions.assertEquals(Boolean.FALSE, cache.get("clean", 42L));
+		Assertions.assertNull(cache.get(XSS, 42L));
+		cache.put(XSS, 42L, true);
+		Assertions.assertEquals(Boolean.TRUE, cache.get(XSS, 42L));
+		Assertions.assertNull(cache.get("clean", 42L));
+	}
+
+	@Test
+	@DisplayName("缓存的拒绝结果仍然抛出异常")
+	public void cachedReject() {
+		SafeVerdictCache cache = new SafeVerdictCache(64);
+		SafeRules.setVerdictCache(cache);
+		Assertions.assertTrue(SafeRules.isInjection(XSS));
+		Assertions.assertEquals(Boolean.TRUE, cache.get(XSS));
+		Assertions.assertTrue(SafeRules.isInjection(XSS));
+		Assertions.assertFalse(SafeRules.isInjection("hello"));
+		Assertions.assertEquals(Boolean.FALSE, cache.get("hello"));
+
+		for (int i = 0; i < 2; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			request.addParameter("q", XSS);
+			SafeHttpServletRequestWrapper wrapper = new SafeHttpServletRequestWrapper(request);
+			Assertions.assertThrows(Gear4jSafeException.class, () -> wrapper.getParameter("q"));
+		}
+	}
+}
@@ -140,6 +140,8 @@
 
 package club.gclmit.gear4j.web;
 
+import club.gclmit.gear4j.core.exception.Gear4jException;
+import club.gclmit.gear4j.core.lang.ErrorAggregator;
 import club.gclmit.gear4j.domain.result.ApiResult;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
@@ -164,6 +166,11 @@ import java.util.stream.Collectors;
  */
 public class Gear4jGlobalExceptionHandler {
 
+	/**
+	 * 异常日志聚合，相同异常只输出一次堆栈，之后按窗口汇总
+	 */
+	protected final ErrorAggregator errorAggregator = ErrorAggregator.getInstance();
+
 	/**
 	 * 不 支 持 的 请 求 类 型
 	 */
@@ -177,7 +184,7 @@ public class Gear4jGlobalExceptionHandler {
 	 */
 	@ExceptionHandler(SQLSyntaxErrorException.class)
 	public ApiResult<Object> notColumn(RuntimeException e) {
-		e.printStackTrace();
+		errorAggregator.record("列不存在", e);
 		return ApiResult.fail("列不存在：" + e.getMessage());
 	}
 
@@ -221,7 +228,11 @@ public class Gear4jGlobalExceptionHandler {
 	 */
 	@ExceptionHandler(RuntimeException.class)
 	public ApiResult<Object> notFount(RuntimeException e) {
-		e.printStackTrace();
+		// 限流、安全拦截等快速失败异常没有堆栈，直接返回提示
+		if (e instanceof Gear4jException && ((Gear4jException) e).isFastFail()) {
+			return ApiResult.fail(e.getMessage());
+		}
+		errorAggregator.record("运行时异常", e);
 		return ApiResult.fail("运行时异常：" + e.getMessage());
 	}
 
@@ -230,7 +241,7 @@ public class Gear4jGlobalExceptionHandler {
 	 */
 	@ExceptionHandler(Exception.class)
 	public ApiResult<Object> handleException(Exception e) {
-		e.printStackTrace();
+		errorAggregator.record("系统异常", e);
 		return ApiResult.fail("服务器错误，请联系管理员");
 	}
 }
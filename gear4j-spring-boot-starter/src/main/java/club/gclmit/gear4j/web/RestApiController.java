@@ -140,8 +140,8 @@
 
 package club.gclmit.gear4j.web;
 
+import club.gclmit.gear4j.core.lang.UrlCodec;
 import club.gclmit.gear4j.core.utils.StringUtils;
-import club.gclmit.gear4j.core.utils.UrlUtils;
 import club.gclmit.gear4j.domain.query.BaseQuery;
 import club.gclmit.gear4j.domain.result.ApiResult;
 import club.gclmit.gear4j.domain.result.PageResult;
@@ -263,8 +263,8 @@ public class RestApiController<Service extends IService<T>, T> {
 	public ApiResult<T> batchDelete(String ids) {
 		Assert.notNull(ids, "ids不能为空");
 		log.info("批量删除，ids:{}", ids);
-		if (UrlUtils.hasUrlEncoded(ids)) {
-			ids = UrlUtils.decode(ids);
+		if (UrlCodec.isEncoded(ids)) {
+			ids = UrlCodec.decode(ids);
 		}
 		List<String> idList = Arrays.asList(ids.split(","));
 		return this.service.removeByIds(idList) ? ApiResult.ok() : ApiResult.fail("批量删除失败");